@@ -0,0 +1,21 @@
+package dev.emrullaharac.wetterflux;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+// Recorded Open-Meteo responses from src/test/resources/openmeteo.
+public final class Payloads {
+
+    private Payloads() {
+    }
+
+    public static byte[] load(String payload) {
+        try (InputStream in = Payloads.class.getResourceAsStream("/openmeteo/" + payload)) {
+            if (in == null) throw new IllegalArgumentException("Unknown payload " + payload);
+            return in.readAllBytes();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package dev.emrullaharac.wetterflux.cache;
+
+import dev.emrullaharac.wetterflux.model.domain.WeatherQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheKeyBenchmark {
+
+    // buildKey only reads the query, the collaborators are never touched.
+    private final WeatherCacheService weatherCacheService = new WeatherCacheService(null, null, null, null, null, null);
+
+    private WeatherQuery query;
+
+    @Setup
+    public void setUp() {
+        query = new WeatherQuery(52.52, 13.41,
+                "temperature_2m,weather_code,wind_speed_10m",
+                "relative_humidity_2m,temperature_2m",
+                "temperature_2m_max,temperature_2m_min,weather_code",
+                7, "Europe/Berlin", "celsius", "kmh");
+    }
+
+    @Benchmark
+    public String buildKey() {
+        return weatherCacheService.buildKey(query);
+    }
+}
@@ -0,0 +1,69 @@
+package dev.emrullaharac.wetterflux.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.emrullaharac.wetterflux.Payloads;
+import dev.emrullaharac.wetterflux.client.StreamingForecastDecoder;
+import dev.emrullaharac.wetterflux.config.RedisConfig;
+import dev.emrullaharac.wetterflux.model.dto.WeatherResponseDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+// Redis value (de)serialization of a cached response, per format the weather.cache.serializer
+// properties can select.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WeatherSerializerBenchmark {
+
+    @Param({"forecast_1d.json", "forecast_7d.json", "forecast_16d.json"})
+    public String payload;
+
+    @Param({"json", "binary", "binary-deflate"})
+    public String format;
+
+    private RedisSerializer<CachedWeather> serializer;
+    private CachedWeather entry;
+    private byte[] bytes;
+
+    @Setup
+    public void setUp() throws Exception {
+        Jackson2JsonRedisSerializer<CachedWeather> json = RedisConfig.jsonWeatherSerializer();
+        serializer = switch (format) {
+            case "json" -> json;
+            case "binary" -> new BinaryWeatherSerializer(json, false, 0);
+            case "binary-deflate" -> new BinaryWeatherSerializer(json, true, 2048);
+            default -> throw new IllegalArgumentException(format);
+        };
+
+        WeatherResponseDto response = new StreamingForecastDecoder(new ObjectMapper()).decode(Payloads.load(payload));
+        long now = System.currentTimeMillis();
+        entry = new CachedWeather(response, now, now + 900_000, now + 3_600_000);
+        bytes = serializer.serialize(entry);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(entry);
+    }
+
+    @Benchmark
+    public CachedWeather deserialize() {
+        return serializer.deserialize(bytes);
+    }
+}
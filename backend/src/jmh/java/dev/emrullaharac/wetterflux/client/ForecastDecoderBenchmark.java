@@ -0,0 +1,52 @@
+package dev.emrullaharac.wetterflux.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.emrullaharac.wetterflux.Payloads;
+import dev.emrullaharac.wetterflux.model.dto.WeatherResponseDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Open-Meteo body to WeatherResponseDto, the step that used to be the JsonNode mapping in
+// WeatherService.getWeather.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ForecastDecoderBenchmark {
+
+    @Param({"forecast_1d.json", "forecast_7d.json", "forecast_16d.json"})
+    public String payload;
+
+    @Param({"streaming", "tree"})
+    public String decoder;
+
+    private ForecastDecoder forecastDecoder;
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        forecastDecoder = "tree".equals(decoder)
+                ? new TreeForecastDecoder(objectMapper)
+                : new StreamingForecastDecoder(objectMapper);
+        body = Payloads.load(payload);
+    }
+
+    @Benchmark
+    public WeatherResponseDto decode() throws Exception {
+        return forecastDecoder.decode(body);
+    }
+}
@@ -0,0 +1,39 @@
+package dev.emrullaharac.wetterflux.loadtest;
+
+import java.util.Arrays;
+
+// Raw latency samples of one worker; merged and sorted once at the end of a run, so percentiles are exact.
+final class LatencyRecorder {
+
+    private long[] samples = new long[1 << 14];
+    private int size;
+
+    void record(long nanos) {
+        if (size == samples.length) samples = Arrays.copyOf(samples, size * 2);
+        samples[size++] = nanos;
+    }
+
+    int size() {
+        return size;
+    }
+
+    static long[] merge(Iterable<LatencyRecorder> recorders) {
+        int total = 0;
+        for (LatencyRecorder recorder : recorders) total += recorder.size;
+        long[] merged = new long[total];
+        int offset = 0;
+        for (LatencyRecorder recorder : recorders) {
+            System.arraycopy(recorder.samples, 0, merged, offset, recorder.size);
+            offset += recorder.size;
+        }
+        Arrays.sort(merged);
+        return merged;
+    }
+
+    // Nearest-rank percentile of sorted samples, in nanos; 0 without samples.
+    static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) return 0;
+        int rank = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank))];
+    }
+}
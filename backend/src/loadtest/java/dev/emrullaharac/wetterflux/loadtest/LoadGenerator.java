@@ -0,0 +1,270 @@
+package dev.emrullaharac.wetterflux.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Sends GET /api/v1/weather for locations drawn from a key pattern:
+//   uniform    every key equally likely
+//   hot-key    hot-share of the requests go to the first hot-keys keys, the rest is uniform
+//   long-tail  Zipf over all keys with zipf-exponent
+// prewarm requests every key once and pause-seconds waits before measuring, so with a short TTL on the
+// service the measured phase starts with every key expired at once (expiry-storm). With rate > 0 the
+// load is open-loop and latency counts from the intended send time, so a stalled service is not hidden.
+final class LoadGenerator {
+
+    record Report(String scenario, double seconds, long requests, long errors, Map<String, Long> failures,
+                  long[] latencies, String upstream) {
+
+        String format() {
+            StringBuilder out = new StringBuilder();
+            out.append(String.format(Locale.ROOT, "scenario=%s duration=%.1fs requests=%d errors=%d rps=%.1f%n",
+                    scenario, seconds, requests, errors, seconds > 0 ? requests / seconds : 0));
+            out.append(String.format(Locale.ROOT, "latency_ms p50=%.2f p90=%.2f p99=%.2f p999=%.2f max=%.2f%n",
+                    millis(0.50), millis(0.90), millis(0.99), millis(0.999), millis(1.0)));
+            if (!failures.isEmpty()) out.append("failures ").append(failures).append('\n');
+            if (upstream != null) out.append("upstream ").append(upstream).append('\n');
+            return out.toString().stripTrailing();
+        }
+
+        private double millis(double percentile) {
+            return LatencyRecorder.percentile(latencies, percentile) / 1_000_000d;
+        }
+    }
+
+    private final Settings settings;
+    private final String target;
+    private final String path;
+    private final String pattern;
+    private final int keys;
+    private final int hotKeys;
+    private final double hotShare;
+    private final int[] forecastDays;
+    private final String query;
+    private final int concurrency;
+    private final double rate;
+    private final Duration timeout;
+    private final long seed;
+    private final double[] zipfCdf;
+
+    private final HttpClient client;
+
+    LoadGenerator(Settings settings) {
+        this.settings = settings;
+        this.target = settings.string("target", "http://localhost:8080");
+        this.path = settings.string("path", "/api/v1/weather");
+        this.pattern = settings.string("pattern", "uniform");
+        this.keys = settings.integer("keys", 10_000);
+        this.hotKeys = Math.min(keys, settings.integer("hot-keys", 10));
+        this.hotShare = settings.decimal("hot-share", 0.9);
+        this.forecastDays = settings.integers("forecast-days", "7");
+        this.query = settings.string("query", "");
+        this.concurrency = settings.integer("concurrency", 64);
+        this.rate = settings.decimal("rate", 0);
+        this.timeout = Duration.ofMillis(settings.longValue("timeout-ms", 10_000));
+        this.seed = settings.longValue("seed", 42);
+        this.zipfCdf = pattern.equals("long-tail") ? zipfCdf(keys, settings.decimal("zipf-exponent", 1.1)) : null;
+        if (!List.of("uniform", "hot-key", "long-tail").contains(pattern)) {
+            throw new IllegalArgumentException("Unknown pattern " + pattern);
+        }
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    Report run() throws InterruptedException {
+        if (settings.flag("prewarm", false)) {
+            prewarm();
+            long pause = settings.longValue("pause-seconds", 0);
+            if (pause > 0) {
+                System.out.printf("loadtest_pause seconds=%d%n", pause);
+                TimeUnit.SECONDS.sleep(pause);
+            }
+        }
+
+        long warmupNanos = TimeUnit.SECONDS.toNanos(settings.longValue("warmup-seconds", 10));
+        long durationNanos = TimeUnit.SECONDS.toNanos(settings.longValue("duration-seconds", 60));
+        String upstreamBefore = upstreamStats();
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+        List<Worker> workers = new ArrayList<>(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                Worker worker = new Worker(new SplittableRandom(seed + i), start, measureFrom, end,
+                        rate > 0 ? (long) (concurrency * 1e9 / rate) : 0, i);
+                workers.add(worker);
+                executor.execute(worker);
+            }
+        }
+
+        long[] latencies = LatencyRecorder.merge(workers.stream().map(w -> w.recorder).toList());
+        long errors = 0;
+        Map<String, Long> failures = new TreeMap<>();
+        for (Worker worker : workers) {
+            errors += worker.errors;
+            worker.failures.forEach((reason, count) -> failures.merge(reason, count, Long::sum));
+        }
+        String upstreamAfter = upstreamStats();
+        String upstream = upstreamAfter == null ? null : "before=" + upstreamBefore + " after=" + upstreamAfter;
+        return new Report(settings.name(), durationNanos / 1e9, latencies.length, errors, failures, latencies, upstream);
+    }
+
+    private void prewarm() throws InterruptedException {
+        System.out.printf("loadtest_prewarm keys=%d%n", keys);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int t = 0; t < concurrency; t++) {
+                int offset = t;
+                executor.execute(() -> {
+                    for (int key = offset; key < keys; key += concurrency) {
+                        try {
+                            client.send(request(key), HttpResponse.BodyHandlers.discarding());
+                        } catch (IOException ex) {
+                            // Counted in the measured phase, not here.
+                        } catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                    }
+                });
+            }
+        }
+    }
+
+    private final class Worker implements Runnable {
+
+        final LatencyRecorder recorder = new LatencyRecorder();
+        final Map<String, Long> failures = new TreeMap<>();
+        long errors;
+
+        private final SplittableRandom random;
+        private final long start;
+        private final long measureFrom;
+        private final long end;
+        private final long intervalNanos;
+        private final int index;
+
+        Worker(SplittableRandom random, long start, long measureFrom, long end, long intervalNanos, int index) {
+            this.random = random;
+            this.start = start;
+            this.measureFrom = measureFrom;
+            this.end = end;
+            this.intervalNanos = intervalNanos;
+            this.index = index;
+        }
+
+        @Override
+        public void run() {
+            // Open-loop workers are staggered so the combined schedule is evenly spaced.
+            long intended = start + (intervalNanos > 0 ? intervalNanos * index / concurrency : 0);
+            while (true) {
+                if (intervalNanos > 0) {
+                    long wait = intended - System.nanoTime();
+                    if (wait > 0) LockSupport.parkNanos(wait);
+                } else {
+                    intended = System.nanoTime();
+                }
+                if (intended >= end || Thread.currentThread().isInterrupted()) return;
+
+                String failure = send(nextKey());
+                long latency = System.nanoTime() - intended;
+                if (intended >= measureFrom) {
+                    recorder.record(latency);
+                    if (failure != null) {
+                        errors++;
+                        failures.merge(failure, 1L, Long::sum);
+                    }
+                }
+                intended += intervalNanos;
+            }
+        }
+
+        private int nextKey() {
+            return switch (pattern) {
+                case "hot-key" -> random.nextDouble() < hotShare || hotKeys == keys
+                        ? random.nextInt(hotKeys)
+                        : hotKeys + random.nextInt(keys - hotKeys);
+                case "long-tail" -> zipf(random.nextDouble());
+                default -> random.nextInt(keys);
+            };
+        }
+
+        // null on success, otherwise the failure reason.
+        private String send(int key) {
+            try {
+                HttpResponse<Void> response = client.send(request(key), HttpResponse.BodyHandlers.discarding());
+                int status = response.statusCode();
+                return status < 400 ? null : "status_" + status;
+            } catch (HttpTimeoutException ex) {
+                return "timeout";
+            } catch (IOException ex) {
+                return ex.getClass().getSimpleName();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return "interrupted";
+            }
+        }
+    }
+
+    // Key i maps to its own 0.01° grid cell: 1000 longitudes per latitude row.
+    private HttpRequest request(int key) {
+        double lat = -60 + (key / 1000) * 0.1;
+        double lon = -170 + (key % 1000) * 0.3;
+        String uri = String.format(Locale.ROOT, "%s%s?lat=%.2f&lon=%.2f&forecast_days=%d%s",
+                target, path, lat, lon, forecastDays[key % forecastDays.length],
+                query.isEmpty() ? "" : "&" + query);
+        return HttpRequest.newBuilder(URI.create(uri))
+                .timeout(timeout)
+                .header("Accept-Encoding", "gzip")
+                .GET()
+                .build();
+    }
+
+    private String upstreamStats() {
+        String stubUrl = settings.string("stub-url", "");
+        if (stubUrl.isEmpty()) return null;
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(stubUrl + "/stats")).timeout(timeout).build();
+            return client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+        } catch (IOException ex) {
+            return null;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private int zipf(double u) {
+        int index = Arrays.binarySearch(zipfCdf, u);
+        return Math.min(keys - 1, index >= 0 ? index : -index - 1);
+    }
+
+    private static double[] zipfCdf(int keys, double exponent) {
+        double[] cdf = new double[keys];
+        double sum = 0;
+        for (int i = 0; i < keys; i++) {
+            sum += 1 / Math.pow(i + 1, exponent);
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < keys; i++) cdf[i] /= sum;
+        return cdf;
+    }
+}
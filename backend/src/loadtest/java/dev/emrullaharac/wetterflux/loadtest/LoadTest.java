@@ -0,0 +1,44 @@
+package dev.emrullaharac.wetterflux.loadtest;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+// Entry point of the load-test harness:
+//   stubs <scenario> [key=value ...]  starts the Open-Meteo stub and the Redis stand-in until killed
+//   run <scenario> [key=value ...]    drives traffic against a running service and prints RPS and latencies
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2 || !(args[0].equals("stubs") || args[0].equals("run"))) {
+            System.err.println("usage: LoadTest stubs|run <scenario> [key=value ...]");
+            System.exit(2);
+        }
+        Settings settings = Settings.load(args[1], List.of(Arrays.copyOfRange(args, 2, args.length)));
+
+        if (args[0].equals("run")) {
+            LoadGenerator.Report report = new LoadGenerator(settings).run();
+            System.out.println(report.format());
+            return;
+        }
+
+        OpenMeteoStub stub = new OpenMeteoStub(settings);
+        RespServer redis = new RespServer(settings.integer("redis.port", 6380));
+        stub.start();
+        redis.start();
+        System.out.printf("loadtest_stubs_ready openmeteo=http://localhost:%d/v1/forecast redis=localhost:%d%n",
+                stub.port(), redis.port());
+
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            System.out.println(stub.stats());
+            stub.close();
+            redis.close();
+            stopped.countDown();
+        }));
+        stopped.await();
+    }
+}
@@ -0,0 +1,272 @@
+package dev.emrullaharac.wetterflux.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Impersonates GET /v1/forecast of api.open-meteo.com: single and comma-separated multi-location calls,
+// current/hourly/daily variables, forecast_days and temperature_unit. Values are deterministic per
+// location and hour. Latency is log-normal (median and p99), a share of calls fails with 503 or 429,
+// and extra-hourly-columns pads every location with synthetic hourly series to grow the payload.
+// GET /stats returns the served counters as JSON.
+final class OpenMeteoStub implements AutoCloseable {
+
+    private static final DateTimeFormatter HOUR = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
+    private static final double Z_99 = 2.3263;
+
+    private final int port;
+    private final double medianMs;
+    private final double sigma;
+    private final long maxLatencyMs;
+    private final double errorRate;
+    private final double throttleRate;
+    private final int extraHourlyColumns;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong locations = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    OpenMeteoStub(Settings settings) {
+        this.port = settings.integer("stub.port", 8089);
+        this.medianMs = settings.decimal("stub.latency.median-ms", 80);
+        double p99Ms = Math.max(medianMs, settings.decimal("stub.latency.p99-ms", 400));
+        this.sigma = medianMs > 0 ? Math.log(p99Ms / medianMs) / Z_99 : 0;
+        this.maxLatencyMs = settings.longValue("stub.latency.max-ms", 5000);
+        this.errorRate = settings.decimal("stub.error-rate", 0);
+        this.throttleRate = settings.decimal("stub.throttle-rate", 0);
+        this.extraHourlyColumns = settings.integer("stub.extra-hourly-columns", 0);
+    }
+
+    void start() {
+        // Without it the JDK server's small writes wait out delayed ACKs (~40 ms per response).
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        try {
+            server = HttpServer.create(new InetSocketAddress(port), 4096);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/v1/forecast", this::forecast);
+        server.createContext("/stats", exchange -> send(exchange, 200, stats().getBytes(StandardCharsets.UTF_8)));
+        server.start();
+    }
+
+    int port() {
+        return server.getAddress().getPort();
+    }
+
+    String stats() {
+        return "{\"requests\":" + requests.get() + ",\"locations\":" + locations.get()
+                + ",\"errors\":" + errors.get() + ",\"bytes\":" + bytes.get() + "}";
+    }
+
+    @Override
+    public void close() {
+        if (server != null) server.stop(0);
+        if (executor != null) executor.shutdownNow();
+    }
+
+    private void forecast(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        Map<String, String> params = params(exchange.getRequestURI().getRawQuery());
+        sleep(latencyMs());
+
+        double roll = ThreadLocalRandom.current().nextDouble();
+        if (roll < errorRate) {
+            errors.incrementAndGet();
+            send(exchange, 503, "{\"error\":true,\"reason\":\"Service unavailable (stub)\"}".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        if (roll < errorRate + throttleRate) {
+            errors.incrementAndGet();
+            send(exchange, 429, "{\"error\":true,\"reason\":\"Too many requests (stub)\"}".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+
+        String[] lats = params.getOrDefault("latitude", "").split(",");
+        String[] lons = params.getOrDefault("longitude", "").split(",");
+        if (lats[0].isEmpty() || lats.length != lons.length) {
+            errors.incrementAndGet();
+            send(exchange, 400, "{\"error\":true,\"reason\":\"latitude and longitude must have the same number of elements\"}"
+                    .getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        locations.addAndGet(lats.length);
+
+        StringBuilder json = new StringBuilder(4096 * lats.length);
+        if (lats.length > 1) json.append('[');
+        for (int i = 0; i < lats.length; i++) {
+            if (i > 0) json.append(',');
+            location(json, Double.parseDouble(lats[i]), Double.parseDouble(lons[i]), params);
+        }
+        if (lats.length > 1) json.append(']');
+        send(exchange, 200, json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void location(StringBuilder json, double lat, double lon, Map<String, String> params) {
+        int days = Integer.parseInt(params.getOrDefault("forecast_days", "7"));
+        boolean fahrenheit = "fahrenheit".equals(params.get("temperature_unit"));
+        long seed = Double.doubleToLongBits(lat) * 31 + Double.doubleToLongBits(lon);
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.HOURS);
+        LocalDate today = now.toLocalDate();
+
+        json.append("{\"latitude\":").append(lat)
+                .append(",\"longitude\":").append(lon)
+                .append(",\"generationtime_ms\":0.1,\"utc_offset_seconds\":0,\"timezone\":\"GMT\"")
+                .append(",\"timezone_abbreviation\":\"GMT\",\"elevation\":42.0");
+
+        String[] current = vars(params.get("current"));
+        if (current.length > 0) {
+            json.append(",\"current_units\":{\"time\":\"iso8601\",\"interval\":\"seconds\"");
+            for (String name : current) unit(json, name, fahrenheit);
+            json.append("},\"current\":{\"time\":\"").append(HOUR.format(now)).append("\",\"interval\":900");
+            for (String name : current) {
+                json.append(",\"").append(name).append("\":");
+                value(json, name, seed, now.getHour(), fahrenheit);
+            }
+            json.append('}');
+        }
+
+        String[] hourly = vars(params.get("hourly"));
+        if (hourly.length > 0 || extraHourlyColumns > 0) {
+            String[] columns = new String[hourly.length + extraHourlyColumns];
+            System.arraycopy(hourly, 0, columns, 0, hourly.length);
+            for (int c = 0; c < extraHourlyColumns; c++) columns[hourly.length + c] = "stub_extra_" + c;
+
+            json.append(",\"hourly_units\":{\"time\":\"iso8601\"");
+            for (String name : columns) unit(json, name, fahrenheit);
+            json.append("},\"hourly\":{\"time\":[");
+            LocalDateTime start = today.atStartOfDay();
+            for (int h = 0; h < days * 24; h++) {
+                if (h > 0) json.append(',');
+                json.append('"').append(HOUR.format(start.plusHours(h))).append('"');
+            }
+            json.append(']');
+            for (String name : columns) {
+                json.append(",\"").append(name).append("\":[");
+                for (int h = 0; h < days * 24; h++) {
+                    if (h > 0) json.append(',');
+                    value(json, name, seed, h, fahrenheit);
+                }
+                json.append(']');
+            }
+            json.append('}');
+        }
+
+        String[] daily = vars(params.get("daily"));
+        if (daily.length > 0) {
+            json.append(",\"daily_units\":{\"time\":\"iso8601\"");
+            for (String name : daily) unit(json, name, fahrenheit);
+            json.append("},\"daily\":{\"time\":[");
+            for (int d = 0; d < days; d++) {
+                if (d > 0) json.append(',');
+                json.append('"').append(today.plusDays(d)).append('"');
+            }
+            json.append(']');
+            for (String name : daily) {
+                json.append(",\"").append(name).append("\":[");
+                for (int d = 0; d < days; d++) {
+                    if (d > 0) json.append(',');
+                    value(json, name, seed, d * 24 + 12, fahrenheit);
+                }
+                json.append(']');
+            }
+            json.append('}');
+        }
+        json.append('}');
+    }
+
+    private static void unit(StringBuilder json, String name, boolean fahrenheit) {
+        String unit;
+        if (name.contains("temperature")) unit = fahrenheit ? "°F" : "°C";
+        else if (name.contains("humidity") || name.contains("cloud")) unit = "%";
+        else if (name.contains("wind_speed")) unit = "km/h";
+        else if (name.contains("precipitation") || name.contains("rain")) unit = "mm";
+        else if (name.equals("weather_code")) unit = "wmo code";
+        else unit = "";
+        json.append(",\"").append(name).append("\":\"").append(unit).append('"');
+    }
+
+    private static void value(StringBuilder json, String name, long seed, int hour, boolean fahrenheit) {
+        SplittableRandom random = new SplittableRandom(seed * 1_000_003 + name.hashCode() * 8191L + hour);
+        if (name.equals("weather_code")) {
+            json.append(new int[]{0, 1, 2, 3, 45, 61, 80}[random.nextInt(7)]);
+            return;
+        }
+        double v;
+        if (name.contains("temperature")) {
+            v = 10 + 8 * Math.sin(hour * Math.PI / 12) + random.nextDouble(-2, 2);
+            if (fahrenheit) v = v * 9 / 5 + 32;
+        } else if (name.contains("humidity") || name.contains("cloud")) {
+            v = random.nextInt(101);
+        } else {
+            v = random.nextDouble(0, 30);
+        }
+        json.append(Math.round(v * 10) / 10.0);
+    }
+
+    private long latencyMs() {
+        if (medianMs <= 0) return 0;
+        double z = ThreadLocalRandom.current().nextGaussian();
+        return Math.min(maxLatencyMs, Math.round(medianMs * Math.exp(sigma * z)));
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) return;
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        bytes.addAndGet(body.length);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String[] vars(String value) {
+        return value == null || value.isBlank() ? new String[0] : value.split(",");
+    }
+
+    private static Map<String, String> params(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null) return params;
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq <= 0) continue;
+            params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+}
@@ -0,0 +1,440 @@
+package dev.emrullaharac.wetterflux.loadtest;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// In-process Redis stand-in speaking RESP2, enough for what the service sends: strings with expiry,
+// MGET, hashes, the warm-set sorted set and the handshake/health commands. EVAL/EVALSHA are refused,
+// so the cluster rate limiter falls back to its local bucket. Keys and values are raw bytes (kept as
+// ISO-8859-1 strings); every command runs under one lock, like Redis' single thread.
+final class RespServer implements AutoCloseable {
+
+    private static final byte[] CRLF = {'\r', '\n'};
+
+    private final int port;
+    private final Map<String, Entry> data = new HashMap<>();
+
+    private ServerSocket serverSocket;
+    private ExecutorService executor;
+
+    private static final class Entry {
+        final Object value;
+        long expiresAt;
+
+        Entry(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private record Hash(Map<String, byte[]> fields) {
+    }
+
+    private record SortedSet(Map<String, Double> scores) {
+    }
+
+    private static final class RespException extends RuntimeException {
+
+        RespException(String message) {
+            super(message);
+        }
+    }
+
+    RespServer(int port) {
+        this.port = port;
+    }
+
+    void start() {
+        try {
+            serverSocket = new ServerSocket(port, 1024);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        executor.execute(this::accept);
+    }
+
+    int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (serverSocket != null) serverSocket.close();
+        } catch (IOException ignored) {
+        }
+        if (executor != null) executor.shutdownNow();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                executor.execute(() -> serve(socket));
+            } catch (IOException ex) {
+                if (!serverSocket.isClosed()) System.err.println("resp_accept_failed " + ex.getMessage());
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             InputStream in = new BufferedInputStream(socket.getInputStream(), 64 * 1024);
+             OutputStream out = new BufferedOutputStream(socket.getOutputStream(), 64 * 1024)) {
+            while (true) {
+                List<byte[]> command = readCommand(in);
+                if (command == null) return;
+                if (command.isEmpty()) continue;
+                try {
+                    dispatch(command, out);
+                } catch (RespException ex) {
+                    error(out, ex.getMessage());
+                }
+                // Pipelined commands are answered in one write.
+                if (in.available() == 0) out.flush();
+            }
+        } catch (EOFException | SocketException ignored) {
+        } catch (IOException ex) {
+            System.err.println("resp_connection_failed " + ex.getMessage());
+        }
+    }
+
+    private void dispatch(List<byte[]> command, OutputStream out) throws IOException {
+        String name = text(command.get(0)).toUpperCase(Locale.ROOT);
+        switch (name) {
+            case "PING" -> {
+                if (command.size() > 1) bulk(out, command.get(1));
+                else simple(out, "PONG");
+            }
+            case "AUTH", "SELECT", "CLIENT", "READONLY" -> simple(out, "OK");
+            case "QUIT" -> {
+                simple(out, "OK");
+                out.flush();
+                throw new EOFException();
+            }
+            case "INFO" -> bulk(out, "# Server\r\nredis_version:7.2.0\r\nredis_mode:standalone\r\n"
+                    .getBytes(StandardCharsets.ISO_8859_1));
+            case "COMMAND" -> array(out, List.of());
+            case "TIME" -> {
+                long micros = System.currentTimeMillis() * 1000;
+                array(out, List.of(ascii(Long.toString(micros / 1_000_000)), ascii(Long.toString(micros % 1_000_000))));
+            }
+            case "EVAL", "EVALSHA", "SCRIPT", "FCALL" ->
+                    throw new RespException("ERR scripting is not supported by the load-test Redis stand-in");
+            default -> {
+                synchronized (this) {
+                    data(name, command, out);
+                }
+            }
+        }
+    }
+
+    private void data(String name, List<byte[]> c, OutputStream out) throws IOException {
+        long now = System.currentTimeMillis();
+        switch (name) {
+            case "GET" -> bulk(out, string(c, 1, now));
+            case "MGET" -> {
+                List<byte[]> values = new ArrayList<>(c.size() - 1);
+                for (int i = 1; i < c.size(); i++) {
+                    Entry entry = live(text(c.get(i)), now);
+                    values.add(entry != null && entry.value instanceof byte[] bytes ? bytes : null);
+                }
+                array(out, values);
+            }
+            case "SET" -> {
+                long expiresAt = 0;
+                boolean nx = false;
+                boolean xx = false;
+                boolean keepTtl = false;
+                for (int i = 3; i < c.size(); i++) {
+                    String option = text(c.get(i)).toUpperCase(Locale.ROOT);
+                    switch (option) {
+                        case "EX" -> expiresAt = now + Long.parseLong(text(c.get(++i))) * 1000;
+                        case "PX" -> expiresAt = now + Long.parseLong(text(c.get(++i)));
+                        case "EXAT" -> expiresAt = Long.parseLong(text(c.get(++i))) * 1000;
+                        case "PXAT" -> expiresAt = Long.parseLong(text(c.get(++i)));
+                        case "NX" -> nx = true;
+                        case "XX" -> xx = true;
+                        case "KEEPTTL" -> keepTtl = true;
+                        default -> throw new RespException("ERR syntax error");
+                    }
+                }
+                String key = text(c.get(1));
+                Entry existing = live(key, now);
+                if ((nx && existing != null) || (xx && existing == null)) {
+                    bulk(out, null);
+                    return;
+                }
+                if (keepTtl && existing != null) expiresAt = existing.expiresAt;
+                data.put(key, new Entry(c.get(2), expiresAt));
+                simple(out, "OK");
+            }
+            case "SETEX", "PSETEX" -> {
+                long ttl = Long.parseLong(text(c.get(2)));
+                data.put(text(c.get(1)), new Entry(c.get(3), now + (name.equals("SETEX") ? ttl * 1000 : ttl)));
+                simple(out, "OK");
+            }
+            case "DEL", "UNLINK", "EXISTS" -> {
+                long count = 0;
+                for (int i = 1; i < c.size(); i++) {
+                    String key = text(c.get(i));
+                    if (live(key, now) != null) {
+                        count++;
+                        if (!name.equals("EXISTS")) data.remove(key);
+                    }
+                }
+                integer(out, count);
+            }
+            case "EXPIRE", "PEXPIRE" -> {
+                Entry entry = live(text(c.get(1)), now);
+                long ttl = Long.parseLong(text(c.get(2)));
+                if (entry != null) entry.expiresAt = now + (name.equals("EXPIRE") ? ttl * 1000 : ttl);
+                integer(out, entry != null ? 1 : 0);
+            }
+            case "TTL", "PTTL" -> {
+                Entry entry = live(text(c.get(1)), now);
+                long ttl = entry == null ? -2 : entry.expiresAt == 0 ? -1 : entry.expiresAt - now;
+                integer(out, ttl < 0 || name.equals("PTTL") ? ttl : (ttl + 999) / 1000);
+            }
+            case "INCR", "INCRBY" -> {
+                String key = text(c.get(1));
+                Entry entry = live(key, now);
+                long value = entry == null ? 0 : Long.parseLong(text(bytes(entry)));
+                value += name.equals("INCR") ? 1 : Long.parseLong(text(c.get(2)));
+                data.put(key, new Entry(ascii(Long.toString(value)), entry == null ? 0 : entry.expiresAt));
+                integer(out, value);
+            }
+            case "HSET", "HMSET" -> {
+                Map<String, byte[]> hash = hash(c.get(1), now, true);
+                long added = 0;
+                for (int i = 2; i + 1 < c.size(); i += 2) {
+                    if (hash.put(text(c.get(i)), c.get(i + 1)) == null) added++;
+                }
+                if (name.equals("HMSET")) simple(out, "OK");
+                else integer(out, added);
+            }
+            case "HGET" -> {
+                Map<String, byte[]> hash = hash(c.get(1), now, false);
+                bulk(out, hash == null ? null : hash.get(text(c.get(2))));
+            }
+            case "HMGET" -> {
+                Map<String, byte[]> hash = hash(c.get(1), now, false);
+                List<byte[]> values = new ArrayList<>(c.size() - 2);
+                for (int i = 2; i < c.size(); i++) values.add(hash == null ? null : hash.get(text(c.get(i))));
+                array(out, values);
+            }
+            case "HGETALL" -> {
+                Map<String, byte[]> hash = hash(c.get(1), now, false);
+                List<byte[]> values = new ArrayList<>();
+                if (hash != null) {
+                    hash.forEach((field, value) -> {
+                        values.add(field.getBytes(StandardCharsets.ISO_8859_1));
+                        values.add(value);
+                    });
+                }
+                array(out, values);
+            }
+            case "ZADD" -> {
+                Map<String, Double> zset = zset(c.get(1), now, true);
+                long added = 0;
+                for (int i = 2; i + 1 < c.size(); i += 2) {
+                    if (zset.put(text(c.get(i + 1)), Double.parseDouble(text(c.get(i)))) == null) added++;
+                }
+                integer(out, added);
+            }
+            case "ZCARD" -> {
+                Map<String, Double> zset = zset(c.get(1), now, false);
+                integer(out, zset == null ? 0 : zset.size());
+            }
+            case "ZRANGE", "ZREVRANGE" -> {
+                Map<String, Double> zset = zset(c.get(1), now, false);
+                boolean withScores = c.size() > 4 && text(c.get(4)).equalsIgnoreCase("WITHSCORES");
+                List<byte[]> values = new ArrayList<>();
+                if (zset != null) {
+                    Comparator<Map.Entry<String, Double>> order = Map.Entry.<String, Double>comparingByValue()
+                            .thenComparing(Map.Entry.comparingByKey());
+                    List<Map.Entry<String, Double>> sorted = new ArrayList<>(zset.entrySet());
+                    sorted.sort(name.equals("ZREVRANGE") ? order.reversed() : order);
+                    int size = sorted.size();
+                    int start = index(Integer.parseInt(text(c.get(2))), size);
+                    int stop = Math.min(size - 1, index(Integer.parseInt(text(c.get(3))), size));
+                    for (int i = Math.max(0, start); i <= stop; i++) {
+                        values.add(sorted.get(i).getKey().getBytes(StandardCharsets.ISO_8859_1));
+                        if (withScores) values.add(ascii(Double.toString(sorted.get(i).getValue())));
+                    }
+                }
+                array(out, values);
+            }
+            case "FLUSHALL", "FLUSHDB" -> {
+                data.clear();
+                simple(out, "OK");
+            }
+            case "DBSIZE" -> {
+                purge(now);
+                integer(out, data.size());
+            }
+            default -> throw new RespException("ERR unknown command '" + name + "'");
+        }
+    }
+
+    private Entry live(String key, long now) {
+        Entry entry = data.get(key);
+        if (entry != null && entry.expiresAt != 0 && entry.expiresAt <= now) {
+            data.remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    private void purge(long now) {
+        Iterator<Entry> it = data.values().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.expiresAt != 0 && entry.expiresAt <= now) it.remove();
+        }
+    }
+
+    private byte[] string(List<byte[]> c, int index, long now) {
+        Entry entry = live(text(c.get(index)), now);
+        return entry == null ? null : bytes(entry);
+    }
+
+    private static byte[] bytes(Entry entry) {
+        if (entry.value instanceof byte[] bytes) return bytes;
+        throw wrongType();
+    }
+
+    private Map<String, byte[]> hash(byte[] key, long now, boolean create) {
+        Entry entry = live(text(key), now);
+        if (entry == null) {
+            if (!create) return null;
+            entry = new Entry(new Hash(new LinkedHashMap<>()), 0);
+            data.put(text(key), entry);
+        }
+        if (entry.value instanceof Hash hash) return hash.fields();
+        throw wrongType();
+    }
+
+    private Map<String, Double> zset(byte[] key, long now, boolean create) {
+        Entry entry = live(text(key), now);
+        if (entry == null) {
+            if (!create) return null;
+            entry = new Entry(new SortedSet(new HashMap<>()), 0);
+            data.put(text(key), entry);
+        }
+        if (entry.value instanceof SortedSet zset) return zset.scores();
+        throw wrongType();
+    }
+
+    private static RespException wrongType() {
+        return new RespException("WRONGTYPE Operation against a key holding the wrong kind of value");
+    }
+
+    private static int index(int index, int size) {
+        return index < 0 ? size + index : index;
+    }
+
+    // Arrays of bulk strings, or an inline command line; null at end of stream.
+    private static List<byte[]> readCommand(InputStream in) throws IOException {
+        int first = in.read();
+        if (first < 0) return null;
+        if (first != '*') {
+            String line = (char) first + readLine(in);
+            List<byte[]> parts = new ArrayList<>();
+            for (String part : line.trim().split("\\s+")) {
+                if (!part.isEmpty()) parts.add(part.getBytes(StandardCharsets.ISO_8859_1));
+            }
+            return parts;
+        }
+        int count = Integer.parseInt(readLine(in));
+        List<byte[]> parts = new ArrayList<>(Math.max(0, count));
+        for (int i = 0; i < count; i++) {
+            if (in.read() != '$') throw new IOException("Expected bulk string");
+            int length = Integer.parseInt(readLine(in));
+            byte[] part = in.readNBytes(length);
+            if (part.length < length) throw new EOFException();
+            in.skipNBytes(2);
+            parts.add(part);
+        }
+        return parts;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(16);
+        int b;
+        while ((b = in.read()) != '\r') {
+            if (b < 0) throw new EOFException();
+            line.write(b);
+        }
+        in.read();
+        return line.toString(StandardCharsets.ISO_8859_1);
+    }
+
+    private static void simple(OutputStream out, String value) throws IOException {
+        out.write('+');
+        out.write(ascii(value));
+        out.write(CRLF);
+    }
+
+    private static void error(OutputStream out, String message) throws IOException {
+        out.write('-');
+        out.write(ascii(message));
+        out.write(CRLF);
+    }
+
+    private static void integer(OutputStream out, long value) throws IOException {
+        out.write(':');
+        out.write(ascii(Long.toString(value)));
+        out.write(CRLF);
+    }
+
+    private static void bulk(OutputStream out, byte[] value) throws IOException {
+        if (value == null) {
+            out.write(ascii("$-1"));
+            out.write(CRLF);
+            return;
+        }
+        out.write('$');
+        out.write(ascii(Integer.toString(value.length)));
+        out.write(CRLF);
+        out.write(value);
+        out.write(CRLF);
+    }
+
+    private static void array(OutputStream out, List<byte[]> values) throws IOException {
+        out.write('*');
+        out.write(ascii(Integer.toString(values.size())));
+        out.write(CRLF);
+        for (byte[] value : values) bulk(out, value);
+    }
+
+    private static String text(byte[] bytes) {
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,82 @@
+package dev.emrullaharac.wetterflux.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+// Scenario file (classpath scenarios/<name>.properties or a path) with key=value overrides from the command line.
+final class Settings {
+
+    private final String name;
+    private final Properties properties;
+
+    private Settings(String name, Properties properties) {
+        this.name = name;
+        this.properties = properties;
+    }
+
+    static Settings load(String scenario, List<String> overrides) {
+        Properties properties = new Properties();
+        Path path = Path.of(scenario);
+        try {
+            if (Files.isRegularFile(path)) {
+                try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                    properties.load(reader);
+                }
+            } else {
+                try (InputStream in = Settings.class.getResourceAsStream("/scenarios/" + scenario + ".properties")) {
+                    if (in == null) throw new IllegalArgumentException("Unknown scenario " + scenario);
+                    properties.load(in);
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        for (String override : overrides) {
+            int eq = override.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("Expected key=value, got " + override);
+            properties.setProperty(override.substring(0, eq), override.substring(eq + 1));
+        }
+        String fileName = path.getFileName().toString();
+        return new Settings(fileName.endsWith(".properties") ? fileName.substring(0, fileName.length() - 11) : fileName,
+                properties);
+    }
+
+    String name() {
+        return name;
+    }
+
+    String string(String key, String defaultValue) {
+        return properties.getProperty(key, defaultValue).trim();
+    }
+
+    int integer(String key, int defaultValue) {
+        return Integer.parseInt(string(key, Integer.toString(defaultValue)));
+    }
+
+    long longValue(String key, long defaultValue) {
+        return Long.parseLong(string(key, Long.toString(defaultValue)));
+    }
+
+    double decimal(String key, double defaultValue) {
+        return Double.parseDouble(string(key, Double.toString(defaultValue)));
+    }
+
+    boolean flag(String key, boolean defaultValue) {
+        return Boolean.parseBoolean(string(key, Boolean.toString(defaultValue)));
+    }
+
+    int[] integers(String key, String defaultValue) {
+        return Arrays.stream(string(key, defaultValue).split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+    }
+}
@@ -0,0 +1,57 @@
+#!/usr/bin/env bash
+# Runs one load-test scenario end to end: the Open-Meteo stub and the Redis stand-in, the service pointed
+# at both, then the traffic generator, which prints RPS and p50/p90/p99/p999 latencies.
+#
+#   src/loadtest/run.sh <hot-key|uniform|long-tail|expiry-storm|path/to.properties> [key=value ...]
+#
+# key=value pairs override the scenario (e.g. concurrency=32 rate=2000 stub.error-rate=0.05).
+# APP_PORT, STUB_PORT and REDIS_PORT pick the ports, JAVA_OPTS is passed to the service JVM.
+set -euo pipefail
+cd "$(dirname "$0")/../.."
+
+scenario=${1:?usage: src/loadtest/run.sh <scenario> [key=value ...]}
+shift
+file=src/loadtest/resources/scenarios/$scenario.properties
+[[ -f $scenario ]] && file=$scenario
+[[ -f $file ]] || { echo "unknown scenario: $scenario" >&2; exit 1; }
+
+APP_PORT=${APP_PORT:-8080}
+STUB_PORT=${STUB_PORT:-8089}
+REDIS_PORT=${REDIS_PORT:-6380}
+app_args=$(grep -E '^app\.args=' "$file" | cut -d= -f2- || true)
+
+mvn -q -B -Ploadtest -DskipTests package
+jar=$(find target -maxdepth 1 -name '*.jar' ! -name '*-plain.jar' | head -n 1)
+cp=target/test-classes
+
+pids=()
+trap 'kill "${pids[@]}" 2>/dev/null; wait 2>/dev/null' EXIT
+
+java -cp "$cp" dev.emrullaharac.wetterflux.loadtest.LoadTest stubs "$file" \
+    stub.port="$STUB_PORT" redis.port="$REDIS_PORT" "$@" &
+pids+=($!)
+
+# Cluster rate limiting needs Lua, which the stand-in does not run; the local bucket is opened up so
+# the provider budget does not cap the measurement.
+# shellcheck disable=SC2086
+java ${JAVA_OPTS:-} -jar "$jar" \
+    --server.port="$APP_PORT" \
+    --spring.data.redis.host=localhost \
+    --spring.data.redis.port="$REDIS_PORT" \
+    --weather.openmeteo.base-url="http://localhost:$STUB_PORT/v1/forecast" \
+    --weather.openmeteo.rate-limit.cluster.enabled=false \
+    --weather.openmeteo.rate-limit.local.per-minute=1000000 \
+    --weather.openmeteo.rate-limit.local.burst=10000 \
+    --logging.level.dev.emrullaharac.wetterflux=WARN \
+    $app_args > target/loadtest-app.log 2>&1 &
+pids+=($!)
+
+for _ in $(seq 1 60); do
+    curl -fs "http://localhost:$APP_PORT/actuator/health" > /dev/null && break
+    sleep 1
+done
+curl -fs "http://localhost:$APP_PORT/actuator/health" > /dev/null \
+    || { echo "service did not start, see target/loadtest-app.log" >&2; exit 1; }
+
+java -cp "$cp" dev.emrullaharac.wetterflux.loadtest.LoadTest run "$file" \
+    target="http://localhost:$APP_PORT" stub-url="http://localhost:$STUB_PORT" "$@"
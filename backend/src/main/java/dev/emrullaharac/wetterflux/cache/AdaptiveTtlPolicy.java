@@ -0,0 +1,95 @@
+package dev.emrullaharac.wetterflux.cache;
+
+import dev.emrullaharac.wetterflux.model.domain.WeatherData;
+import dev.emrullaharac.wetterflux.model.dto.WeatherResponseDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Soft expiry derived from the data itself: `current` changes once per current.interval, the
+// hourly/daily forecast only when the next model run is published.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AdaptiveTtlPolicy {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${weather.cache.ttl.adaptive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${weather.cache.ttl.model-update-minutes:60}")
+    private long modelUpdateMinutes;
+
+    @Value("${weather.cache.ttl.model-availability-delay-minutes:10}")
+    private long modelAvailabilityDelayMinutes;
+
+    @Value("${weather.cache.ttl.current-publish-delay-seconds:60}")
+    private long currentPublishDelaySeconds;
+
+    @Value("${weather.cache.ttl.min-seconds:60}")
+    private long minSeconds;
+
+    @Value("${weather.cache.ttl.max-minutes:180}")
+    private long maxMinutes;
+
+    private DistributionSummary softTtlSeconds;
+    private Counter currentBound;
+    private Counter modelBound;
+
+    @PostConstruct
+    void initMetrics() {
+        softTtlSeconds = DistributionSummary.builder("weather_cache_soft_ttl_seconds")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        currentBound = meterRegistry.counter("weather_cache_ttl_bound_total", "section", "current");
+        modelBound = meterRegistry.counter("weather_cache_ttl_bound_total", "section", "forecast");
+    }
+
+    // Epoch millis at which the entry stops being fresh, or -1 when the response carries nothing to go by.
+    public long softExpiresAt(WeatherResponseDto response, long now) {
+        if (!enabled) return -1;
+
+        long currentNext = nextCurrentUpdate(response);
+        long modelNext = hasForecast(response) ? nextModelRun(now) : Long.MAX_VALUE;
+        long next = Math.min(currentNext, modelNext);
+        if (next == Long.MAX_VALUE) return -1;
+
+        long softExpiresAt = Math.max(now + minSeconds * 1000, Math.min(next, now + maxMinutes * 60_000));
+        (currentNext <= modelNext ? currentBound : modelBound).increment();
+        softTtlSeconds.record((softExpiresAt - now) / 1000.0);
+        return softExpiresAt;
+    }
+
+    private long nextCurrentUpdate(WeatherResponseDto response) {
+        Integer interval = response.getCurrentIntervalSeconds();
+        Integer utcOffset = response.getUtcOffsetSeconds();
+        String time = response.getCurrentTimeIso();
+        if (interval == null || interval <= 0 || utcOffset == null || time == null) return Long.MAX_VALUE;
+
+        long slotStart;
+        try {
+            slotStart = WeatherData.parseEpochSecond(time);
+        } catch (RuntimeException ex) {
+            log.debug("current_time_unparseable time={}", time);
+            return Long.MAX_VALUE;
+        }
+        return (slotStart - utcOffset + interval + currentPublishDelaySeconds) * 1000;
+    }
+
+    private long nextModelRun(long now) {
+        long cycle = modelUpdateMinutes * 60_000;
+        long delay = modelAvailabilityDelayMinutes * 60_000;
+        return Math.floorDiv(now - delay, cycle) * cycle + cycle + delay;
+    }
+
+    private static boolean hasForecast(WeatherResponseDto response) {
+        return response.getHourly() != null && response.getHourly().length() > 0
+                || response.getDaily() != null && response.getDaily().length() > 0;
+    }
+}
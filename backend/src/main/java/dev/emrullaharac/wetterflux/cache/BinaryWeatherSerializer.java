@@ -0,0 +1,375 @@
+package dev.emrullaharac.wetterflux.cache;
+
+import dev.emrullaharac.wetterflux.model.domain.WeatherData;
+import dev.emrullaharac.wetterflux.model.dto.WeatherResponseDto;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/*
+ * Layout: MAGIC, VERSION, flags, then the (optionally deflated) body.
+ * Values that do not start with MAGIC are handed to the legacy JSON serializer,
+ * so entries written before the switch stay readable until they expire.
+ */
+public class BinaryWeatherSerializer implements RedisSerializer<CachedWeather> {
+
+    static final byte MAGIC = (byte) 0xB7;
+    static final byte VERSION = 3;
+    private static final byte VERSION_HOURLY_ONLY = 2;
+
+    private static final byte FLAG_DEFLATE = 1;
+
+    private static final byte TIME_ABSENT = 0;
+    private static final byte TIME_REGULAR = 1;
+    private static final byte TIME_EXPLICIT = 2;
+
+    private static final byte VALUES_SCALED_INT = 0;
+    private static final byte VALUES_DOUBLE = 1;
+    private static final int MAX_SCALE_DECIMALS = 4;
+
+    private final RedisSerializer<CachedWeather> legacySerializer;
+    private final boolean compress;
+    private final int compressionThresholdBytes;
+
+    public BinaryWeatherSerializer(
+            RedisSerializer<CachedWeather> legacySerializer,
+            boolean compress,
+            int compressionThresholdBytes
+    ) {
+        this.legacySerializer = legacySerializer;
+        this.compress = compress;
+        this.compressionThresholdBytes = compressionThresholdBytes;
+    }
+
+    @Override
+    public byte[] serialize(CachedWeather value) throws SerializationException {
+        if (value == null) return null;
+
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+            DataOutputStream out = new DataOutputStream(bytes);
+            writeBody(out, value);
+            out.flush();
+            byte[] body = bytes.toByteArray();
+
+            boolean deflate = compress && body.length >= compressionThresholdBytes;
+            byte[] payload = deflate ? deflate(body) : body;
+
+            ByteBuffer result = ByteBuffer.allocate(3 + (deflate ? 4 : 0) + payload.length);
+            result.put(MAGIC).put(VERSION).put(deflate ? FLAG_DEFLATE : 0);
+            if (deflate) result.putInt(body.length);
+            result.put(payload);
+            return result.array();
+        } catch (IOException ex) {
+            throw new SerializationException("Could not write weather entry", ex);
+        }
+    }
+
+    @Override
+    public CachedWeather deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) return null;
+        if (bytes[0] != MAGIC) {
+            return legacySerializer.deserialize(bytes);
+        }
+        return read(ByteBuffer.wrap(bytes));
+    }
+
+    public CachedWeather read(ByteBuffer buffer) throws SerializationException {
+        if (buffer.get() != MAGIC) {
+            throw new SerializationException("Not a binary weather entry");
+        }
+        byte version = buffer.get();
+        if (version != VERSION && version != VERSION_HOURLY_ONLY) {
+            // Entries from another layout version are treated as misses and get rewritten.
+            return null;
+        }
+        byte flags = buffer.get();
+
+        ByteBuffer body = buffer;
+        if ((flags & FLAG_DEFLATE) != 0) {
+            int rawLength = buffer.getInt();
+            body = ByteBuffer.wrap(inflate(buffer, rawLength));
+        }
+        return readBody(body, version);
+    }
+
+    @Override
+    public Class<?> getTargetType() {
+        return CachedWeather.class;
+    }
+
+    private void writeBody(DataOutputStream out, CachedWeather entry) throws IOException {
+        out.writeLong(entry.fetchedAt());
+        out.writeLong(entry.softExpiresAt());
+        out.writeLong(entry.hardExpiresAt());
+
+        WeatherResponseDto dto = entry.response();
+        out.writeDouble(dto.getLatitude());
+        out.writeDouble(dto.getLongitude());
+        writeString(out, dto.getTimezone());
+        writeString(out, dto.getTimezoneAbbreviation());
+        writeNullableDouble(out, dto.getCurrentTemperature2m());
+        writeNullableDouble(out, dto.getCurrentWindSpeed10m());
+        out.writeBoolean(dto.getCurrentWeatherCode() != null);
+        if (dto.getCurrentWeatherCode() != null) out.writeInt(dto.getCurrentWeatherCode());
+        writeString(out, dto.getDescription());
+        writeString(out, dto.getCurrentTimeIso());
+
+        writeSeries(out, dto.getHourly());
+        writeSeries(out, dto.getDaily());
+        writeNullableInt(out, dto.getUtcOffsetSeconds());
+        writeNullableInt(out, dto.getCurrentIntervalSeconds());
+    }
+
+    private CachedWeather readBody(ByteBuffer in, byte version) {
+        long fetchedAt = in.getLong();
+        long softExpiresAt = in.getLong();
+        long hardExpiresAt = in.getLong();
+
+        WeatherResponseDto dto = new WeatherResponseDto();
+        dto.setLatitude(in.getDouble());
+        dto.setLongitude(in.getDouble());
+        dto.setTimezone(readString(in));
+        dto.setTimezoneAbbreviation(readString(in));
+        dto.setCurrentTemperature2m(readNullableDouble(in));
+        dto.setCurrentWindSpeed10m(readNullableDouble(in));
+        dto.setCurrentWeatherCode(in.get() != 0 ? in.getInt() : null);
+        dto.setDescription(readString(in));
+        dto.setCurrentTimeIso(readString(in));
+
+        dto.setHourly(readSeries(in));
+        if (version >= VERSION) {
+            dto.setDaily(readSeries(in));
+            dto.setUtcOffsetSeconds(readNullableInt(in));
+            dto.setCurrentIntervalSeconds(readNullableInt(in));
+        }
+
+        return new CachedWeather(dto, fetchedAt, softExpiresAt, hardExpiresAt);
+    }
+
+    private void writeSeries(DataOutputStream out, WeatherData series) throws IOException {
+        if (series == null) {
+            out.writeByte(TIME_ABSENT);
+            return;
+        }
+
+        if (series.isRegular()) {
+            out.writeByte(TIME_REGULAR);
+            out.writeByte(series.getTimeFormat().ordinal());
+            out.writeLong(series.getStartEpochSecond());
+            out.writeInt(series.getStepSeconds());
+            out.writeInt(series.length());
+        } else {
+            out.writeByte(TIME_EXPLICIT);
+            out.writeByte(series.getTimeFormat().ordinal());
+            out.writeInt(series.length());
+            for (long t : series.getExplicitTimes()) out.writeLong(t);
+        }
+
+        out.writeInt(series.getColumns().size());
+        for (Map.Entry<String, double[]> column : series.getColumns().entrySet()) {
+            writeString(out, column.getKey());
+            writeColumn(out, column.getValue());
+        }
+
+        out.writeInt(series.getUnits().size());
+        for (Map.Entry<String, String> unit : series.getUnits().entrySet()) {
+            writeString(out, unit.getKey());
+            writeString(out, unit.getValue());
+        }
+    }
+
+    private WeatherData readSeries(ByteBuffer in) {
+        byte mode = in.get();
+        if (mode == TIME_ABSENT) return null;
+
+        WeatherData.TimeFormat format = WeatherData.TimeFormat.values()[in.get()];
+        long start = 0;
+        int step = 0;
+        int length;
+        long[] explicitTimes = null;
+        if (mode == TIME_REGULAR) {
+            start = in.getLong();
+            step = in.getInt();
+            length = in.getInt();
+        } else {
+            length = in.getInt();
+            explicitTimes = new long[length];
+            for (int i = 0; i < length; i++) explicitTimes[i] = in.getLong();
+            start = length > 0 ? explicitTimes[0] : 0;
+        }
+
+        int columnCount = in.getInt();
+        Map<String, double[]> columns = new LinkedHashMap<>(columnCount * 2);
+        for (int i = 0; i < columnCount; i++) {
+            String name = readString(in);
+            columns.put(name, readColumn(in));
+        }
+
+        int unitCount = in.getInt();
+        Map<String, String> units = new LinkedHashMap<>(unitCount * 2);
+        for (int i = 0; i < unitCount; i++) {
+            String name = readString(in);
+            units.put(name, readString(in));
+        }
+
+        return new WeatherData(format, start, step, length, explicitTimes, columns, units);
+    }
+
+    // Null (NaN) bitmap first, then only the present values. Values that are exact at
+    // a few decimals (all Open-Meteo series) are stored as scaled ints.
+    private void writeColumn(DataOutputStream out, double[] values) throws IOException {
+        int n = values.length;
+        out.writeInt(n);
+
+        byte[] nullBitmap = new byte[(n + 7) >>> 3];
+        for (int i = 0; i < n; i++) {
+            if (Double.isNaN(values[i])) nullBitmap[i >>> 3] |= (byte) (1 << (i & 7));
+        }
+        out.write(nullBitmap);
+
+        int decimals = scaleDecimals(values);
+        if (decimals >= 0) {
+            double scale = Math.pow(10, decimals);
+            out.writeByte(VALUES_SCALED_INT);
+            out.writeByte(decimals);
+            for (double v : values) {
+                if (!Double.isNaN(v)) out.writeInt((int) Math.round(v * scale));
+            }
+        } else {
+            out.writeByte(VALUES_DOUBLE);
+            for (double v : values) {
+                if (!Double.isNaN(v)) out.writeDouble(v);
+            }
+        }
+    }
+
+    private double[] readColumn(ByteBuffer in) {
+        int n = in.getInt();
+
+        int bitmapOffset = in.position();
+        in.position(bitmapOffset + ((n + 7) >>> 3));
+
+        byte encoding = in.get();
+        double scale = encoding == VALUES_SCALED_INT ? Math.pow(10, in.get()) : 1;
+
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            if ((in.get(bitmapOffset + (i >>> 3)) & (1 << (i & 7))) != 0) {
+                values[i] = Double.NaN;
+            } else if (encoding == VALUES_SCALED_INT) {
+                values[i] = in.getInt() / scale;
+            } else {
+                values[i] = in.getDouble();
+            }
+        }
+        return values;
+    }
+
+    private static int scaleDecimals(double[] values) {
+        for (int decimals = 0; decimals <= MAX_SCALE_DECIMALS; decimals++) {
+            double scale = Math.pow(10, decimals);
+            boolean exact = true;
+            for (double v : values) {
+                if (Double.isNaN(v)) continue;
+                double scaled = v * scale;
+                if (Math.abs(scaled) > Integer.MAX_VALUE || Math.round(scaled) / scale != v) {
+                    exact = false;
+                    break;
+                }
+            }
+            if (exact) return decimals;
+        }
+        return -1;
+    }
+
+    private static void writeNullableDouble(DataOutputStream out, Double value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeDouble(value);
+    }
+
+    private static Double readNullableDouble(ByteBuffer in) {
+        return in.get() != 0 ? in.getDouble() : null;
+    }
+
+    private static void writeNullableInt(DataOutputStream out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeInt(value);
+    }
+
+    private static Integer readNullableInt(ByteBuffer in) {
+        return in.get() != 0 ? in.getInt() : null;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) return null;
+        if (in.hasArray()) {
+            String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+            in.position(in.position() + length);
+            return value;
+        }
+        byte[] utf8 = new byte[length];
+        in.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] deflate(byte[] body) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(body);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                int written = deflater.deflate(chunk);
+                out.write(chunk, 0, written);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(ByteBuffer compressed, int rawLength) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[rawLength];
+            int read = 0;
+            while (read < rawLength && !inflater.finished()) {
+                int n = inflater.inflate(raw, read, rawLength - read);
+                if (n == 0 && inflater.needsInput()) break;
+                read += n;
+            }
+            if (read != rawLength) {
+                throw new SerializationException("Truncated weather entry");
+            }
+            return raw;
+        } catch (DataFormatException ex) {
+            throw new SerializationException("Corrupt weather entry", ex);
+        } finally {
+            inflater.end();
+        }
+    }
+}
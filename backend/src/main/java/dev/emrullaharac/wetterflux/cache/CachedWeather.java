@@ -0,0 +1,23 @@
+package dev.emrullaharac.wetterflux.cache;
+
+import dev.emrullaharac.wetterflux.model.dto.WeatherResponseDto;
+
+public record CachedWeather(
+        WeatherResponseDto response,
+        long fetchedAt,
+        long softExpiresAt,
+        long hardExpiresAt
+) {
+
+    public boolean isFresh(long nowMillis) {
+        return nowMillis < softExpiresAt;
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= hardExpiresAt;
+    }
+
+    public CachedWeather asStale() {
+        return new CachedWeather(response.toBuilder().stale(true).build(), fetchedAt, softExpiresAt, hardExpiresAt);
+    }
+}
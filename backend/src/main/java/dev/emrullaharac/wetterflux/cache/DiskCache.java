@@ -0,0 +1,398 @@
+package dev.emrullaharac.wetterflux.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.emrullaharac.wetterflux.config.RedisConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Optional local tier below Redis: entries are appended to fixed-size, memory-mapped segment files
+//   record  int length, int crc32 (of the rest), long hardExpiresAt, long keepUntil, short key length,
+//           key (UTF-8), value (binary serializer, uncompressed)
+// and found through an in-memory key -> location index that is rebuilt by scanning the segments on
+// startup (a torn tail is cut at the first bad length or checksum). Expiry is checked on the index, and
+// a hit decodes straight from a slice of the mapping, without copying the record out first. Callers and
+// the L1 cache hold CachedWeather objects, so a record is still decoded once: hits also go into L1, and
+// decoded records are memoized (bounded, per record) for when L1 is off or has evicted them.
+// Maintenance drops entries past keepUntil (hard TTL + stale-if-error), deletes segments without live
+// records, rewrites the live records of segments below compaction-threshold and drops the oldest
+// segment while the store is over max-size.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DiskCache {
+
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 8 + 2;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${weather.cache.disk.enabled:false}")
+    private boolean enabled;
+
+    @Value("${weather.cache.disk.path:data/cache}")
+    private String path;
+
+    @Value("${weather.cache.disk.segment-size-mb:64}")
+    private int segmentSizeMb;
+
+    @Value("${weather.cache.disk.max-size-mb:1024}")
+    private long maxSizeMb;
+
+    @Value("${weather.cache.disk.compaction-threshold:0.5}")
+    private double compactionThreshold;
+
+    @Value("${weather.cache.disk.decoded-max-entries:1000}")
+    private long decodedMaxEntries;
+
+    private final BinaryWeatherSerializer serializer =
+            new BinaryWeatherSerializer(RedisConfig.jsonWeatherSerializer(), false, 0);
+
+    record Location(Segment segment, int offset, int length, long hardExpiresAt, long keepUntil) {
+    }
+
+    static final class Segment {
+        final long id;
+        final Path file;
+        final MappedByteBuffer buffer;
+        final AtomicLong liveBytes = new AtomicLong();
+        volatile int writePosition;
+
+        Segment(long id, Path file, MappedByteBuffer buffer) {
+            this.id = id;
+            this.file = file;
+            this.buffer = buffer;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Location> index = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private Path directory;
+    private int segmentSize;
+    private volatile Segment active;
+    // Keyed by Location identity; a rewrite or compaction makes a new Location, so entries never go stale.
+    private Cache<Location, CachedWeather> decoded;
+
+    private Counter writes;
+    private Counter writeFailures;
+    private Counter evictions;
+    private Counter compactions;
+
+    @PostConstruct
+    void init() {
+        writes = meterRegistry.counter("weather_cache_disk_writes_total");
+        writeFailures = meterRegistry.counter("weather_cache_disk_write_failures_total");
+        evictions = meterRegistry.counter("weather_cache_disk_evictions_total");
+        compactions = meterRegistry.counter("weather_cache_disk_compactions_total");
+        meterRegistry.gauge("weather_cache_disk_entries", index, Map::size);
+        meterRegistry.gauge("weather_cache_disk_segments", segments, Map::size);
+        decoded = Caffeine.newBuilder()
+                .weakKeys()
+                .maximumSize(decodedMaxEntries)
+                .build();
+        if (!enabled) return;
+
+        directory = Path.of(path);
+        segmentSize = (int) Math.min(Integer.MAX_VALUE, segmentSizeMb * 1024L * 1024L);
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(directory);
+            recover();
+            synchronized (this) {
+                if (active == null) roll();
+            }
+        } catch (IOException | RuntimeException ex) {
+            // The tier is optional; without a usable directory the service runs on Redis alone.
+            log.warn("disk_cache_unavailable path={} error={}", directory, ex.toString());
+            enabled = false;
+            return;
+        }
+        log.info("disk_cache enabled={} path={} segments={} entries={} segmentSizeMb={} maxSizeMb={} tookMs={}",
+                enabled, directory, segments.size(), index.size(), segmentSizeMb, maxSizeMb,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Entries within their hard TTL, like a Redis read.
+    public Optional<CachedWeather> get(String key) {
+        return read(key, false);
+    }
+
+    // Entries within hard TTL + stale-if-error, for when the provider failed.
+    public Optional<CachedWeather> getLastKnownGood(String key) {
+        return read(key, true);
+    }
+
+    public void put(String key, CachedWeather entry, long keepUntil) {
+        if (!enabled || entry == null) return;
+
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] value = serializer.serialize(entry);
+        int length = HEADER_BYTES + keyBytes.length + value.length;
+        if (length > segmentSize - 4 || keyBytes.length > Short.MAX_VALUE) {
+            writeFailures.increment();
+            return;
+        }
+
+        try {
+            synchronized (this) {
+                if (active.writePosition + length + 4 > segmentSize) roll();
+                Segment segment = active;
+                int offset = segment.writePosition;
+                ByteBuffer buffer = segment.buffer;
+                buffer.putLong(offset + 8, entry.hardExpiresAt());
+                buffer.putLong(offset + 16, keepUntil);
+                buffer.putShort(offset + 24, (short) keyBytes.length);
+                buffer.put(offset + HEADER_BYTES, keyBytes);
+                buffer.put(offset + HEADER_BYTES + keyBytes.length, value);
+                seal(segment, offset, length);
+                index(key, new Location(segment, offset, length, entry.hardExpiresAt(), keepUntil));
+            }
+            writes.increment();
+        } catch (IOException | RuntimeException ex) {
+            writeFailures.increment();
+            log.warn("disk_cache_write_failed keyHash={} error={}", key.hashCode(), ex.toString());
+        }
+    }
+
+    // Up to max entries within their hard TTL, latest expiry first; for warming the L1 cache on startup.
+    public int forEachLive(int max, BiConsumer<String, CachedWeather> consumer) {
+        if (!enabled || max <= 0) return 0;
+
+        long now = System.currentTimeMillis();
+        List<Map.Entry<String, Location>> live = new ArrayList<>();
+        for (Map.Entry<String, Location> entry : index.entrySet()) {
+            if (now < entry.getValue().hardExpiresAt()) live.add(entry);
+        }
+        live.sort(Comparator.comparingLong((Map.Entry<String, Location> e) -> e.getValue().hardExpiresAt()).reversed());
+
+        int loaded = 0;
+        for (Map.Entry<String, Location> entry : live.subList(0, Math.min(max, live.size()))) {
+            CachedWeather value = decode(entry.getValue());
+            if (value == null) continue;
+            consumer.accept(entry.getKey(), value);
+            loaded++;
+        }
+        return loaded;
+    }
+
+    @Scheduled(
+            fixedDelayString = "${weather.cache.disk.maintenance-interval-ms:60000}",
+            initialDelayString = "${weather.cache.disk.maintenance-interval-ms:60000}")
+    public void maintain() {
+        if (!enabled) return;
+
+        long now = System.currentTimeMillis();
+        int expired = 0;
+        for (Map.Entry<String, Location> entry : index.entrySet()) {
+            Location location = entry.getValue();
+            if (now >= location.keepUntil() && index.remove(entry.getKey(), location)) {
+                location.segment().liveBytes.addAndGet(-location.length());
+                expired++;
+            }
+        }
+        evictions.increment(expired);
+
+        long maxSegments = Math.max(2, maxSizeMb * 1024L * 1024L / segmentSize);
+        for (Segment segment : segments.values()) {
+            if (segment == active) continue;
+            long live = segment.liveBytes.get();
+            if (live <= 0 || segments.size() > maxSegments) {
+                drop(segment);
+            } else if (live < compactionThreshold * segment.writePosition) {
+                try {
+                    compact(segment);
+                } catch (IOException | RuntimeException ex) {
+                    log.warn("disk_cache_compaction_failed segment={} error={}", segment.id, ex.toString());
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        if (active != null) active.buffer.force();
+    }
+
+    private Optional<CachedWeather> read(String key, boolean lastKnownGood) {
+        if (!enabled) return Optional.empty();
+
+        Location location = index.get(key);
+        long now = System.currentTimeMillis();
+        if (location == null || now >= (lastKnownGood ? location.keepUntil() : location.hardExpiresAt())) {
+            return Optional.empty();
+        }
+        CachedWeather memo = decoded.getIfPresent(location);
+        if (memo != null) return Optional.of(memo);
+
+        CachedWeather entry = decode(location);
+        if (entry != null) decoded.put(location, entry);
+        return Optional.ofNullable(entry);
+    }
+
+    private CachedWeather decode(Location location) {
+        ByteBuffer buffer = location.segment().buffer;
+        int valueOffset = location.offset() + HEADER_BYTES + Short.toUnsignedInt(buffer.getShort(location.offset() + 24));
+        try {
+            return serializer.read(buffer.slice(valueOffset, location.offset() + location.length() - valueOffset));
+        } catch (RuntimeException ex) {
+            log.warn("disk_cache_read_failed segment={} offset={} error={}", location.segment().id, location.offset(), ex.toString());
+            return null;
+        }
+    }
+
+    private void compact(Segment segment) throws IOException {
+        int moved = 0;
+        for (int offset = 0; offset < segment.writePosition; ) {
+            int length = segment.buffer.getInt(offset);
+            String key = key(segment.buffer, offset);
+            Location location = index.get(key);
+            if (location != null && location.segment() == segment && location.offset() == offset
+                    && System.currentTimeMillis() < location.keepUntil()) {
+                synchronized (this) {
+                    // Only move what is still current; a newer write makes this copy obsolete.
+                    if (index.get(key) == location) {
+                        if (active.writePosition + length + 4 > segmentSize) roll();
+                        Segment target = active;
+                        int targetOffset = target.writePosition;
+                        target.buffer.put(targetOffset, segment.buffer, offset, length);
+                        seal(target, targetOffset, length);
+                        index(key, new Location(target, targetOffset, length, location.hardExpiresAt(), location.keepUntil()));
+                        moved++;
+                    }
+                }
+            }
+            offset += length;
+        }
+        compactions.increment();
+        log.info("disk_cache_compacted segment={} moved={}", segment.id, moved);
+        drop(segment);
+    }
+
+    // Readers holding a location in a dropped segment keep its mapping alive until they are done.
+    private void drop(Segment segment) {
+        segments.remove(segment.id);
+        int removed = 0;
+        for (Map.Entry<String, Location> entry : index.entrySet()) {
+            if (entry.getValue().segment() == segment && index.remove(entry.getKey(), entry.getValue())) removed++;
+        }
+        evictions.increment(removed);
+        try {
+            Files.deleteIfExists(segment.file);
+        } catch (IOException ex) {
+            log.warn("disk_cache_delete_failed file={} error={}", segment.file, ex.toString());
+        }
+    }
+
+    // Writes the record's length and checksum last and terminates the segment after it.
+    private void seal(Segment segment, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(segment.buffer.slice(offset + 8, length - 8));
+        segment.buffer.putInt(offset + 4, (int) crc.getValue());
+        segment.buffer.putInt(offset, length);
+        segment.writePosition = offset + length;
+        if (segment.writePosition + 4 <= segmentSize) segment.buffer.putInt(segment.writePosition, 0);
+    }
+
+    private void index(String key, Location location) {
+        location.segment().liveBytes.addAndGet(location.length());
+        Location previous = index.put(key, location);
+        if (previous != null) previous.segment().liveBytes.addAndGet(-previous.length());
+    }
+
+    private void roll() throws IOException {
+        if (active != null) active.buffer.force();
+        long id = segments.isEmpty() ? 1 : segments.lastKey() + 1;
+        Path file = directory.resolve(String.format("%s%012d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+        active = new Segment(id, file, map(file, segmentSize));
+        segments.put(id, active);
+    }
+
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                            && p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+
+        long now = System.currentTimeMillis();
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            long id = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+            Segment segment = new Segment(id, file, map(file, Math.max(segmentSize, (int) Math.min(Integer.MAX_VALUE, Files.size(file)))));
+            ByteBuffer buffer = segment.buffer;
+
+            int offset = 0;
+            while (offset + HEADER_BYTES <= buffer.capacity()) {
+                int length = buffer.getInt(offset);
+                if (length < HEADER_BYTES || offset + length > buffer.capacity()) break;
+                CRC32 crc = new CRC32();
+                crc.update(buffer.slice(offset + 8, length - 8));
+                if ((int) crc.getValue() != buffer.getInt(offset + 4)) break;
+
+                long keepUntil = buffer.getLong(offset + 16);
+                if (now < keepUntil) {
+                    index(key(buffer, offset), new Location(segment, offset, length, buffer.getLong(offset + 8), keepUntil));
+                }
+                offset += length;
+            }
+            segment.writePosition = offset;
+            segments.put(id, segment);
+        }
+
+        // Appending continues in the newest segment, from the end of its last intact record.
+        if (!segments.isEmpty()) {
+            Segment last = segments.lastEntry().getValue();
+            if (last.buffer.capacity() == segmentSize && last.writePosition + HEADER_BYTES + 4 < segmentSize) {
+                if (last.writePosition + 4 <= segmentSize) last.buffer.putInt(last.writePosition, 0);
+                active = last;
+            }
+        }
+    }
+
+    private static String key(ByteBuffer buffer, int offset) {
+        byte[] key = new byte[Short.toUnsignedInt(buffer.getShort(offset + 24))];
+        buffer.get(offset + HEADER_BYTES, key);
+        return new String(key, StandardCharsets.UTF_8);
+    }
+
+    private static MappedByteBuffer map(Path file, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package dev.emrullaharac.wetterflux.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Space-Saving heavy hitters: at most `capacity` counters, a new key evicts the smallest one and
+// inherits its count as error, so any key seen more than n/capacity times is guaranteed to be kept.
+// Hits only bump a striped counter per key; they are merged into the sketch under its lock once about
+// `capacity` keys are pending (by whichever thread gets the lock, nobody waits for it) and before reads.
+// A hit racing with its key's merge can be dropped, which the sketch's error bound absorbs anyway.
+public class HotKeySketch<K, V> {
+
+    public record HotKey<K, V>(K key, V value, long count, long error) {
+    }
+
+    private static final class Slot<K, V> {
+        final K key;
+        V value;
+        long count;
+        long error;
+        long seq;
+
+        Slot(K key) {
+            this.key = key;
+        }
+    }
+
+    private static final class Pending<V> {
+        final LongAdder count = new LongAdder();
+        volatile V value;
+    }
+
+    private final int capacity;
+    private final ConcurrentHashMap<K, Pending<V>> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<K, Slot<K, V>> slots;
+    private final TreeSet<Slot<K, V>> byCount = new TreeSet<>(
+            Comparator.<Slot<K, V>>comparingLong(s -> s.count).thenComparingLong(s -> s.seq));
+    private long nextSeq;
+
+    public HotKeySketch(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive");
+        this.capacity = capacity;
+        this.slots = new HashMap<>(capacity * 2);
+    }
+
+    public void offer(K key, V value) {
+        offer(key, value, 1);
+    }
+
+    public void offer(K key, V value, long increment) {
+        Pending<V> hits = pending.get(key);
+        if (hits == null) hits = pending.computeIfAbsent(key, k -> new Pending<>());
+        hits.value = value;
+        hits.count.add(increment);
+        if (pending.size() >= capacity && lock.tryLock()) {
+            try {
+                drain();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    public List<HotKey<K, V>> top(int n, long minCount) {
+        lock.lock();
+        try {
+            drain();
+            List<HotKey<K, V>> result = new ArrayList<>(Math.min(n, slots.size()));
+            for (Slot<K, V> slot : byCount.descendingSet()) {
+                if (result.size() >= n || slot.count < minCount) break;
+                if (slot.count - slot.error < minCount) continue;
+                result.add(new HotKey<>(slot.key, slot.value, slot.count, slot.error));
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Halves every counter so keys that stopped being requested age out.
+    public void decay() {
+        lock.lock();
+        try {
+            drain();
+            List<Slot<K, V>> all = new ArrayList<>(byCount);
+            byCount.clear();
+            for (Slot<K, V> slot : all) {
+                slot.count >>= 1;
+                slot.error >>= 1;
+                if (slot.count == 0) {
+                    slots.remove(slot.key);
+                } else {
+                    byCount.add(slot);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return slots.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void drain() {
+        for (K key : pending.keySet()) {
+            Pending<V> hits = pending.remove(key);
+            if (hits == null) continue;
+            long count = hits.count.sum();
+            if (count > 0) record(key, hits.value, count);
+        }
+    }
+
+    private void record(K key, V value, long increment) {
+        Slot<K, V> slot = slots.get(key);
+        if (slot == null) {
+            if (slots.size() < capacity) {
+                slot = new Slot<>(key);
+            } else {
+                Slot<K, V> min = byCount.pollFirst();
+                slots.remove(min.key);
+                slot = new Slot<>(key);
+                slot.count = min.count;
+                slot.error = min.count;
+            }
+            slots.put(key, slot);
+        } else {
+            byCount.remove(slot);
+        }
+        slot.value = value;
+        slot.count += increment;
+        slot.seq = nextSeq++;
+        byCount.add(slot);
+    }
+}
@@ -0,0 +1,119 @@
+package dev.emrullaharac.wetterflux.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.emrullaharac.wetterflux.model.domain.WeatherQuery;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HotKeyTracker {
+
+    private static final String WARM_SET_KEY = "weather:warmset:v1";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final WeatherCacheService weatherCacheService;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${weather.cache.warmer.tracked-keys:1000}")
+    private int trackedKeys;
+
+    @Value("${weather.cache.warmer.warm-set-ttl-hours:24}")
+    private long warmSetTtlHours;
+
+    private HotKeySketch<String, WeatherQuery> sketch;
+
+    @PostConstruct
+    void init() {
+        sketch = new HotKeySketch<>(trackedKeys);
+        meterRegistry.gauge("weather_cache_hot_keys_tracked", sketch, HotKeySketch::size);
+    }
+
+    public void record(String key, WeatherQuery query) {
+        sketch.offer(key, query);
+    }
+
+    public List<HotKeySketch.HotKey<String, WeatherQuery>> top(int n, long minCount) {
+        return sketch.top(n, minCount);
+    }
+
+    public void decay() {
+        sketch.decay();
+    }
+
+    public void saveWarmSet(int n) {
+        List<HotKeySketch.HotKey<String, WeatherQuery>> hot = sketch.top(n, 1);
+        if (hot.isEmpty()) return;
+
+        Set<ZSetOperations.TypedTuple<String>> members = new HashSet<>(hot.size() * 2);
+        for (HotKeySketch.HotKey<String, WeatherQuery> entry : hot) {
+            try {
+                members.add(new DefaultTypedTuple<>(objectMapper.writeValueAsString(entry.value()), (double) entry.count()));
+            } catch (Exception ex) {
+                log.warn("warm_set_encode_failed message={}", ex.getMessage());
+            }
+        }
+
+        if (members.isEmpty()) return;
+
+        try {
+            // One transaction, so other nodes never load a missing or half-written set.
+            stringRedisTemplate.execute(new SessionCallback<List<Object>>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> List<Object> execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                    ops.multi();
+                    ops.delete(WARM_SET_KEY);
+                    ops.opsForZSet().add(WARM_SET_KEY, members);
+                    ops.expire(WARM_SET_KEY, Duration.ofHours(warmSetTtlHours));
+                    return ops.exec();
+                }
+            });
+            log.info("warm_set_saved keys={}", members.size());
+        } catch (Exception ex) {
+            log.warn("warm_set_save_failed message={}", ex.getMessage());
+        }
+    }
+
+    public int loadWarmSet(int n) {
+        Set<ZSetOperations.TypedTuple<String>> members;
+        try {
+            members = stringRedisTemplate.opsForZSet().reverseRangeWithScores(WARM_SET_KEY, 0, n - 1L);
+        } catch (Exception ex) {
+            log.warn("warm_set_load_failed message={}", ex.getMessage());
+            return 0;
+        }
+        if (members == null) return 0;
+
+        int loaded = 0;
+        for (ZSetOperations.TypedTuple<String> member : members) {
+            try {
+                WeatherQuery query = objectMapper.readValue(member.getValue(), WeatherQuery.class);
+                long count = member.getScore() == null ? 1 : Math.max(1, member.getScore().longValue());
+                sketch.offer(weatherCacheService.buildKey(query), query, count);
+                loaded++;
+            } catch (Exception ex) {
+                log.warn("warm_set_decode_failed message={}", ex.getMessage());
+            }
+        }
+        log.info("warm_set_loaded keys={}", loaded);
+        return loaded;
+    }
+}
@@ -0,0 +1,269 @@
+package dev.emrullaharac.wetterflux.cache;
+
+import dev.emrullaharac.wetterflux.model.domain.WeatherData;
+import dev.emrullaharac.wetterflux.model.domain.WeatherQuery;
+import dev.emrullaharac.wetterflux.model.dto.WeatherResponseDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.ExpirationOptions;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// One Redis hash per location and units, one field per variable ("c:", "h:", "d:" + name), so a
+// request can be answered from whatever variables earlier requests already brought in.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LocationCache {
+
+    private static final String CURRENT = "c:";
+    private static final String HOURLY = "h:";
+    private static final String DAILY = "d:";
+    private static final long DAY_SECONDS = 86_400L;
+
+    private final RedisTemplate<String, CachedWeather> weatherRedisTemplate;
+    private final WeatherCacheService weatherCacheService;
+
+    @Value("${weather.cache.subset.enabled:true}")
+    private boolean enabled;
+
+    public record Resolution(WeatherQuery query, Map<String, CachedWeather> fields, WeatherQuery missing) {
+
+        public boolean isEmpty() {
+            return fields.isEmpty();
+        }
+
+        public boolean isComplete() {
+            return missing == null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String locationKey(WeatherQuery query) {
+        return new StringBuilder(96)
+                .append("weather:v2:loc:")
+                .append(query.latitude()).append(':')
+                .append(query.longitude()).append(':')
+                .append(query.timezone()).append(':')
+                .append(query.temperatureUnit()).append(':')
+                .append(query.windSpeedUnit())
+                .toString();
+    }
+
+    public Resolution resolve(WeatherQuery query) {
+        List<String> current = vars(query.currentVars());
+        List<String> hourly = vars(query.hourlyVars());
+        List<String> daily = vars(query.dailyVars());
+
+        List<String> fields = new ArrayList<>(current.size() + hourly.size() + daily.size());
+        current.forEach(v -> fields.add(CURRENT + v));
+        hourly.forEach(v -> fields.add(HOURLY + v));
+        daily.forEach(v -> fields.add(DAILY + v));
+
+        List<CachedWeather> values;
+        try {
+            values = weatherRedisTemplate.<String, CachedWeather>opsForHash().multiGet(locationKey(query), fields);
+        } catch (Exception ex) {
+            log.warn("location_cache_read_failed message={}", ex.getMessage());
+            return new Resolution(query, new HashMap<>(), query);
+        }
+
+        long now = System.currentTimeMillis();
+        Map<String, CachedWeather> found = new HashMap<>();
+        List<String> missingCurrent = new ArrayList<>();
+        List<String> missingHourly = new ArrayList<>();
+        List<String> missingDaily = new ArrayList<>();
+        for (int i = 0; i < fields.size(); i++) {
+            String field = fields.get(i);
+            CachedWeather entry = values == null ? null : values.get(i);
+            boolean usable = entry != null && entry.isFresh(now)
+                    && (field.startsWith(CURRENT) || covers(series(entry.response(), field), query.forecastDays()));
+            if (usable) {
+                found.put(field, entry);
+            } else if (field.startsWith(CURRENT)) {
+                missingCurrent.add(field.substring(CURRENT.length()));
+            } else if (field.startsWith(HOURLY)) {
+                missingHourly.add(field.substring(HOURLY.length()));
+            } else {
+                missingDaily.add(field.substring(DAILY.length()));
+            }
+        }
+
+        WeatherQuery missing = missingCurrent.isEmpty() && missingHourly.isEmpty() && missingDaily.isEmpty()
+                ? null
+                : new WeatherQuery(
+                        query.latitude(), query.longitude(),
+                        join(missingCurrent), join(missingHourly), join(missingDaily),
+                        query.forecastDays(), query.timezone(), query.temperatureUnit(), query.windSpeedUnit());
+        return new Resolution(query, found, missing);
+    }
+
+    // Splits a fetched response into per-variable fields and writes them; returns what was written.
+    public Map<String, CachedWeather> store(WeatherQuery query, WeatherResponseDto response) {
+        if (!enabled) return Map.of();
+
+        Map<String, CachedWeather> fields = new LinkedHashMap<>();
+        List<String> current = vars(query.currentVars());
+        if (!current.isEmpty() && response.getCurrentTimeIso() != null) {
+            WeatherResponseDto part = metadata(response);
+            part.setCurrentTemperature2m(response.getCurrentTemperature2m());
+            part.setCurrentWindSpeed10m(response.getCurrentWindSpeed10m());
+            part.setCurrentWeatherCode(response.getCurrentWeatherCode());
+            part.setCurrentTimeIso(response.getCurrentTimeIso());
+            CachedWeather entry = weatherCacheService.newEntry(part);
+            current.forEach(v -> fields.put(CURRENT + v, entry));
+        }
+        WeatherData hourly = response.getHourly();
+        if (hourly != null) {
+            for (String v : vars(query.hourlyVars())) {
+                if (hourly.column(v) == null) continue;
+                WeatherResponseDto part = metadata(response);
+                part.setHourly(hourly.slice(0, hourly.length(), List.of(v)));
+                fields.put(HOURLY + v, weatherCacheService.newEntry(part));
+            }
+        }
+        WeatherData daily = response.getDaily();
+        if (daily != null) {
+            for (String v : vars(query.dailyVars())) {
+                if (daily.column(v) == null) continue;
+                WeatherResponseDto part = metadata(response);
+                part.setDaily(daily.slice(0, daily.length(), List.of(v)));
+                fields.put(DAILY + v, weatherCacheService.newEntry(part));
+            }
+        }
+        if (fields.isEmpty()) return fields;
+
+        String key = locationKey(query);
+        long hardExpiresAt = fields.values().stream().mapToLong(CachedWeather::hardExpiresAt).max().orElse(0);
+        try {
+            // The expiry covers the whole hash, so it is only ever extended: fields written earlier keep at
+            // least their own hard TTL. Past it they linger, but resolve checks every field's own expiry.
+            // NX sets it on a new hash, GT (Redis 7+) only moves it later, both in the write's round trip.
+            Expiration expiresAt = Expiration.unixTimestamp(hardExpiresAt, TimeUnit.MILLISECONDS);
+            weatherRedisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, CachedWeather> ops = (RedisOperations<String, CachedWeather>) operations;
+                    ops.opsForHash().putAll(key, fields);
+                    ops.expire(key, expiresAt, ExpirationOptions.builder().nx().build());
+                    ops.expire(key, expiresAt, ExpirationOptions.builder().gt().build());
+                    return null;
+                }
+            });
+        } catch (Exception ex) {
+            log.warn("location_cache_write_failed message={}", ex.getMessage());
+        }
+        return fields;
+    }
+
+    // Merges the fields into a response for the query; empty when fields of one section disagree on the time axis.
+    public Optional<CachedWeather> assemble(WeatherQuery query, Map<String, CachedWeather> fields) {
+        if (fields.isEmpty()) return Optional.empty();
+
+        long fetchedAt = Long.MAX_VALUE, softExpiresAt = Long.MAX_VALUE, hardExpiresAt = Long.MAX_VALUE;
+        for (CachedWeather entry : fields.values()) {
+            fetchedAt = Math.min(fetchedAt, entry.fetchedAt());
+            softExpiresAt = Math.min(softExpiresAt, entry.softExpiresAt());
+            hardExpiresAt = Math.min(hardExpiresAt, entry.hardExpiresAt());
+        }
+
+        WeatherResponseDto response = metadata(fields.values().iterator().next().response());
+        for (String v : vars(query.currentVars())) {
+            CachedWeather entry = fields.get(CURRENT + v);
+            if (entry == null) continue;
+            WeatherResponseDto source = entry.response();
+            if (response.getCurrentTimeIso() == null) response.setCurrentTimeIso(source.getCurrentTimeIso());
+            switch (v) {
+                case "temperature_2m" -> response.setCurrentTemperature2m(source.getCurrentTemperature2m());
+                case "wind_speed_10m" -> response.setCurrentWindSpeed10m(source.getCurrentWindSpeed10m());
+                case "weather_code" -> response.setCurrentWeatherCode(source.getCurrentWeatherCode());
+                default -> { }
+            }
+        }
+
+        WeatherData hourly = merge(fields, HOURLY, vars(query.hourlyVars()), query.forecastDays());
+        WeatherData daily = merge(fields, DAILY, vars(query.dailyVars()), query.forecastDays());
+        if (hourly == null || daily == null) return Optional.empty();
+        response.setHourly(hourly);
+        response.setDaily(daily);
+
+        return Optional.of(new CachedWeather(response, fetchedAt, softExpiresAt, hardExpiresAt));
+    }
+
+    // Null when the columns were fetched on different time axes (e.g. either side of midnight).
+    private static WeatherData merge(Map<String, CachedWeather> fields, String prefix, List<String> vars, int days) {
+        WeatherData axis = null;
+        Map<String, double[]> columns = new LinkedHashMap<>();
+        Map<String, String> units = new LinkedHashMap<>();
+        for (String v : vars) {
+            CachedWeather entry = fields.get(prefix + v);
+            if (entry == null) continue;
+            WeatherData stored = series(entry.response(), prefix);
+            if (stored == null) continue;
+            WeatherData sliced = stored.slice(0, stored.countBefore(dayCutoff(stored, days)), List.of(v));
+            if (axis == null) {
+                axis = sliced;
+            } else if (!axis.sameTimeAxis(sliced)) {
+                return null;
+            }
+            columns.putAll(sliced.getColumns());
+            units.putAll(sliced.getUnits());
+        }
+        if (axis == null) return WeatherData.EMPTY;
+        return new WeatherData(axis.getTimeFormat(), axis.getStartEpochSecond(), axis.getStepSeconds(),
+                axis.length(), axis.getExplicitTimes(), columns, units);
+    }
+
+    private static WeatherData series(WeatherResponseDto response, String field) {
+        return field.startsWith(DAILY) ? response.getDaily() : response.getHourly();
+    }
+
+    // A series covers `days` when it has points up to the last of those local days.
+    private static boolean covers(WeatherData series, int days) {
+        if (series == null || series.length() == 0) return false;
+        return series.epochSecondAt(series.length() - 1) >= dayCutoff(series, days) - DAY_SECONDS;
+    }
+
+    private static long dayCutoff(WeatherData series, int days) {
+        if (series.length() == 0) return Long.MIN_VALUE;
+        return Math.floorDiv(series.epochSecondAt(0), DAY_SECONDS) * DAY_SECONDS + days * DAY_SECONDS;
+    }
+
+    private static WeatherResponseDto metadata(WeatherResponseDto response) {
+        return WeatherResponseDto.builder()
+                .latitude(response.getLatitude())
+                .longitude(response.getLongitude())
+                .timezone(response.getTimezone())
+                .timezoneAbbreviation(response.getTimezoneAbbreviation())
+                .utcOffsetSeconds(response.getUtcOffsetSeconds())
+                .currentIntervalSeconds(response.getCurrentIntervalSeconds())
+                .hourly(WeatherData.EMPTY)
+                .daily(WeatherData.EMPTY)
+                .build();
+    }
+
+    private static List<String> vars(String csv) {
+        if (csv == null || csv.isBlank()) return List.of();
+        return List.of(csv.split(","));
+    }
+
+    private static String join(List<String> vars) {
+        return vars.isEmpty() ? null : String.join(",", vars);
+    }
+}
@@ -0,0 +1,37 @@
+package dev.emrullaharac.wetterflux.cache;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+// Records the size of every value written to and read from Redis.
+public class MeteredRedisSerializer<T> implements RedisSerializer<T> {
+
+    private final RedisSerializer<T> delegate;
+    private final DistributionSummary written;
+    private final DistributionSummary read;
+
+    public MeteredRedisSerializer(RedisSerializer<T> delegate, DistributionSummary written, DistributionSummary read) {
+        this.delegate = delegate;
+        this.written = written;
+        this.read = read;
+    }
+
+    @Override
+    public byte[] serialize(T value) throws SerializationException {
+        byte[] bytes = delegate.serialize(value);
+        if (bytes != null) written.record(bytes.length);
+        return bytes;
+    }
+
+    @Override
+    public T deserialize(byte[] bytes) throws SerializationException {
+        if (bytes != null) read.record(bytes.length);
+        return delegate.deserialize(bytes);
+    }
+
+    @Override
+    public Class<?> getTargetType() {
+        return delegate.getTargetType();
+    }
+}
@@ -0,0 +1,105 @@
+package dev.emrullaharac.wetterflux.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import dev.emrullaharac.wetterflux.model.domain.WeatherData;
+import dev.emrullaharac.wetterflux.model.dto.WeatherResponseDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.Optional;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NearCache {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${weather.cache.l1.enabled:true}")
+    private boolean enabled;
+
+    @Value("${weather.cache.l1.max-memory-mb:64}")
+    private long maxMemoryMb;
+
+    @Value("${weather.cache.l1.ttl-minutes:${weather.cache.hard-ttl-minutes:60}}")
+    private long ttlMinutes;
+
+    private Cache<String, CachedWeather> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maxMemoryMb * 1024 * 1024)
+                .weigher((String key, CachedWeather value) -> estimateSize(key, value.response()))
+                .expireAfter(new Expiry<String, CachedWeather>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedWeather value, long currentTime) {
+                        return ttlNanos(value);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedWeather value, long currentTime,
+                                                  long currentDuration) {
+                        return ttlNanos(value);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedWeather value, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "weather_l1");
+
+        log.info("near_cache enabled={} maxMemoryMb={} ttlMinutes={}", enabled, maxMemoryMb, ttlMinutes);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Optional<CachedWeather> get(String key) {
+        if (!enabled) return Optional.empty();
+        return Optional.ofNullable(cache.getIfPresent(key));
+    }
+
+    public void put(String key, CachedWeather value) {
+        if (!enabled) return;
+        cache.put(key, value);
+    }
+
+    public void invalidate(String key) {
+        cache.invalidate(key);
+    }
+
+    // L1 never outlives the entry's hard expiry, so it cannot serve data Redis already dropped.
+    private long ttlNanos(CachedWeather value) {
+        long remainingMillis = Math.max(0, value.hardExpiresAt() - System.currentTimeMillis());
+        return Math.min(TimeUnit.MINUTES.toNanos(ttlMinutes), TimeUnit.MILLISECONDS.toNanos(remainingMillis));
+    }
+
+    // Rough retained-heap estimate; the primitive columns dominate the footprint.
+    static int estimateSize(String key, WeatherResponseDto value) {
+        long size = 256 + 2L * key.length() + seriesSize(value.getHourly()) + seriesSize(value.getDaily());
+        return (int) Math.min(Integer.MAX_VALUE, size);
+    }
+
+    private static long seriesSize(WeatherData series) {
+        if (series == null) return 0;
+        long size = series.isRegular() ? 0 : 8L * series.length();
+        for (double[] column : series.getColumns().values()) {
+            size += 64 + 8L * column.length;
+        }
+        return size;
+    }
+}
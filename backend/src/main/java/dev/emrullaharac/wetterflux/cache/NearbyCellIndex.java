@@ -0,0 +1,176 @@
+package dev.emrullaharac.wetterflux.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.emrullaharac.wetterflux.model.domain.WeatherQuery;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Grid points of cached forecasts, at the latitude/longitude the provider returned (its model grid
+// point, not the requested one), bucketed into cells of max-distance so a lookup only visits the
+// surrounding cells. Points are per query variant (variables, days, timezone, units) so a neighbour
+// is only offered when its entry answers the same request. The index only points at cache keys;
+// callers still read and check the entry itself.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NearbyCellIndex {
+
+    private static final double EARTH_RADIUS_METERS = 6_371_000d;
+    private static final double METERS_PER_DEGREE = Math.toRadians(1) * EARTH_RADIUS_METERS;
+    private static final int MAX_LON_RING = 8;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${weather.cache.nearby.enabled:true}")
+    private boolean enabled;
+
+    @Value("${weather.cache.nearby.max-distance-meters:1000}")
+    private double maxDistanceMeters;
+
+    @Value("${weather.cache.nearby.max-entries:100000}")
+    private long maxEntries;
+
+    @Value("${weather.cache.hard-ttl-minutes:60}")
+    private long hardTtlMinutes;
+
+    public record Match(String cacheKey, double distanceMeters) {
+    }
+
+    record Point(String cacheKey, String variant, double latitude, double longitude) {
+    }
+
+    private record Bucket(String variant, int lat, int lon) {
+    }
+
+    private final ConcurrentHashMap<Bucket, Set<Point>> buckets = new ConcurrentHashMap<>();
+    private Cache<String, Point> points;
+    private double cellDegrees;
+    private int lonCells;
+
+    @PostConstruct
+    void init() {
+        if (maxDistanceMeters <= 0) {
+            enabled = false;
+        }
+        cellDegrees = Math.max(maxDistanceMeters, 1) / METERS_PER_DEGREE;
+        lonCells = (int) Math.ceil(360 / cellDegrees);
+        points = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMinutes(hardTtlMinutes))
+                .<String, Point>evictionListener((key, point, cause) -> unbucket(point))
+                .build();
+        meterRegistry.gauge("weather_cache_nearby_points", points, Cache::estimatedSize);
+
+        log.info("nearby_cell_index enabled={} maxDistanceMeters={} cellDegrees={}", enabled, maxDistanceMeters, cellDegrees);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void register(WeatherQuery query, String cacheKey, double gridLatitude, double gridLongitude) {
+        if (!enabled || Double.isNaN(gridLatitude) || Double.isNaN(gridLongitude)) return;
+
+        Point point = new Point(cacheKey, variant(query), gridLatitude, gridLongitude);
+        // Swap and re-bucket under the key's lock, so concurrent registers can't leave a point orphaned.
+        points.asMap().compute(cacheKey, (key, previous) -> {
+            if (point.equals(previous)) return previous;
+            if (previous != null) unbucket(previous);
+            // Added inside compute too: an unbucket of the last point could otherwise drop the set first.
+            buckets.compute(bucket(point.variant(), gridLatitude, gridLongitude), (b, set) -> {
+                Set<Point> bucketed = set != null ? set : ConcurrentHashMap.newKeySet();
+                bucketed.add(point);
+                return bucketed;
+            });
+            return point;
+        });
+    }
+
+    public void forget(String cacheKey) {
+        points.asMap().computeIfPresent(cacheKey, (key, point) -> {
+            unbucket(point);
+            return null;
+        });
+    }
+
+    // Nearest grid point within max-distance of the query's (snapped) coordinate, other than its own key.
+    public Optional<Match> nearest(WeatherQuery query, String cacheKey) {
+        if (!enabled || points.estimatedSize() == 0) return Optional.empty();
+
+        String variant = variant(query);
+        double lat = query.latitude();
+        double lon = query.longitude();
+        int latCell = latCell(lat);
+        int lonCell = lonCell(lon);
+        // A cell spans fewer meters east-west away from the equator.
+        double cos = Math.cos(Math.toRadians(Math.min(89.9, Math.abs(lat) + cellDegrees)));
+        int lonRing = Math.min(MAX_LON_RING, (int) Math.ceil(1 / cos));
+
+        Point best = null;
+        double bestDistance = maxDistanceMeters;
+        for (int dLat = -1; dLat <= 1; dLat++) {
+            for (int dLon = -lonRing; dLon <= lonRing; dLon++) {
+                Set<Point> bucket = buckets.get(new Bucket(variant, latCell + dLat, Math.floorMod(lonCell + dLon, lonCells)));
+                if (bucket == null) continue;
+                for (Point point : bucket) {
+                    if (point.cacheKey().equals(cacheKey)) continue;
+                    double distance = distanceMeters(lat, lon, point.latitude(), point.longitude());
+                    if (distance <= bestDistance) {
+                        best = point;
+                        bestDistance = distance;
+                    }
+                }
+            }
+        }
+        return best == null ? Optional.empty() : Optional.of(new Match(best.cacheKey(), bestDistance));
+    }
+
+    long size() {
+        points.cleanUp();
+        return points.estimatedSize();
+    }
+
+    private void unbucket(Point point) {
+        buckets.computeIfPresent(bucket(point.variant(), point.latitude(), point.longitude()), (b, set) -> {
+            set.remove(point);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private Bucket bucket(String variant, double lat, double lon) {
+        return new Bucket(variant, latCell(lat), lonCell(lon));
+    }
+
+    private int latCell(double lat) {
+        return (int) Math.floor((lat + 90) / cellDegrees);
+    }
+
+    private int lonCell(double lon) {
+        return Math.floorMod((int) Math.floor((lon + 180) / cellDegrees), lonCells);
+    }
+
+    // Equirectangular approximation; exact enough at the distances looked up here.
+    static double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
+        double dLon = Math.toRadians(lon2 - lon1);
+        if (dLon > Math.PI) dLon -= 2 * Math.PI;
+        if (dLon < -Math.PI) dLon += 2 * Math.PI;
+        double x = dLon * Math.cos(Math.toRadians((lat1 + lat2) / 2));
+        double y = Math.toRadians(lat2 - lat1);
+        return Math.sqrt(x * x + y * y) * EARTH_RADIUS_METERS;
+    }
+
+    private static String variant(WeatherQuery query) {
+        return query.currentVars() + '|' + query.hourlyVars() + '|' + query.dailyVars() + '|' + query.forecastDays()
+                + '|' + query.timezone() + '|' + query.temperatureUnit() + '|' + query.windSpeedUnit();
+    }
+}
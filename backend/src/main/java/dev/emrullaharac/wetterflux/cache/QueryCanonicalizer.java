@@ -0,0 +1,125 @@
+package dev.emrullaharac.wetterflux.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.emrullaharac.wetterflux.model.domain.WeatherQuery;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.TreeSet;
+
+@Slf4j
+@Component
+public class QueryCanonicalizer {
+
+    public static final String AUTO_TIMEZONE = "auto";
+    public static final int DEFAULT_FORECAST_DAYS = 7;
+    public static final String DEFAULT_TEMPERATURE_UNIT = "celsius";
+    public static final String DEFAULT_WIND_SPEED_UNIT = "kmh";
+
+    @Value("${weather.cache.key.grid-snapping.enabled:true}")
+    private boolean gridSnapping;
+
+    @Value("${weather.cache.key.grid-resolution-degrees:0.01}")
+    private double gridResolution;
+
+    @Value("${weather.cache.key.timezone-memo-size:100000}")
+    private long timezoneMemoSize;
+
+    private double roundingScale;
+
+    // grid cell -> timezone Open-Meteo resolved for timezone=auto
+    private Cache<String, String> resolvedTimezones;
+
+    @PostConstruct
+    void init() {
+        if (gridResolution <= 0) {
+            gridSnapping = false;
+        }
+        roundingScale = Math.pow(10, decimalsOf(gridResolution));
+        resolvedTimezones = Caffeine.newBuilder()
+                .maximumSize(timezoneMemoSize)
+                .build();
+
+        log.info("query_canonicalizer gridSnapping={} gridResolution={}", gridSnapping, gridResolution);
+    }
+
+    public WeatherQuery canonicalize(
+            double latitude,
+            double longitude,
+            String currentVars,
+            String hourlyVars,
+            String dailyVars,
+            Integer forecastDays,
+            String timezone,
+            String temperatureUnit,
+            String windSpeedUnit
+    ) {
+        double lat = snap(latitude);
+        double lon = snap(longitude);
+
+        String tz = (timezone == null || timezone.isBlank()) ? AUTO_TIMEZONE : timezone.trim();
+        if (AUTO_TIMEZONE.equalsIgnoreCase(tz)) {
+            String resolved = resolvedTimezones.getIfPresent(cellOf(lat, lon));
+            tz = resolved != null ? resolved : AUTO_TIMEZONE;
+        }
+
+        return new WeatherQuery(
+                lat,
+                lon,
+                canonicalVars(currentVars),
+                canonicalVars(hourlyVars),
+                canonicalVars(dailyVars),
+                forecastDays != null ? forecastDays : DEFAULT_FORECAST_DAYS,
+                tz,
+                canonicalUnit(temperatureUnit, DEFAULT_TEMPERATURE_UNIT),
+                canonicalUnit(windSpeedUnit, DEFAULT_WIND_SPEED_UNIT)
+        );
+    }
+
+    public void rememberTimezone(WeatherQuery query, String resolvedTimezone) {
+        if (resolvedTimezone == null || resolvedTimezone.isBlank()) return;
+        resolvedTimezones.put(cellOf(query.latitude(), query.longitude()), resolvedTimezone);
+    }
+
+    public double snap(double coordinate) {
+        if (!gridSnapping) {
+            return coordinate == 0.0 ? 0.0 : coordinate;
+        }
+        double snapped = Math.round(coordinate / gridResolution) * gridResolution;
+        snapped = Math.round(snapped * roundingScale) / roundingScale;
+        return snapped == 0.0 ? 0.0 : snapped;
+    }
+
+    static String canonicalVars(String vars) {
+        if (vars == null || vars.isBlank()) return null;
+
+        TreeSet<String> sorted = new TreeSet<>();
+        for (String var : vars.split(",")) {
+            String v = var.trim();
+            if (!v.isEmpty()) sorted.add(v.toLowerCase(Locale.ROOT));
+        }
+        return sorted.isEmpty() ? null : String.join(",", sorted);
+    }
+
+    private static String canonicalUnit(String unit, String defaultUnit) {
+        return (unit == null || unit.isBlank()) ? defaultUnit : unit.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String cellOf(double lat, double lon) {
+        return lat + "," + lon;
+    }
+
+    private static int decimalsOf(double resolution) {
+        int decimals = 0;
+        double scaled = resolution;
+        while (decimals < 8 && Math.abs(scaled - Math.rint(scaled)) > 1e-9) {
+            scaled *= 10;
+            decimals++;
+        }
+        return decimals;
+    }
+}
@@ -0,0 +1,118 @@
+package dev.emrullaharac.wetterflux.cache;
+
+import dev.emrullaharac.wetterflux.model.dto.WeatherResponseDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWeatherCacheService {
+
+    private final ReactiveRedisTemplate<String, CachedWeather> reactiveWeatherRedisTemplate;
+    private final WeatherCacheService weatherCacheService;
+    private final NearCache nearCache;
+    private final DiskCache diskCache;
+    private final MeterRegistry meterRegistry;
+
+    private Counter cacheHits;
+    private Counter cacheMisses;
+    private Counter l1Hits;
+    private Counter l1Misses;
+    private Counter redisHits;
+    private Counter redisMisses;
+
+    @PostConstruct
+    void initMetrics() {
+        cacheHits = meterRegistry.counter("weather_cache_hits_total");
+        cacheMisses = meterRegistry.counter("weather_cache_misses_total");
+        l1Hits = meterRegistry.counter("weather_cache_l1_hits_total");
+        l1Misses = meterRegistry.counter("weather_cache_l1_misses_total");
+        redisHits = meterRegistry.counter("weather_cache_redis_hits_total");
+        redisMisses = meterRegistry.counter("weather_cache_redis_misses_total");
+    }
+
+    public Mono<CachedWeather> getFromCache(String key) {
+        log.debug("cache_get keyHash={}", key.hashCode());
+
+        if (nearCache.isEnabled()) {
+            Optional<CachedWeather> fromL1 = nearCache.get(key);
+            if (fromL1.isPresent()) {
+                l1Hits.increment();
+                cacheHits.increment();
+                return Mono.just(fromL1.get());
+            }
+            l1Misses.increment();
+        }
+
+        Mono<CachedWeather> fromRedis = !weatherCacheService.redisAvailable()
+                ? Mono.empty()
+                : reactiveWeatherRedisTemplate.opsForValue().get(key)
+                        .filter(entry -> !entry.isExpired(System.currentTimeMillis()))
+                        .doOnNext(entry -> {
+                            redisHits.increment();
+                            nearCache.put(key, entry);
+                        })
+                        .switchIfEmpty(Mono.fromRunnable(redisMisses::increment))
+                        // An unreachable Redis is a miss, not a failed request.
+                        .onErrorResume(ex -> {
+                            weatherCacheService.redisUnavailable("get", ex);
+                            return Mono.empty();
+                        });
+
+        return fromRedis
+                .switchIfEmpty(onDisk(() -> weatherCacheService.fromDisk(key)))
+                .doOnNext(entry -> cacheHits.increment())
+                .switchIfEmpty(Mono.fromRunnable(cacheMisses::increment));
+    }
+
+    public Mono<CachedWeather> getLastKnownGood(String key) {
+        return reactiveWeatherRedisTemplate.opsForValue().get(key)
+                .filter(entry -> System.currentTimeMillis() < weatherCacheService.lastKnownGoodUntil(entry))
+                .onErrorResume(ex -> {
+                    log.warn("cache_last_known_good_failed keyHash={} message={}", key.hashCode(), ex.getMessage());
+                    return Mono.empty();
+                })
+                .switchIfEmpty(onDisk(() -> diskCache.getLastKnownGood(key)));
+    }
+
+    // Segment reads and appends may touch the file system, so they stay off the event loop.
+    private Mono<CachedWeather> onDisk(Supplier<Optional<CachedWeather>> read) {
+        if (!diskCache.isEnabled()) return Mono.empty();
+        return Mono.fromCallable(() -> read.get().orElse(null))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<CachedWeather> putToCache(String key, WeatherResponseDto responseDto) {
+        log.debug("cache_put keyHash={}", key.hashCode());
+
+        CachedWeather entry = weatherCacheService.newEntry(responseDto);
+        nearCache.put(key, entry);
+        // A failed write must not fail the fetch it stores, nor the requests coalesced onto it.
+        Mono<Boolean> toRedis = !weatherCacheService.redisAvailable()
+                ? Mono.empty()
+                : reactiveWeatherRedisTemplate.opsForValue()
+                        .set(key, entry, weatherCacheService.redisTtl(entry))
+                        .onErrorResume(ex -> {
+                            weatherCacheService.redisUnavailable("set", ex);
+                            return Mono.empty();
+                        });
+        if (!diskCache.isEnabled()) return toRedis.thenReturn(entry);
+
+        Mono<Void> toDisk = Mono.<Void>fromRunnable(() -> diskCache.put(key, entry, weatherCacheService.lastKnownGoodUntil(entry)))
+                .subscribeOn(Schedulers.boundedElastic());
+        return toRedis.then(toDisk).thenReturn(entry);
+    }
+}
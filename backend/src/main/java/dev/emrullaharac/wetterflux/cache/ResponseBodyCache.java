@@ -0,0 +1,103 @@
+package dev.emrullaharac.wetterflux.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.emrullaharac.wetterflux.metrics.WeatherMetrics;
+import dev.emrullaharac.wetterflux.model.dto.WeatherResponseDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+
+// Final JSON body (and its gzip variant) per cache entry. Keys are held weakly, so a body lives
+// exactly as long as the CachedWeather instance the near cache hands out.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ResponseBodyCache {
+
+    public record EncodedBody(byte[] json, byte[] gzip, String etag) {
+
+        public String gzipEtag() {
+            return etag.substring(0, etag.length() - 1) + "-gz\"";
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final WeatherMetrics weatherMetrics;
+
+    @Value("${weather.http.precomputed-body.enabled:true}")
+    private boolean enabled;
+
+    @Value("${weather.http.precomputed-body.max-entries:10000}")
+    private long maxEntries;
+
+    @Value("${weather.http.precomputed-body.gzip-min-bytes:1024}")
+    private int gzipMinBytes;
+
+    private Cache<CachedWeather, EncodedBody> bodies;
+
+    @PostConstruct
+    void init() {
+        bodies = Caffeine.newBuilder()
+                .weakKeys()
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, bodies, "weather_response_body");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public EncodedBody encode(CachedWeather entry) {
+        return bodies.get(entry, e -> encode(e.response()));
+    }
+
+    // Uncached, for responses derived per request (e.g. time-window slices).
+    public EncodedBody encode(WeatherResponseDto response) {
+        Integer days = response.getDaily() != null && response.getDaily().length() > 0
+                ? response.getDaily().length()
+                : null;
+        return weatherMetrics.time(WeatherMetrics.SERIALIZE, days, () -> {
+            try {
+                byte[] json = objectMapper.writeValueAsBytes(response);
+                byte[] gzip = json.length >= gzipMinBytes ? gzip(json) : null;
+                return new EncodedBody(json, gzip, etag(json));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    private static byte[] gzip(byte[] json) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(json);
+        }
+        return out.toByteArray();
+    }
+
+    private static String etag(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
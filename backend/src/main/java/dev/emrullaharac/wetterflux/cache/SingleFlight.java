@@ -0,0 +1,86 @@
+package dev.emrullaharac.wetterflux.cache;
+
+import io.micrometer.core.instrument.Counter;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter coalesced;
+
+    public SingleFlight(Counter leaders, Counter coalesced) {
+        this.leaders = leaders;
+        this.coalesced = coalesced;
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+
+        leaders.increment();
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            call.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    // For callers that load many keys with one call: a leading claim must be finished with complete or
+    // fail (also on error paths), a following one is waited for with join.
+    public record Claim<V>(CompletableFuture<V> call, boolean leader) {
+    }
+
+    public Claim<V> claim(K key) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            coalesced.increment();
+            return new Claim<>(existing, false);
+        }
+        leaders.increment();
+        return new Claim<>(call, true);
+    }
+
+    public void complete(K key, Claim<V> claim, V value) {
+        claim.call().complete(value);
+        inFlight.remove(key, claim.call());
+    }
+
+    public void fail(K key, Claim<V> claim, Throwable ex) {
+        claim.call().completeExceptionally(ex);
+        inFlight.remove(key, claim.call());
+    }
+
+    public V join(Claim<V> claim) {
+        return await(claim.call());
+    }
+
+    public boolean isInFlight(K key) {
+        return inFlight.containsKey(key);
+    }
+
+    private V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException re) throw re;
+            if (ex.getCause() instanceof Error err) throw err;
+            throw ex;
+        }
+    }
+}
@@ -1,16 +1,28 @@
 package dev.emrullaharac.wetterflux.cache;
 
+import dev.emrullaharac.wetterflux.model.domain.WeatherQuery;
 import dev.emrullaharac.wetterflux.model.dto.WeatherResponseDto;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Slf4j
@@ -18,94 +30,331 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class WeatherCacheService {
 
-    private final RedisTemplate<String, WeatherResponseDto> weatherRedisTemplate;
+    private final RedisTemplate<String, CachedWeather> weatherRedisTemplate;
+    private final NearCache nearCache;
+    private final DiskCache diskCache;
+    private final AdaptiveTtlPolicy adaptiveTtlPolicy;
     private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
 
-    @Value("${weather.cache.ttl-minutes:15}")
-    private long ttlMinutes;
+    @Value("${weather.cache.soft-ttl-minutes:${weather.cache.ttl-minutes:15}}")
+    private long softTtlMinutes;
+
+    @Value("${weather.cache.hard-ttl-minutes:60}")
+    private long hardTtlMinutes;
+
+    @Value("${weather.cache.stale-while-revalidate.enabled:true}")
+    private boolean staleWhileRevalidate;
+
+    @Value("${weather.cache.stale-if-error-minutes:360}")
+    private long staleIfErrorMinutes;
+
+    @Value("${weather.cache.disk.redis-retry-ms:1000}")
+    private long redisRetryMs;
+
+    @Value("${weather.cache.disk.rehydrate-max-entries:10000}")
+    private int rehydrateMaxEntries;
+
+    // With the disk tier on, Redis is skipped until then after a failed command.
+    private volatile long redisRetryAt;
 
     private Counter cacheHits;
     private Counter cacheMisses;
+    private Counter l1Hits;
+    private Counter l1Misses;
+    private Counter redisHits;
+    private Counter redisMisses;
+    private Counter redisErrors;
+    private Counter diskHits;
+    private Counter diskMisses;
 
     @PostConstruct
     void initMetrics() {
         cacheHits = meterRegistry.counter("weather_cache_hits_total");
         cacheMisses = meterRegistry.counter("weather_cache_misses_total");
+        l1Hits = meterRegistry.counter("weather_cache_l1_hits_total");
+        l1Misses = meterRegistry.counter("weather_cache_l1_misses_total");
+        redisHits = meterRegistry.counter("weather_cache_redis_hits_total");
+        redisMisses = meterRegistry.counter("weather_cache_redis_misses_total");
+        redisErrors = meterRegistry.counter("weather_cache_redis_errors_total");
+        diskHits = meterRegistry.counter("weather_cache_disk_hits_total");
+        diskMisses = meterRegistry.counter("weather_cache_disk_misses_total");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rehydrate() {
+        if (!diskCache.isEnabled() || !nearCache.isEnabled()) return;
+
+        long start = System.nanoTime();
+        int loaded = diskCache.forEachLive(rehydrateMaxEntries, nearCache::put);
+        log.info("cache_rehydrated entries={} tookMs={}", loaded, (System.nanoTime() - start) / 1_000_000);
     }
 
-    private String nullSafe(Object o) {
-        return o == null ? "null" : o.toString();
-    }
-
-    private String buildKey(
-            double latitude,
-            double longitude,
-            String currentVars,
-            String hourlyVars,
-            String dailyVars,
-            Integer forecastDays,
-            String timezone,
-            String temperatureUnit,
-            String windSpeedUnit
-    ) {
-        return "weather:%s:%s:%s:%s:%s:%s:%s:%s:%s".formatted(
-                latitude,
-                longitude,
-                nullSafe(currentVars),
-                nullSafe(hourlyVars),
-                nullSafe(dailyVars),
-                nullSafe(forecastDays),
-                nullSafe(timezone),
-                nullSafe(temperatureUnit),
-                nullSafe(windSpeedUnit)
-        );
-    }
-
-    public Optional<WeatherResponseDto> getFromCache(
-            double latitude,
-            double longitude,
-            String currentVars,
-            String hourlyVars,
-            String dailyVars,
-            Integer forecastDays,
-            String timezone,
-            String temperatureUnit,
-            String windSpeedUnit
-    ) {
-        String key = buildKey(latitude, longitude, currentVars, hourlyVars, dailyVars,
-                forecastDays, timezone, temperatureUnit, windSpeedUnit);
+    public String buildKey(WeatherQuery query) {
+        return new StringBuilder(128)
+                .append("weather:v2:")
+                .append(query.latitude()).append(':')
+                .append(query.longitude()).append(':')
+                .append(query.currentVars()).append(':')
+                .append(query.hourlyVars()).append(':')
+                .append(query.dailyVars()).append(':')
+                .append(query.forecastDays()).append(':')
+                .append(query.timezone()).append(':')
+                .append(query.temperatureUnit()).append(':')
+                .append(query.windSpeedUnit())
+                .toString();
+    }
 
+    public Optional<CachedWeather> getFromCache(String key) {
         log.debug("cache_get keyHash={}", key.hashCode());
 
-        WeatherResponseDto fromRedis = weatherRedisTemplate.opsForValue().get(key);
+        return Observation.createNotStarted("weather_cache_get", observationRegistry).observe(() -> lookup(key));
+    }
+
+    private Optional<CachedWeather> lookup(String key) {
+        if (nearCache.isEnabled()) {
+            Optional<CachedWeather> fromL1 = nearCache.get(key);
+            if (fromL1.isPresent()) {
+                l1Hits.increment();
+                cacheHits.increment();
+                return fromL1;
+            }
+            l1Misses.increment();
+        }
+
+        if (redisAvailable()) {
+            try {
+                CachedWeather fromRedis = weatherRedisTemplate.opsForValue().get(key);
+                if (fromRedis != null && !fromRedis.isExpired(System.currentTimeMillis())) {
+                    redisHits.increment();
+                    cacheHits.increment();
+                    nearCache.put(key, fromRedis);
+                    return Optional.of(fromRedis);
+                }
+                redisMisses.increment();
+            } catch (RuntimeException ex) {
+                redisFailed("get", ex);
+            }
+        }
 
-        if (fromRedis != null) {
-            cacheHits.increment();
-            return Optional.of(fromRedis);
+        Optional<CachedWeather> fromDisk = fromDisk(key);
+        (fromDisk.isPresent() ? cacheHits : cacheMisses).increment();
+        return fromDisk;
+    }
+
+    // Same tiers as getFromCache, but neither observed nor counted as a hit or miss; for reading an
+    // entry on behalf of another key (a nearby cell), whose caller counts the outcome itself.
+    public Optional<CachedWeather> peek(String key) {
+        Optional<CachedWeather> fromL1 = nearCache.get(key);
+        if (fromL1.isPresent()) return fromL1;
+
+        if (redisAvailable()) {
+            try {
+                CachedWeather fromRedis = weatherRedisTemplate.opsForValue().get(key);
+                if (fromRedis != null && !fromRedis.isExpired(System.currentTimeMillis())) {
+                    nearCache.put(key, fromRedis);
+                    return Optional.of(fromRedis);
+                }
+            } catch (RuntimeException ex) {
+                redisFailed("get", ex);
+            }
+        }
+
+        Optional<CachedWeather> fromDisk = diskCache.get(key);
+        fromDisk.ifPresent(entry -> nearCache.put(key, entry));
+        return fromDisk;
+    }
+
+    Optional<CachedWeather> fromDisk(String key) {
+        if (!diskCache.isEnabled()) return Optional.empty();
+
+        Optional<CachedWeather> entry = diskCache.get(key);
+        if (entry.isPresent()) {
+            diskHits.increment();
+            nearCache.put(key, entry.get());
         } else {
-            cacheMisses.increment();
-            return Optional.empty();
+            diskMisses.increment();
+        }
+        return entry;
+    }
+
+    boolean redisAvailable() {
+        return !diskCache.isEnabled() || System.currentTimeMillis() >= redisRetryAt;
+    }
+
+    // Without the disk tier Redis errors propagate as before; with it they turn into disk reads and writes.
+    private void redisFailed(String operation, RuntimeException ex) {
+        if (!diskCache.isEnabled()) throw ex;
+        redisUnavailable(operation, ex);
+    }
+
+    // The reactive path never rethrows: there a Redis error is a miss, and a disk read when the tier is on.
+    void redisUnavailable(String operation, Throwable ex) {
+        redisErrors.increment();
+        if (!diskCache.isEnabled()) {
+            log.warn("cache_redis_failed operation={} message={}", operation, ex.getMessage());
+            return;
+        }
+        redisRetryAt = System.currentTimeMillis() + redisRetryMs;
+        log.warn("cache_redis_unavailable operation={} retryInMs={} message={}", operation, redisRetryMs, ex.getMessage());
+    }
+
+    // L1 first, then one pipelined MGET for whatever is left. Absent keys are simply missing from the result.
+    public Map<String, CachedWeather> getManyFromCache(Collection<String> keys) {
+        Map<String, CachedWeather> found = new HashMap<>(keys.size() * 2);
+        List<String> remaining = new ArrayList<>(keys.size());
+
+        for (String key : keys) {
+            Optional<CachedWeather> fromL1 = nearCache.isEnabled() ? nearCache.get(key) : Optional.empty();
+            if (fromL1.isPresent()) {
+                l1Hits.increment();
+                cacheHits.increment();
+                found.put(key, fromL1.get());
+            } else {
+                if (nearCache.isEnabled()) l1Misses.increment();
+                remaining.add(key);
+            }
+        }
+
+        if (remaining.isEmpty()) {
+            return found;
+        }
+
+        log.debug("cache_mget keys={}", remaining.size());
+        List<CachedWeather> fromRedis = null;
+        if (redisAvailable()) {
+            try {
+                fromRedis = weatherRedisTemplate.opsForValue().multiGet(remaining);
+            } catch (RuntimeException ex) {
+                redisFailed("mget", ex);
+            }
+        }
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < remaining.size(); i++) {
+            CachedWeather entry = fromRedis != null ? fromRedis.get(i) : null;
+            if (entry != null && !entry.isExpired(now)) {
+                redisHits.increment();
+                cacheHits.increment();
+                nearCache.put(remaining.get(i), entry);
+                found.put(remaining.get(i), entry);
+                continue;
+            }
+            if (fromRedis != null) redisMisses.increment();
+            Optional<CachedWeather> fromDisk = fromDisk(remaining.get(i));
+            if (fromDisk.isPresent()) {
+                cacheHits.increment();
+                found.put(remaining.get(i), fromDisk.get());
+            } else {
+                cacheMisses.increment();
+            }
         }
+        return found;
     }
 
-    public void putToCache(
-            double latitude,
-            double longitude,
-            String currentVars,
-            String hourlyVars,
-            String dailyVars,
-            Integer forecastDays,
-            String timezone,
-            String temperatureUnit,
-            String windSpeedUnit,
-            WeatherResponseDto responseDto
-    ) {
-        String key = buildKey(latitude, longitude, currentVars, hourlyVars, dailyVars,
-                forecastDays, timezone, temperatureUnit, windSpeedUnit);
+    public Map<String, CachedWeather> putManyToCache(Map<String, WeatherResponseDto> responses) {
+        if (responses.isEmpty()) return Map.of();
 
+        log.debug("cache_mput keys={}", responses.size());
+
+        Map<String, CachedWeather> entries = new HashMap<>(responses.size() * 2);
+        responses.forEach((key, response) -> entries.put(key, newEntry(response)));
+
+        if (redisAvailable()) {
+            try {
+                weatherRedisTemplate.executePipelined(new SessionCallback<Object>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public <K, V> Object execute(RedisOperations<K, V> operations) {
+                        RedisOperations<String, CachedWeather> ops = (RedisOperations<String, CachedWeather>) operations;
+                        entries.forEach((key, entry) -> ops.opsForValue().set(key, entry, redisTtl(entry)));
+                        return null;
+                    }
+                });
+            } catch (RuntimeException ex) {
+                redisFailed("mset", ex);
+            }
+        }
+        entries.forEach((key, entry) -> {
+            nearCache.put(key, entry);
+            diskCache.put(key, entry, lastKnownGoodUntil(entry));
+        });
+        return entries;
+    }
+
+    public CachedWeather putToCache(String key, WeatherResponseDto responseDto) {
         log.debug("cache_put keyHash={}", key.hashCode());
 
-        weatherRedisTemplate.opsForValue()
-                .set(key, responseDto, Duration.ofMinutes(ttlMinutes));
+        CachedWeather entry = newEntry(responseDto);
+        putEntry(key, entry);
+        return entry;
+    }
+
+    public void putEntry(String key, CachedWeather entry) {
+        Observation.createNotStarted("weather_cache_put", observationRegistry).observe(() -> {
+            if (redisAvailable()) {
+                try {
+                    weatherRedisTemplate.opsForValue().set(key, entry, redisTtl(entry));
+                } catch (RuntimeException ex) {
+                    redisFailed("set", ex);
+                }
+            }
+            nearCache.put(key, entry);
+            diskCache.put(key, entry, lastKnownGoodUntil(entry));
+        });
+    }
+
+    public CachedWeather newEntry(WeatherResponseDto responseDto) {
+        long now = System.currentTimeMillis();
+        long softExpiresAt = adaptiveTtlPolicy.softExpiresAt(responseDto, now);
+        if (softExpiresAt < 0) {
+            softExpiresAt = now + Duration.ofMinutes(softTtlMinutes).toMillis();
+        }
+        long hardExpiresAt = staleWhileRevalidate
+                ? Math.max(now + Duration.ofMinutes(hardTtlMinutes).toMillis(),
+                        softExpiresAt + Duration.ofMinutes(Math.max(0, hardTtlMinutes - softTtlMinutes)).toMillis())
+                : softExpiresAt;
+
+        return new CachedWeather(responseDto, now, softExpiresAt, hardExpiresAt);
+    }
+
+    // Redis keeps entries stale-if-error past their hard expiry as the last known good copy.
+    public Duration redisTtl(CachedWeather entry) {
+        return Duration.ofMillis(Math.max(1, lastKnownGoodUntil(entry) - System.currentTimeMillis()));
+    }
+
+    public long lastKnownGoodUntil(CachedWeather entry) {
+        return entry.hardExpiresAt() + Duration.ofMinutes(staleIfErrorMinutes).toMillis();
+    }
+
+    // Only for when the provider failed; the normal read path drops hard-expired entries.
+    public Optional<CachedWeather> getLastKnownGood(String key) {
+        try {
+            CachedWeather entry = weatherRedisTemplate.opsForValue().get(key);
+            if (entry != null && System.currentTimeMillis() < lastKnownGoodUntil(entry)) return Optional.of(entry);
+        } catch (Exception ex) {
+            log.warn("cache_last_known_good_failed keyHash={} message={}", key.hashCode(), ex.getMessage());
+        }
+        return diskCache.getLastKnownGood(key);
+    }
+
+    public Map<String, CachedWeather> getManyLastKnownGood(Collection<String> keys) {
+        Map<String, CachedWeather> found = new HashMap<>(keys.size() * 2);
+        if (keys.isEmpty()) return found;
+
+        List<String> ordered = new ArrayList<>(keys);
+        try {
+            List<CachedWeather> values = weatherRedisTemplate.opsForValue().multiGet(ordered);
+            long now = System.currentTimeMillis();
+            for (int i = 0; values != null && i < ordered.size(); i++) {
+                CachedWeather entry = values.get(i);
+                if (entry != null && now < lastKnownGoodUntil(entry)) found.put(ordered.get(i), entry);
+            }
+        } catch (Exception ex) {
+            log.warn("cache_last_known_good_failed keys={} message={}", ordered.size(), ex.getMessage());
+        }
+        for (String key : ordered) {
+            if (!found.containsKey(key)) diskCache.getLastKnownGood(key).ifPresent(entry -> found.put(key, entry));
+        }
+        return found;
     }
 }
@@ -0,0 +1,142 @@
+package dev.emrullaharac.wetterflux.client;
+
+import java.util.function.Consumer;
+
+// Count-based breaker over the last windowSize calls. Opens once minimumCalls were seen and either the
+// failure rate or the rate of slow successful calls reaches its threshold, rejects calls for openMillis,
+// then lets halfOpenCalls probes through: all of them succeeding in time closes it, anything else reopens it.
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    public static class OpenException extends RuntimeException {
+
+        public OpenException(String name) {
+            super("Circuit breaker '" + name + "' is open");
+        }
+    }
+
+    private static final byte SUCCESS = 0;
+    private static final byte FAILURE = 1;
+    private static final byte SLOW = 2;
+
+    private final String name;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final long openMillis;
+    private final int halfOpenCalls;
+    private final Consumer<State> onTransition;
+
+    private final byte[] window;
+    private int position;
+    private int recorded;
+    private int failures;
+    private int slowCalls;
+
+    private State state = State.CLOSED;
+    private long openUntil;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+                          double slowCallRateThreshold, long slowCallNanos, long openMillis, int halfOpenCalls,
+                          Consumer<State> onTransition) {
+        this.name = name;
+        this.window = new byte[Math.max(1, windowSize)];
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, window.length));
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallNanos = slowCallNanos;
+        this.openMillis = openMillis;
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+        this.onTransition = onTransition;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    public synchronized boolean tryAcquire(long nowMillis) {
+        if (state == State.OPEN) {
+            if (nowMillis < openUntil) return false;
+            probesStarted = 0;
+            probesSucceeded = 0;
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesStarted >= halfOpenCalls) return false;
+            probesStarted++;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess(long durationNanos, long nowMillis) {
+        record(durationNanos >= slowCallNanos ? SLOW : SUCCESS, nowMillis);
+    }
+
+    public synchronized void onFailure(long nowMillis) {
+        record(FAILURE, nowMillis);
+    }
+
+    // A permitted call that ended without an outcome (cancelled), so a half-open probe slot is given back.
+    public synchronized void release() {
+        if (state == State.HALF_OPEN && probesStarted > probesSucceeded) {
+            probesStarted--;
+        }
+    }
+
+    private void record(byte outcome, long nowMillis) {
+        switch (state) {
+            case OPEN -> { }
+            case HALF_OPEN -> {
+                if (outcome != SUCCESS) {
+                    open(nowMillis);
+                } else if (++probesSucceeded >= halfOpenCalls) {
+                    reset();
+                    transition(State.CLOSED);
+                }
+            }
+            case CLOSED -> {
+                if (recorded == window.length) {
+                    if (window[position] == FAILURE) failures--;
+                    else if (window[position] == SLOW) slowCalls--;
+                } else {
+                    recorded++;
+                }
+                window[position] = outcome;
+                position = (position + 1) % window.length;
+                if (outcome == FAILURE) failures++;
+                else if (outcome == SLOW) slowCalls++;
+
+                if (recorded >= minimumCalls
+                        && (failures >= failureRateThreshold * recorded || slowCalls >= slowCallRateThreshold * recorded)) {
+                    open(nowMillis);
+                }
+            }
+        }
+    }
+
+    private void open(long nowMillis) {
+        openUntil = nowMillis + openMillis;
+        reset();
+        transition(State.OPEN);
+    }
+
+    private void reset() {
+        position = 0;
+        recorded = 0;
+        failures = 0;
+        slowCalls = 0;
+    }
+
+    private void transition(State next) {
+        state = next;
+        if (onTransition != null) onTransition.accept(next);
+    }
+}
@@ -0,0 +1,14 @@
+package dev.emrullaharac.wetterflux.client;
+
+import dev.emrullaharac.wetterflux.model.dto.WeatherResponseDto;
+
+import java.io.IOException;
+import java.util.List;
+
+public interface ForecastDecoder {
+
+    WeatherResponseDto decode(byte[] body) throws IOException;
+
+    // Multi-coordinate responses are a JSON array; a single object decodes to a one-element list.
+    List<WeatherResponseDto> decodeAll(byte[] body) throws IOException;
+}
@@ -1,34 +1,75 @@
 package dev.emrullaharac.wetterflux.client;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import dev.emrullaharac.wetterflux.metrics.WeatherMetrics;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class OpenMeteoClient {
 
-    private final WebClient.Builder webClientBuilder;
+    private final WebClient openMeteoWebClient;
+    private final OpenMeteoResilience openMeteoResilience;
+    private final OpenMeteoRateLimiter openMeteoRateLimiter;
     private final MeterRegistry meterRegistry;
+    private final WeatherMetrics weatherMetrics;
+    private final ObservationRegistry observationRegistry;
+
+    @Value("${weather.openmeteo.base-url:https://api.open-meteo.com/v1/forecast}")
+    private String baseUrl;
+
+    @Value("${weather.openmeteo.timeout-ms:8000}")
+    private long timeoutMs;
 
     private Counter openMeteoCallsTotal;
+    private DistributionSummary responseBytes;
 
     @PostConstruct
     void initMetrics() {
         openMeteoCallsTotal = meterRegistry.counter("openmeteo_calls_total");
+        responseBytes = weatherMetrics.payloadSize("upstream", "read");
+    }
+
+    public byte[] fetchForecast(
+            RequestPriority priority,
+            double lat,
+            double lon,
+            String currentVars,
+            String hourlyVars,
+            String dailyVars,
+            Integer forecastDays,
+            String timezone,
+            String temperatureUnit,
+            String windSpeedUnit
+    ) {
+        return Observation.createNotStarted("openmeteo_fetch", observationRegistry)
+                .lowCardinalityKeyValue("priority", priority.name().toLowerCase(Locale.ROOT))
+                .lowCardinalityKeyValue("forecast_days", WeatherMetrics.daysBucket(forecastDays))
+                .observe(() -> fetchForecastAsync(priority, lat, lon, currentVars, hourlyVars, dailyVars,
+                        forecastDays, timezone, temperatureUnit, windSpeedUnit)
+                        .block());
     }
 
-    public JsonNode fetchForecast(
+    public Mono<byte[]> fetchForecastAsync(
+            RequestPriority priority,
             double lat,
             double lon,
             String currentVars,
@@ -39,10 +80,58 @@ public class OpenMeteoClient {
             String temperatureUnit,
             String windSpeedUnit
     ) {
-        String url = UriComponentsBuilder
-                .fromUriString("https://api.open-meteo.com/v1/forecast")
-                .queryParam("latitude", lat)
-                .queryParam("longitude", lon)
+        String url = buildUrl(String.valueOf(lat), String.valueOf(lon), currentVars, hourlyVars, dailyVars,
+                forecastDays, timezone, temperatureUnit, windSpeedUnit);
+
+        return fetch(url, priority, 1);
+    }
+
+    // Open-Meteo accepts comma-separated coordinate lists and answers with a JSON array in that order.
+    public Mono<byte[]> fetchForecastBatchAsync(
+            RequestPriority priority,
+            double[] lats,
+            double[] lons,
+            String currentVars,
+            String hourlyVars,
+            String dailyVars,
+            Integer forecastDays,
+            String timezone,
+            String temperatureUnit,
+            String windSpeedUnit
+    ) {
+        StringBuilder latitudes = new StringBuilder(lats.length * 8);
+        StringBuilder longitudes = new StringBuilder(lons.length * 8);
+        for (int i = 0; i < lats.length; i++) {
+            if (i > 0) {
+                latitudes.append(',');
+                longitudes.append(',');
+            }
+            latitudes.append(lats[i]);
+            longitudes.append(lons[i]);
+        }
+
+        String url = buildUrl(latitudes.toString(), longitudes.toString(), currentVars, hourlyVars, dailyVars,
+                forecastDays, timezone, temperatureUnit, windSpeedUnit);
+
+        // The provider counts every location of a multi-coordinate call against the quota.
+        return fetch(url, priority, lats.length);
+    }
+
+    private String buildUrl(
+            String latitudes,
+            String longitudes,
+            String currentVars,
+            String hourlyVars,
+            String dailyVars,
+            Integer forecastDays,
+            String timezone,
+            String temperatureUnit,
+            String windSpeedUnit
+    ) {
+        return UriComponentsBuilder
+                .fromUriString(baseUrl)
+                .queryParam("latitude", latitudes)
+                .queryParam("longitude", longitudes)
                 .queryParamIfPresent("current", opt(currentVars))
                 .queryParamIfPresent("hourly", opt(hourlyVars))
                 .queryParamIfPresent("daily", opt(dailyVars))
@@ -51,28 +140,45 @@ public class OpenMeteoClient {
                 .queryParamIfPresent("temperature_unit", opt(temperatureUnit))
                 .queryParamIfPresent("wind_speed_unit", opt(windSpeedUnit))
                 .build().toUriString();
+    }
 
-        log.debug("openmeteo_request uri={}", url);
-        openMeteoCallsTotal.increment();
-
-        WebClient client = webClientBuilder.build();
-
-        try {
-            return client.get()
-                    .uri(url)
-                    .retrieve()
-                    .onStatus(HttpStatusCode::is4xxClientError, resp ->
-                            resp.createException().map(ex ->
-                                    new RuntimeException("Open-Meteo 4xx: " + ex.getResponseBodyAsString(), ex)))
-                    .onStatus(HttpStatusCode::is5xxServerError, resp ->
-                            resp.createException().map(ex ->
-                                    new RuntimeException("Open-Meteo 5xx: " + ex.getResponseBodyAsString(), ex)))
-                    .bodyToMono(JsonNode.class)
-                    .block();
-        } catch (RuntimeException ex) {
-            log.error("openmeteo_error uri={} message={}", url, ex.getMessage(), ex);
-            throw ex;
-        }
+    // The wait for a token is not part of the call's latency; hedges and retries only run on spare tokens.
+    private Mono<byte[]> fetch(String url, RequestPriority priority, int permits) {
+        return Mono.defer(() -> {
+                    AtomicBoolean primary = new AtomicBoolean(true);
+                    return openMeteoRateLimiter.acquire(priority, permits)
+                            .then(openMeteoResilience.execute(() -> primary.getAndSet(false)
+                                    ? attempt(url)
+                                    : openMeteoRateLimiter.acquireNow(priority, permits).then(attempt(url))));
+                })
+                .doOnNext(body -> responseBytes.record(body.length))
+                .doOnError(ex -> {
+                    if (ex instanceof CircuitBreaker.OpenException || ex instanceof RateLimitedException) {
+                        log.debug("openmeteo_rejected uri={} message={}", url, ex.getMessage());
+                    } else {
+                        log.error("openmeteo_error uri={} message={}", url, ex.getMessage(), ex);
+                    }
+                });
+    }
+
+    private Mono<byte[]> attempt(String url) {
+        return Mono.defer(() -> {
+                    log.debug("openmeteo_request uri={}", url);
+                    openMeteoCallsTotal.increment();
+
+                    return openMeteoWebClient.get()
+                            .uri(url)
+                            .retrieve()
+                            .onStatus(HttpStatusCode::is4xxClientError, resp ->
+                                    resp.createException().map(ex -> new OpenMeteoException(ex.getStatusCode().value(),
+                                            "Open-Meteo 4xx: " + ex.getResponseBodyAsString(), ex)))
+                            .onStatus(HttpStatusCode::is5xxServerError, resp ->
+                                    resp.createException().map(ex -> new OpenMeteoException(ex.getStatusCode().value(),
+                                            "Open-Meteo 5xx: " + ex.getResponseBodyAsString(), ex)))
+                            .bodyToMono(byte[].class)
+                            .timeout(Duration.ofMillis(timeoutMs));
+                })
+                .doOnError(ex -> log.debug("openmeteo_attempt_failed uri={} message={}", url, ex.getMessage()));
     }
 
     private static <T> Optional<T> opt(T v) {
@@ -0,0 +1,24 @@
+package dev.emrullaharac.wetterflux.client;
+
+import lombok.Getter;
+
+// Non-2xx answer from Open-Meteo. 5xx is worth retrying; 4xx (our request) is not, and only 429
+// says anything about the provider's health.
+@Getter
+public class OpenMeteoException extends RuntimeException {
+
+    private final int statusCode;
+
+    public OpenMeteoException(int statusCode, String message, Throwable cause) {
+        super(message, cause);
+        this.statusCode = statusCode;
+    }
+
+    public boolean isRetryable() {
+        return statusCode >= 500;
+    }
+
+    public boolean isProviderFault() {
+        return statusCode >= 500 || statusCode == 429;
+    }
+}
@@ -0,0 +1,200 @@
+package dev.emrullaharac.wetterflux.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Budget for Open-Meteo calls: a per-node token bucket, then a cluster-wide bucket plus daily quota kept
+// in Redis and updated atomically by a Lua script. Refresh and warm calls only spend tokens while a
+// reserve is left for user calls. Users wait up to max-wait-ms for a token; everything else is shed
+// at once. If Redis is unavailable the node falls back to its local bucket.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OpenMeteoRateLimiter {
+
+    private static final String BUCKET_KEY = "weather:ratelimit:v1:openmeteo:bucket";
+    private static final String DAY_KEY_PREFIX = "weather:ratelimit:v1:openmeteo:day:";
+
+    // Returns 0 when taken, the millis until the tokens could be available, or -1 when the daily quota
+    // (minus the caller's reserve) is used up. Relies on effect replication for TIME (Redis 5+).
+    private static final RedisScript<Long> ACQUIRE = new DefaultRedisScript<>("""
+            local capacity = tonumber(ARGV[1])
+            local rate = tonumber(ARGV[2])
+            local permits = tonumber(ARGV[3])
+            local reserve = tonumber(ARGV[4])
+            local dailyLimit = tonumber(ARGV[5])
+            local dayTtl = tonumber(ARGV[6])
+            if dailyLimit > 0 then
+              local used = tonumber(redis.call('GET', KEYS[2]) or '0')
+              if used + permits > dailyLimit * (1 - reserve) then return -1 end
+            end
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+            local tokens = tonumber(state[1]) or capacity
+            local ts = tonumber(state[2]) or now
+            tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate)
+            local required = math.min(capacity, permits + capacity * reserve)
+            if tokens < required then
+              return math.ceil((required - tokens) / rate)
+            end
+            redis.call('HSET', KEYS[1], 'tokens', tostring(tokens - permits), 'ts', tostring(now))
+            redis.call('PEXPIRE', KEYS[1], math.ceil(capacity / rate) + 60000)
+            if dailyLimit > 0 then
+              redis.call('INCRBY', KEYS[2], permits)
+              redis.call('EXPIRE', KEYS[2], dayTtl)
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${weather.openmeteo.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${weather.openmeteo.rate-limit.max-wait-ms:1000}")
+    private long maxWaitMs;
+
+    @Value("${weather.openmeteo.rate-limit.refresh-reserve:0.2}")
+    private double refreshReserve;
+
+    @Value("${weather.openmeteo.rate-limit.warm-reserve:0.5}")
+    private double warmReserve;
+
+    @Value("${weather.openmeteo.rate-limit.local.per-minute:300}")
+    private double localPerMinute;
+
+    @Value("${weather.openmeteo.rate-limit.local.burst:60}")
+    private double localBurst;
+
+    @Value("${weather.openmeteo.rate-limit.cluster.enabled:true}")
+    private boolean clusterEnabled;
+
+    @Value("${weather.openmeteo.rate-limit.cluster.per-minute:500}")
+    private double clusterPerMinute;
+
+    @Value("${weather.openmeteo.rate-limit.cluster.burst:100}")
+    private double clusterBurst;
+
+    @Value("${weather.openmeteo.rate-limit.cluster.daily-limit:9000}")
+    private long dailyLimit;
+
+    private TokenBucket localBucket;
+    private final Map<RequestPriority, Counter> acquired = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, Counter> shed = new EnumMap<>(RequestPriority.class);
+    private Counter redisErrors;
+    private Timer waitDuration;
+
+    @PostConstruct
+    void init() {
+        localBucket = new TokenBucket(localBurst, localPerMinute / 60d, System.nanoTime());
+        for (RequestPriority priority : RequestPriority.values()) {
+            String tag = priority.name().toLowerCase(Locale.ROOT);
+            acquired.put(priority, meterRegistry.counter("openmeteo_ratelimit_acquired_total", "priority", tag));
+            shed.put(priority, meterRegistry.counter("openmeteo_ratelimit_shed_total", "priority", tag));
+        }
+        redisErrors = meterRegistry.counter("openmeteo_ratelimit_redis_errors_total");
+        waitDuration = meterRegistry.timer("openmeteo_ratelimit_wait");
+        meterRegistry.gauge("openmeteo_ratelimit_local_tokens", localBucket, b -> b.available(System.nanoTime()));
+    }
+
+    // Waits (user calls only) until the permits are granted or fails with RateLimitedException.
+    public Mono<Void> acquire(RequestPriority priority, int permits) {
+        if (!enabled) return Mono.empty();
+        return Mono.defer(() -> {
+            long startNanos = System.nanoTime();
+            long deadline = startNanos + (priority == RequestPriority.USER ? TimeUnit.MILLISECONDS.toNanos(maxWaitMs) : 0);
+            return acquire(priority, permits, startNanos, deadline);
+        });
+    }
+
+    // For hedges and retries: spare tokens only, never waits.
+    public Mono<Void> acquireNow(RequestPriority priority, int permits) {
+        if (!enabled) return Mono.empty();
+        return Mono.defer(() -> {
+            long now = System.nanoTime();
+            return acquire(priority, permits, now, now);
+        });
+    }
+
+    private Mono<Void> acquire(RequestPriority priority, int permits, long startNanos, long deadline) {
+        return Mono.fromCallable(() -> take(priority, permits))
+                .subscribeOn(Schedulers.boundedElastic())
+                .<Void>flatMap(waitNanos -> {
+                    long now = System.nanoTime();
+                    if (waitNanos == 0) {
+                        acquired.get(priority).increment();
+                        if (now > startNanos) waitDuration.record(now - startNanos, TimeUnit.NANOSECONDS);
+                        return Mono.empty();
+                    }
+                    if (waitNanos < 0 || now + waitNanos > deadline) {
+                        shed.get(priority).increment();
+                        return Mono.error(new RateLimitedException(priority, waitNanos < 0
+                                ? "Open-Meteo daily budget exhausted for " + priority
+                                : "Open-Meteo rate budget exhausted for " + priority));
+                    }
+                    return Mono.delay(Duration.ofNanos(waitNanos))
+                            .then(Mono.defer(() -> acquire(priority, permits, startNanos, deadline)));
+                });
+    }
+
+    // 0 when granted, the nanos to wait before trying again, or -1 when nothing is left for today.
+    private long take(RequestPriority priority, int permits) {
+        double reserve = reserve(priority);
+        long localWait = localBucket.tryTake(permits, localBucket.capacity() * reserve, System.nanoTime());
+        if (localWait != 0 || !clusterEnabled) return localWait;
+
+        long clusterWaitMs;
+        try {
+            Long result = stringRedisTemplate.execute(ACQUIRE, List.of(BUCKET_KEY, dayKey()),
+                    Double.toString(clusterBurst),
+                    Double.toString(clusterPerMinute / 60_000d),
+                    Integer.toString(permits),
+                    Double.toString(reserve),
+                    Long.toString(dailyLimit),
+                    Long.toString(TimeUnit.DAYS.toSeconds(2)));
+            clusterWaitMs = result != null ? result : 0;
+        } catch (Exception ex) {
+            redisErrors.increment();
+            log.warn("openmeteo_ratelimit_redis_failed message={}", ex.getMessage());
+            return 0;
+        }
+        if (clusterWaitMs == 0) return 0;
+
+        localBucket.refund(permits);
+        return clusterWaitMs < 0 ? -1 : TimeUnit.MILLISECONDS.toNanos(clusterWaitMs);
+    }
+
+    private double reserve(RequestPriority priority) {
+        return switch (priority) {
+            case USER -> 0;
+            case REFRESH -> refreshReserve;
+            case WARM -> warmReserve;
+        };
+    }
+
+    private static String dayKey() {
+        return DAY_KEY_PREFIX + LocalDate.now(ZoneOffset.UTC);
+    }
+}
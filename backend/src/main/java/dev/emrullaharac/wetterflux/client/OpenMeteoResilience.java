@@ -0,0 +1,248 @@
+package dev.emrullaharac.wetterflux.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Wraps every Open-Meteo call: each attempt passes the circuit breaker, a second (hedged) attempt is
+// started when the first is slower than the recent p95, and failed attempts are retried with jittered
+// backoff inside an overall deadline. An open breaker fails fast and is never retried.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OpenMeteoResilience {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${weather.openmeteo.resilience.enabled:true}")
+    private boolean enabled;
+
+    @Value("${weather.openmeteo.resilience.deadline-ms:15000}")
+    private long deadlineMs;
+
+    @Value("${weather.openmeteo.resilience.breaker.window-size:50}")
+    private int windowSize;
+
+    @Value("${weather.openmeteo.resilience.breaker.minimum-calls:20}")
+    private int minimumCalls;
+
+    @Value("${weather.openmeteo.resilience.breaker.failure-rate-threshold:0.5}")
+    private double failureRateThreshold;
+
+    @Value("${weather.openmeteo.resilience.breaker.slow-call-rate-threshold:0.8}")
+    private double slowCallRateThreshold;
+
+    @Value("${weather.openmeteo.resilience.breaker.slow-call-ms:3000}")
+    private long slowCallMs;
+
+    @Value("${weather.openmeteo.resilience.breaker.open-seconds:30}")
+    private long openSeconds;
+
+    @Value("${weather.openmeteo.resilience.breaker.half-open-calls:3}")
+    private int halfOpenCalls;
+
+    @Value("${weather.openmeteo.resilience.retry.max-retries:2}")
+    private int maxRetries;
+
+    @Value("${weather.openmeteo.resilience.retry.backoff-ms:200}")
+    private long backoffMs;
+
+    @Value("${weather.openmeteo.resilience.retry.max-backoff-ms:2000}")
+    private long maxBackoffMs;
+
+    @Value("${weather.openmeteo.resilience.retry.jitter:0.5}")
+    private double jitter;
+
+    @Value("${weather.openmeteo.resilience.hedge.enabled:true}")
+    private boolean hedgeEnabled;
+
+    @Value("${weather.openmeteo.resilience.hedge.percentile:0.95}")
+    private double hedgePercentile;
+
+    @Value("${weather.openmeteo.resilience.hedge.min-delay-ms:100}")
+    private long hedgeMinDelayMs;
+
+    @Value("${weather.openmeteo.resilience.hedge.default-delay-ms:1000}")
+    private long hedgeDefaultDelayMs;
+
+    @Value("${weather.openmeteo.resilience.hedge.max-in-flight:10}")
+    private int hedgeMaxInFlight;
+
+    private final LatencyWindow latencies = new LatencyWindow(256);
+    private final AtomicInteger hedgesInFlight = new AtomicInteger();
+
+    private CircuitBreaker breaker;
+    private Counter rejected;
+    private Counter retries;
+    private Counter hedges;
+    private Counter hedgeWins;
+
+    @PostConstruct
+    void init() {
+        breaker = new CircuitBreaker("openmeteo", windowSize, minimumCalls, failureRateThreshold,
+                slowCallRateThreshold, TimeUnit.MILLISECONDS.toNanos(slowCallMs),
+                TimeUnit.SECONDS.toMillis(openSeconds), halfOpenCalls,
+                state -> {
+                    log.warn("openmeteo_circuit_transition state={}", state);
+                    meterRegistry.counter("openmeteo_circuit_transitions_total", "state", state.name()).increment();
+                });
+        rejected = meterRegistry.counter("openmeteo_circuit_rejected_total");
+        retries = meterRegistry.counter("openmeteo_retries_total");
+        hedges = meterRegistry.counter("openmeteo_hedges_total");
+        hedgeWins = meterRegistry.counter("openmeteo_hedge_wins_total");
+        meterRegistry.gauge("openmeteo_circuit_state", breaker, b -> b.state().ordinal());
+    }
+
+    public CircuitBreaker.State circuitState() {
+        return breaker.state();
+    }
+
+    public Mono<byte[]> execute(Supplier<Mono<byte[]>> call) {
+        if (!enabled) return call.get();
+
+        return hedged(call)
+                .retryWhen(Retry.backoff(maxRetries, Duration.ofMillis(backoffMs))
+                        .maxBackoff(Duration.ofMillis(maxBackoffMs))
+                        .jitter(jitter)
+                        .filter(OpenMeteoResilience::isRetryable)
+                        .doBeforeRetry(signal -> {
+                            retries.increment();
+                            log.warn("openmeteo_retry attempt={} message={}",
+                                    signal.totalRetries() + 1, signal.failure().getMessage());
+                        })
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                .timeout(Duration.ofMillis(deadlineMs));
+    }
+
+    // Emits the first successful attempt. The hedge only starts while the primary is still running,
+    // the breaker is closed and fewer than max-in-flight hedges are outstanding; the loser is cancelled.
+    private Mono<byte[]> hedged(Supplier<Mono<byte[]>> call) {
+        if (!hedgeEnabled) return guarded(call);
+
+        return Mono.create(sink -> {
+            AtomicBoolean done = new AtomicBoolean();
+            AtomicInteger pending = new AtomicInteger(1);
+            Disposable.Composite attempts = Disposables.composite();
+            sink.onDispose(attempts);
+
+            attempts.add(subscribeAttempt(call, false, done, pending, sink));
+            attempts.add(Schedulers.parallel().schedule(() -> {
+                if (done.get() || breaker.state() != CircuitBreaker.State.CLOSED) return;
+                if (hedgesInFlight.incrementAndGet() > hedgeMaxInFlight) {
+                    hedgesInFlight.decrementAndGet();
+                    return;
+                }
+                pending.incrementAndGet();
+                hedges.increment();
+                attempts.add(subscribeAttempt(call, true, done, pending, sink));
+            }, hedgeDelayMillis(), TimeUnit.MILLISECONDS));
+        });
+    }
+
+    private Disposable subscribeAttempt(Supplier<Mono<byte[]>> call, boolean hedge, AtomicBoolean done,
+                                        AtomicInteger pending, MonoSink<byte[]> sink) {
+        Mono<byte[]> attempt = guarded(call);
+        if (hedge) attempt = attempt.doFinally(signal -> hedgesInFlight.decrementAndGet());
+        return attempt.subscribe(
+                body -> {
+                    if (done.compareAndSet(false, true)) {
+                        if (hedge) hedgeWins.increment();
+                        sink.success(body);
+                    }
+                },
+                ex -> {
+                    if (pending.decrementAndGet() == 0 && done.compareAndSet(false, true)) sink.error(ex);
+                },
+                () -> {
+                    if (pending.decrementAndGet() == 0 && done.compareAndSet(false, true)) sink.success();
+                });
+    }
+
+    private Mono<byte[]> guarded(Supplier<Mono<byte[]>> call) {
+        return Mono.defer(() -> {
+            if (!breaker.tryAcquire(System.currentTimeMillis())) {
+                rejected.increment();
+                return Mono.error(new CircuitBreaker.OpenException(breaker.getName()));
+            }
+            long start = System.nanoTime();
+            return call.get()
+                    .doOnSuccess(body -> {
+                        long elapsed = System.nanoTime() - start;
+                        latencies.record(elapsed);
+                        breaker.onSuccess(elapsed, System.currentTimeMillis());
+                    })
+                    .doOnError(ex -> {
+                        if (ex instanceof RateLimitedException) {
+                            breaker.release();
+                        } else if (isProviderFault(ex)) {
+                            breaker.onFailure(System.currentTimeMillis());
+                        } else {
+                            breaker.onSuccess(System.nanoTime() - start, System.currentTimeMillis());
+                        }
+                    })
+                    .doOnCancel(breaker::release);
+        });
+    }
+
+    private long hedgeDelayMillis() {
+        long p = latencies.percentileNanos(hedgePercentile, 20);
+        long delay = p < 0 ? hedgeDefaultDelayMs : TimeUnit.NANOSECONDS.toMillis(p);
+        return Math.max(hedgeMinDelayMs, delay);
+    }
+
+    static boolean isRetryable(Throwable ex) {
+        if (ex instanceof OpenMeteoException omex) return omex.isRetryable();
+        return ex instanceof TimeoutException || ex instanceof WebClientRequestException;
+    }
+
+    static boolean isProviderFault(Throwable ex) {
+        if (ex instanceof OpenMeteoException omex) return omex.isProviderFault();
+        return !(ex instanceof CircuitBreaker.OpenException || ex instanceof RateLimitedException);
+    }
+
+    // Recent successful call latencies for the hedge delay.
+    private static final class LatencyWindow {
+
+        private final long[] samples;
+        private int position;
+        private int size;
+
+        LatencyWindow(int capacity) {
+            this.samples = new long[capacity];
+        }
+
+        synchronized void record(long nanos) {
+            samples[position] = nanos;
+            position = (position + 1) % samples.length;
+            if (size < samples.length) size++;
+        }
+
+        // -1 until minSamples were recorded.
+        synchronized long percentileNanos(double percentile, int minSamples) {
+            if (size < minSamples) return -1;
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * size) - 1;
+            return sorted[Math.max(0, Math.min(size - 1, index))];
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package dev.emrullaharac.wetterflux.client;
+
+import lombok.Getter;
+
+@Getter
+public class RateLimitedException extends RuntimeException {
+
+    private final RequestPriority priority;
+
+    public RateLimitedException(RequestPriority priority, String message) {
+        super(message);
+        this.priority = priority;
+    }
+}
@@ -0,0 +1,9 @@
+package dev.emrullaharac.wetterflux.client;
+
+// Who an upstream call is for. Lower classes may only spend the rate budget while a reserve is left
+// for the classes above them.
+public enum RequestPriority {
+    USER,
+    REFRESH,
+    WARM
+}
@@ -0,0 +1,175 @@
+package dev.emrullaharac.wetterflux.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.emrullaharac.wetterflux.model.domain.WeatherData;
+import dev.emrullaharac.wetterflux.model.dto.WeatherResponseDto;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Token-level decoder: fills WeatherResponseDto / WeatherData directly, no JsonNode tree in between.
+@Component
+@ConditionalOnProperty(name = "weather.openmeteo.decoder", havingValue = "streaming", matchIfMissing = true)
+public class StreamingForecastDecoder implements ForecastDecoder {
+
+    private static final int INITIAL_SERIES_CAPACITY = 192;
+
+    private final JsonFactory jsonFactory;
+
+    public StreamingForecastDecoder(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    @Override
+    public WeatherResponseDto decode(byte[] body) throws IOException {
+        try (JsonParser p = jsonFactory.createParser(body)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Forecast payload is not a JSON object");
+            }
+            return readForecast(p);
+        }
+    }
+
+    @Override
+    public List<WeatherResponseDto> decodeAll(byte[] body) throws IOException {
+        try (JsonParser p = jsonFactory.createParser(body)) {
+            JsonToken token = p.nextToken();
+            if (token == JsonToken.START_OBJECT) {
+                return List.of(readForecast(p));
+            }
+            if (token != JsonToken.START_ARRAY) {
+                throw new IOException("Forecast payload is neither an object nor an array");
+            }
+            List<WeatherResponseDto> forecasts = new ArrayList<>();
+            while ((token = p.nextToken()) == JsonToken.START_OBJECT) {
+                forecasts.add(readForecast(p));
+            }
+            if (token != JsonToken.END_ARRAY) {
+                throw new IOException("Unexpected token in forecast array: " + token);
+            }
+            return forecasts;
+        }
+    }
+
+    // Expects the parser on the forecast's START_OBJECT, leaves it on the matching END_OBJECT.
+    WeatherResponseDto readForecast(JsonParser p) throws IOException {
+        WeatherResponseDto dto = new WeatherResponseDto();
+        WeatherData.Builder hourly = WeatherData.builder();
+        WeatherData.Builder daily = WeatherData.builder();
+
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken token = p.nextToken();
+            switch (field) {
+                case "latitude" -> dto.setLatitude(token.isNumeric() ? p.getDoubleValue() : 0);
+                case "longitude" -> dto.setLongitude(token.isNumeric() ? p.getDoubleValue() : 0);
+                case "timezone" -> dto.setTimezone(text(p, token));
+                case "timezone_abbreviation" -> dto.setTimezoneAbbreviation(text(p, token));
+                case "utc_offset_seconds" -> dto.setUtcOffsetSeconds(token.isNumeric() ? p.getIntValue() : null);
+                case "current" -> readCurrent(p, token, dto);
+                case "hourly_units" -> readUnits(p, token, hourly);
+                case "hourly" -> readSeries(p, token, hourly);
+                case "daily_units" -> readUnits(p, token, daily);
+                case "daily" -> readSeries(p, token, daily);
+                default -> p.skipChildren();
+            }
+        }
+
+        dto.setHourly(hourly.build());
+        dto.setDaily(daily.build());
+        return dto;
+    }
+
+    private void readCurrent(JsonParser p, JsonToken token, WeatherResponseDto dto) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            p.skipChildren();
+            return;
+        }
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            switch (field) {
+                case "time" -> dto.setCurrentTimeIso(text(p, value));
+                case "interval" -> dto.setCurrentIntervalSeconds(value.isNumeric() ? p.getIntValue() : null);
+                case "temperature_2m" -> dto.setCurrentTemperature2m(value.isNumeric() ? p.getDoubleValue() : null);
+                case "wind_speed_10m" -> dto.setCurrentWindSpeed10m(value.isNumeric() ? p.getDoubleValue() : null);
+                case "weather_code" -> dto.setCurrentWeatherCode(
+                        value == JsonToken.VALUE_NUMBER_INT && p.getNumberType() == JsonParser.NumberType.INT
+                                ? p.getIntValue() : null);
+                default -> p.skipChildren();
+            }
+        }
+    }
+
+    private void readUnits(JsonParser p, JsonToken token, WeatherData.Builder series) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            p.skipChildren();
+            return;
+        }
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String name = p.currentName();
+            JsonToken value = p.nextToken();
+            if (value.isScalarValue()) {
+                series.unit(name, value == JsonToken.VALUE_NULL ? "null" : p.getText());
+            } else {
+                series.unit(name, "");
+                p.skipChildren();
+            }
+        }
+    }
+
+    private void readSeries(JsonParser p, JsonToken token, WeatherData.Builder series) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            p.skipChildren();
+            return;
+        }
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String name = p.currentName();
+            JsonToken value = p.nextToken();
+            if (value != JsonToken.START_ARRAY) {
+                p.skipChildren();
+            } else if ("time".equals(name)) {
+                while (p.nextToken() != JsonToken.END_ARRAY) {
+                    series.time(CharBuffer.wrap(p.getTextCharacters(), p.getTextOffset(), p.getTextLength()));
+                }
+            } else {
+                series.column(name, readValues(p, series.timeCount()));
+            }
+        }
+    }
+
+    private double[] readValues(JsonParser p, int expectedLength) throws IOException {
+        double[] values = new double[expectedLength > 0 ? expectedLength : INITIAL_SERIES_CAPACITY];
+        int n = 0;
+        JsonToken token;
+        while ((token = p.nextToken()) != JsonToken.END_ARRAY) {
+            if (n == values.length) {
+                values = Arrays.copyOf(values, n * 2);
+            }
+            if (token.isNumeric()) {
+                values[n++] = p.getDoubleValue();
+            } else {
+                values[n++] = Double.NaN;
+                p.skipChildren();
+            }
+        }
+        return n == values.length ? values : Arrays.copyOf(values, n);
+    }
+
+    private static String text(JsonParser p, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) return null;
+        if (!token.isScalarValue()) {
+            p.skipChildren();
+            return null;
+        }
+        return p.getText();
+    }
+}
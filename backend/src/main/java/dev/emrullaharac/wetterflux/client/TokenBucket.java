@@ -0,0 +1,51 @@
+package dev.emrullaharac.wetterflux.client;
+
+// Plain token bucket. A take succeeds once the bucket holds permits + reserve tokens (capped at the
+// capacity, so a call costing more than the bucket can still go through a full bucket and leave it in
+// debt); the reserve is how lower priority classes leave headroom for user requests.
+public class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long refilledAt;
+
+    public TokenBucket(double capacity, double tokensPerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.refilledAt = nowNanos;
+    }
+
+    public double capacity() {
+        return capacity;
+    }
+
+    // 0 when the permits were taken, otherwise the nanos until they could be.
+    public synchronized long tryTake(int permits, double reserve, long nowNanos) {
+        refill(nowNanos);
+        double required = Math.min(capacity, permits + reserve);
+        if (tokens >= required) {
+            tokens -= permits;
+            return 0;
+        }
+        return Math.max(1, (long) Math.ceil((required - tokens) / tokensPerNano));
+    }
+
+    public synchronized void refund(int permits) {
+        tokens = Math.min(capacity, tokens + permits);
+    }
+
+    public synchronized double available(long nowNanos) {
+        refill(nowNanos);
+        return tokens;
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - refilledAt;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+            refilledAt = nowNanos;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package dev.emrullaharac.wetterflux.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.emrullaharac.wetterflux.model.domain.WeatherData;
+import dev.emrullaharac.wetterflux.model.dto.WeatherResponseDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "weather.openmeteo.decoder", havingValue = "tree")
+public class TreeForecastDecoder implements ForecastDecoder {
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public WeatherResponseDto decode(byte[] body) throws IOException {
+        JsonNode root = objectMapper.readTree(body);
+        if (root == null || !root.isObject()) {
+            throw new IOException("Forecast payload is not a JSON object");
+        }
+        return map(root);
+    }
+
+    @Override
+    public List<WeatherResponseDto> decodeAll(byte[] body) throws IOException {
+        JsonNode root = objectMapper.readTree(body);
+        if (root != null && root.isObject()) {
+            return List.of(map(root));
+        }
+        if (root == null || !root.isArray()) {
+            throw new IOException("Forecast payload is neither an object nor an array");
+        }
+        List<WeatherResponseDto> forecasts = new ArrayList<>(root.size());
+        for (JsonNode forecast : root) {
+            if (!forecast.isObject()) {
+                throw new IOException("Forecast array element is not a JSON object");
+            }
+            forecasts.add(map(forecast));
+        }
+        return forecasts;
+    }
+
+    private WeatherResponseDto map(JsonNode root) {
+
+        // CURRENT
+        Double currentTemp = null, currentWind = null;
+        Integer currentCode = null, currentInterval = null;
+        String currentTimeIso = null;
+        JsonNode current = root.get("current");
+        if (current != null && !current.isMissingNode()) {
+            currentTemp = number(current, "temperature_2m");
+            currentWind = number(current, "wind_speed_10m");
+            currentTimeIso = text(current, "time");
+            currentInterval = current.hasNonNull("interval") ? current.get("interval").asInt() : null;
+            if (current.hasNonNull("weather_code")) {
+                currentCode = current.get("weather_code").isInt()
+                        ? current.get("weather_code").asInt()
+                        : null;
+            }
+        }
+
+        // HOURLY / DAILY
+        WeatherData hourlyData = series(root.get("hourly"), root.get("hourly_units"));
+        WeatherData dailyData = series(root.get("daily"), root.get("daily_units"));
+
+        return WeatherResponseDto.builder()
+                .latitude(root.path("latitude").asDouble())
+                .longitude(root.path("longitude").asDouble())
+                .timezone(text(root, "timezone"))
+                .timezoneAbbreviation(text(root, "timezone_abbreviation"))
+                .utcOffsetSeconds(root.hasNonNull("utc_offset_seconds") ? root.get("utc_offset_seconds").asInt() : null)
+                .currentTemperature2m(currentTemp)
+                .currentWindSpeed10m(currentWind)
+                .currentWeatherCode(currentCode)
+                .currentTimeIso(currentTimeIso)
+                .currentIntervalSeconds(currentInterval)
+                .hourly(hourlyData)
+                .daily(dailyData)
+                .build();
+    }
+
+    private WeatherData series(JsonNode section, JsonNode unitsNode) {
+        WeatherData.Builder data = WeatherData.builder();
+        if (unitsNode != null && unitsNode.isObject()) {
+            unitsNode.properties().forEach(e ->
+                    data.unit(e.getKey(), e.getValue().asText()));
+        }
+        if (section != null && section.isObject()) {
+            JsonNode timeArr = section.get("time");
+            if (timeArr != null && timeArr.isArray()) {
+                for (JsonNode t : timeArr) data.time(t.asText());
+            }
+            section.fieldNames().forEachRemaining(var -> {
+                if ("time".equals(var)) return;
+                JsonNode arr = section.get(var);
+                if (arr != null && arr.isArray()) {
+                    double[] vals = new double[arr.size()];
+                    for (int i = 0; i < vals.length; i++) {
+                        JsonNode v = arr.get(i);
+                        vals[i] = v.isNumber() ? v.asDouble() : Double.NaN;
+                    }
+                    data.column(var, vals);
+                }
+            });
+        }
+        return data.build();
+    }
+
+    private String text(JsonNode node, String field) {
+        return node != null && node.hasNonNull(field) ? node.get(field).asText() : null;
+    }
+
+    private Double number(JsonNode node, String field) {
+        return node != null && node.hasNonNull(field) && node.get(field).isNumber()
+                ? node.get(field).asDouble() : null;
+    }
+}
@@ -3,41 +3,86 @@ package dev.emrullaharac.wetterflux.config;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import dev.emrullaharac.wetterflux.model.dto.WeatherResponseDto;
+import dev.emrullaharac.wetterflux.cache.BinaryWeatherSerializer;
+import dev.emrullaharac.wetterflux.cache.CachedWeather;
+import dev.emrullaharac.wetterflux.cache.MeteredRedisSerializer;
+import dev.emrullaharac.wetterflux.metrics.WeatherMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
 public class RedisConfig {
 
     @Bean
-    public RedisConnectionFactory redisConnectionFactory() {
+    public LettuceConnectionFactory redisConnectionFactory() {
         return new LettuceConnectionFactory();
     }
 
     @Bean
-    public RedisTemplate<String, WeatherResponseDto> weatherRedisTemplate(
-            RedisConnectionFactory redisConnectionFactory
+    public RedisSerializer<CachedWeather> weatherValueSerializer(
+            @Value("${weather.cache.serializer:binary}") String format,
+            @Value("${weather.cache.serializer.compression:deflate}") String compression,
+            @Value("${weather.cache.serializer.compression-threshold-bytes:2048}") int compressionThreshold,
+            WeatherMetrics weatherMetrics
     ) {
-        RedisTemplate<String, WeatherResponseDto> template = new RedisTemplate<>();
+        Jackson2JsonRedisSerializer<CachedWeather> jsonSerializer = jsonWeatherSerializer();
+        RedisSerializer<CachedWeather> serializer = "json".equalsIgnoreCase(format)
+                ? jsonSerializer
+                : new BinaryWeatherSerializer(
+                        jsonSerializer,
+                        "deflate".equalsIgnoreCase(compression),
+                        compressionThreshold
+                );
+        return new MeteredRedisSerializer<>(serializer,
+                weatherMetrics.payloadSize("redis", "write"),
+                weatherMetrics.payloadSize("redis", "read"));
+    }
+
+    @Bean
+    public RedisTemplate<String, CachedWeather> weatherRedisTemplate(
+            RedisConnectionFactory redisConnectionFactory,
+            RedisSerializer<CachedWeather> weatherValueSerializer
+    ) {
+        RedisTemplate<String, CachedWeather> template = new RedisTemplate<>();
         template.setConnectionFactory(redisConnectionFactory);
 
         template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(weatherValueSerializer);
+        template.setHashKeySerializer(new StringRedisSerializer());
+        template.setHashValueSerializer(weatherValueSerializer);
+        template.afterPropertiesSet();
+        return template;
+    }
 
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public ReactiveRedisTemplate<String, CachedWeather> reactiveWeatherRedisTemplate(
+            ReactiveRedisConnectionFactory redisConnectionFactory,
+            RedisSerializer<CachedWeather> weatherValueSerializer
+    ) {
+        RedisSerializationContext<String, CachedWeather> context = RedisSerializationContext
+                .<String, CachedWeather>newSerializationContext(new StringRedisSerializer())
+                .value(weatherValueSerializer)
+                .build();
+        return new ReactiveRedisTemplate<>(redisConnectionFactory, context);
+    }
+
+    public static Jackson2JsonRedisSerializer<CachedWeather> jsonWeatherSerializer() {
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
         objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
 
-        Jackson2JsonRedisSerializer<WeatherResponseDto> valueSerializer =
-                new Jackson2JsonRedisSerializer<>(objectMapper, WeatherResponseDto.class);
-
-        template.setValueSerializer(valueSerializer);
-        template.afterPropertiesSet();
-        return template;
+        return new Jackson2JsonRedisSerializer<>(objectMapper, CachedWeather.class);
     }
 }
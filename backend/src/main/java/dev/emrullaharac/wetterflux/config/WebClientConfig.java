@@ -0,0 +1,58 @@
+package dev.emrullaharac.wetterflux.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+@Configuration
+public class WebClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider openMeteoConnectionProvider(
+            @Value("${weather.openmeteo.pool.max-connections:100}") int maxConnections,
+            @Value("${weather.openmeteo.pool.pending-acquire-max-count:500}") int pendingAcquireMaxCount,
+            @Value("${weather.openmeteo.pool.pending-acquire-timeout-ms:2000}") long pendingAcquireTimeoutMs,
+            @Value("${weather.openmeteo.pool.max-idle-time-seconds:30}") long maxIdleTimeSeconds,
+            @Value("${weather.openmeteo.pool.max-life-time-seconds:300}") long maxLifeTimeSeconds,
+            @Value("${weather.openmeteo.pool.evict-interval-seconds:30}") long evictIntervalSeconds
+    ) {
+        // metrics(true) publishes reactor.netty.connection.provider.* gauges to the global Micrometer
+        // registry, which Spring Boot bridges into the actuator metrics endpoint.
+        return ConnectionProvider.builder("openmeteo")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMs))
+                .maxIdleTime(Duration.ofSeconds(maxIdleTimeSeconds))
+                .maxLifeTime(Duration.ofSeconds(maxLifeTimeSeconds))
+                .evictInBackground(Duration.ofSeconds(evictIntervalSeconds))
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClient openMeteoWebClient(
+            WebClient.Builder webClientBuilder,
+            ConnectionProvider openMeteoConnectionProvider,
+            @Value("${weather.openmeteo.connect-timeout-ms:2000}") int connectTimeoutMs,
+            @Value("${weather.openmeteo.response-timeout-ms:5000}") long responseTimeoutMs,
+            @Value("${weather.openmeteo.max-response-bytes:4194304}") int maxResponseBytes
+    ) {
+        HttpClient httpClient = HttpClient.create(openMeteoConnectionProvider)
+                .keepAlive(true)
+                .compress(true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(responseTimeoutMs));
+
+        return webClientBuilder.clone()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxResponseBytes))
+                .build();
+    }
+}
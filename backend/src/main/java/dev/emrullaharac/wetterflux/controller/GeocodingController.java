@@ -0,0 +1,29 @@
+package dev.emrullaharac.wetterflux.controller;
+
+import dev.emrullaharac.wetterflux.model.dto.CityDto;
+import dev.emrullaharac.wetterflux.service.GeocodingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+// Served from the in-process city index, so it is the same under the servlet and the reactive stack.
+@RestController
+@RequestMapping("/api/v1/geocoding")
+@RequiredArgsConstructor
+public class GeocodingController {
+
+    private final GeocodingService geocodingService;
+
+    @GetMapping("/search")
+    public List<CityDto> search(
+            @RequestParam("q") String query,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "fuzzy", required = false, defaultValue = "true") boolean fuzzy
+    ) {
+        return geocodingService.search(query, limit, fuzzy);
+    }
+}
@@ -0,0 +1,65 @@
+package dev.emrullaharac.wetterflux.controller;
+
+import dev.emrullaharac.wetterflux.model.dto.BatchWeatherRequestDto;
+import dev.emrullaharac.wetterflux.model.dto.BatchWeatherResponseDto;
+import dev.emrullaharac.wetterflux.model.dto.WeatherResponseDto;
+import dev.emrullaharac.wetterflux.service.ReactiveWeatherService;
+import dev.emrullaharac.wetterflux.service.WeatherBatchService;
+import dev.emrullaharac.wetterflux.service.WeatherService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/weather")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWeatherController {
+
+    private final ReactiveWeatherService reactiveWeatherService;
+    private final WeatherService weatherService;
+    private final WeatherBatchService weatherBatchService;
+
+    @GetMapping
+    public Mono<WeatherResponseDto> getWeather(
+            @RequestParam("lat") double lat,
+            @RequestParam("lon") double lon,
+            @RequestParam(value = "current", required = false) String currentVars,
+            @RequestParam(value = "hourly", required = false) String hourlyVars,
+            @RequestParam(value = "daily", required = false) String dailyVars,
+            @RequestParam(value = "forecast_days", required = false) Integer forecastDays,
+            @RequestParam(value = "timezone", required = false, defaultValue = "auto") String timezone,
+            @RequestParam(value = "temperature_unit", required = false) String temperatureUnit,
+            @RequestParam(value = "wind_speed_unit", required = false) String windSpeedUnit,
+            @RequestParam(value = "from", required = false) String from,
+            @RequestParam(value = "to", required = false) String to,
+            @RequestParam(value = "fields", required = false) String fields
+    ) {
+        log.info(
+                "weather_request lat={} lon={} forecastDays={} timezone={} tempUnit={} windUnit={}",
+                lat, lon, forecastDays, timezone, temperatureUnit, windSpeedUnit
+        );
+        return reactiveWeatherService.getWeather(
+                        lat, lon, currentVars, hourlyVars, dailyVars, forecastDays, timezone,
+                        temperatureUnit, windSpeedUnit)
+                .map(response -> weatherService.slice(response, from, to, fields));
+    }
+
+    @PostMapping("/batch")
+    public Mono<BatchWeatherResponseDto> getWeatherBatch(@RequestBody BatchWeatherRequestDto request) {
+        log.info("weather_batch_request locations={} forecastDays={} timezone={}",
+                request.getLocations() == null ? 0 : request.getLocations().size(),
+                request.getForecastDays(), request.getTimezone());
+        return Mono.fromCallable(() -> weatherBatchService.getWeatherBatch(request))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
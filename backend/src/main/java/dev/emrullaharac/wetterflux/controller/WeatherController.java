@@ -1,25 +1,46 @@
 package dev.emrullaharac.wetterflux.controller;
 
+import dev.emrullaharac.wetterflux.cache.CachedWeather;
+import dev.emrullaharac.wetterflux.cache.ResponseBodyCache;
+import dev.emrullaharac.wetterflux.model.dto.BatchWeatherRequestDto;
+import dev.emrullaharac.wetterflux.model.dto.BatchWeatherResponseDto;
 import dev.emrullaharac.wetterflux.model.dto.WeatherResponseDto;
+import dev.emrullaharac.wetterflux.service.WeatherBatchService;
 import dev.emrullaharac.wetterflux.service.WeatherService;
+import dev.emrullaharac.wetterflux.service.WeatherStreamService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
 
 @Slf4j
 @RestController
 @RequestMapping("/api/v1/weather")
 @RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class WeatherController {
 
     private final WeatherService weatherService;
+    private final WeatherBatchService weatherBatchService;
+    private final ResponseBodyCache responseBodyCache;
+    private final WeatherStreamService weatherStreamService;
 
     @GetMapping
-    public ResponseEntity<WeatherResponseDto> getWeather(
+    public ResponseEntity<?> getWeather(
             @RequestParam("lat") double lat,
             @RequestParam("lon") double lon,
             @RequestParam(value = "current", required = false) String currentVars,
@@ -28,14 +49,114 @@ public class WeatherController {
             @RequestParam(value = "forecast_days", required = false) Integer forecastDays,
             @RequestParam(value = "timezone", required = false, defaultValue = "auto") String timezone,
             @RequestParam(value = "temperature_unit", required = false) String temperatureUnit,
-            @RequestParam(value = "wind_speed_unit", required = false) String windSpeedUnit
+            @RequestParam(value = "wind_speed_unit", required = false) String windSpeedUnit,
+            @RequestParam(value = "from", required = false) String from,
+            @RequestParam(value = "to", required = false) String to,
+            @RequestParam(value = "fields", required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
     ) {
         log.info(
                 "weather_request lat={} lon={} forecastDays={} timezone={} tempUnit={} windUnit={}",
                 lat, lon, forecastDays, timezone, temperatureUnit, windSpeedUnit
         );
-        return ResponseEntity.ok(weatherService.getWeather(
-                lat, lon, currentVars, hourlyVars, dailyVars,forecastDays, timezone,
-                temperatureUnit, windSpeedUnit));
+        CachedWeather entry = weatherService.getWeatherEntry(
+                lat, lon, currentVars, hourlyVars, dailyVars, forecastDays, timezone,
+                temperatureUnit, windSpeedUnit);
+        WeatherResponseDto sliced = weatherService.slice(entry.response(), from, to, fields);
+        if (!responseBodyCache.isEnabled()) {
+            return ResponseEntity.ok(sliced);
+        }
+
+        ResponseBodyCache.EncodedBody body = sliced == entry.response()
+                ? responseBodyCache.encode(entry)
+                : responseBodyCache.encode(sliced);
+        boolean gzip = body.gzip() != null && acceptsGzip(acceptEncoding);
+        String etag = gzip ? body.gzipEtag() : body.etag();
+        CacheControl cacheControl = cacheControl(entry);
+
+        if (matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.gzip());
+        }
+        return response.body(body.json());
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamWeather(
+            @RequestParam("lat") double lat,
+            @RequestParam("lon") double lon,
+            @RequestParam(value = "current", required = false) String currentVars,
+            @RequestParam(value = "hourly", required = false) String hourlyVars,
+            @RequestParam(value = "daily", required = false) String dailyVars,
+            @RequestParam(value = "forecast_days", required = false) Integer forecastDays,
+            @RequestParam(value = "timezone", required = false, defaultValue = "auto") String timezone,
+            @RequestParam(value = "temperature_unit", required = false) String temperatureUnit,
+            @RequestParam(value = "wind_speed_unit", required = false) String windSpeedUnit
+    ) {
+        log.info("weather_stream_request lat={} lon={} forecastDays={} timezone={}", lat, lon, forecastDays, timezone);
+        return weatherStreamService.subscribe(
+                lat, lon, currentVars, hourlyVars, dailyVars, forecastDays, timezone,
+                temperatureUnit, windSpeedUnit);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<BatchWeatherResponseDto> getWeatherBatch(@RequestBody BatchWeatherRequestDto request) {
+        log.info("weather_batch_request locations={} forecastDays={} timezone={}",
+                request.getLocations() == null ? 0 : request.getLocations().size(),
+                request.getForecastDays(), request.getTimezone());
+        return ResponseEntity.ok(weatherBatchService.getWeatherBatch(request));
+    }
+
+    private static CacheControl cacheControl(CachedWeather entry) {
+        long now = System.currentTimeMillis();
+        long maxAge = Math.max(0, entry.softExpiresAt() - now) / 1000;
+        long staleWindow = Math.max(0, entry.hardExpiresAt() - Math.max(now, entry.softExpiresAt())) / 1000;
+        return CacheControl.maxAge(Duration.ofSeconds(maxAge))
+                .cachePublic()
+                .staleWhileRevalidate(Duration.ofSeconds(staleWindow));
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (!parts[0].trim().equalsIgnoreCase("gzip")) continue;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(param.substring(2)) > 0;
+                    } catch (NumberFormatException ex) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) return true;
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals(etag)) return true;
+        }
+        return false;
     }
 }
@@ -0,0 +1,73 @@
+package dev.emrullaharac.wetterflux.exception;
+
+import dev.emrullaharac.wetterflux.model.dto.ErrorResponseDto;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.MissingRequestValueException;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.time.Instant;
+
+@RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveGlobalExceptionHandler {
+
+    @ExceptionHandler(ApiException.class)
+    public ResponseEntity<ErrorResponseDto> handleApiException(
+            ApiException ex,
+            ServerHttpRequest request
+    ) {
+        HttpStatus status = ex.getStatus();
+        return ResponseEntity.status(status)
+                .body(buildError(status, ex.getMessage(), request));
+    }
+
+    @ExceptionHandler(MissingRequestValueException.class)
+    public ResponseEntity<ErrorResponseDto> handleMissingParam(
+            MissingRequestValueException ex,
+            ServerHttpRequest request
+    ) {
+        HttpStatus status = HttpStatus.BAD_REQUEST;
+        String msg = "Missing required parameter '" + ex.getName() + "'";
+        return ResponseEntity.status(status)
+                .body(buildError(status, msg, request));
+    }
+
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<ErrorResponseDto> handleInvalidInput(
+            ServerWebInputException ex,
+            ServerHttpRequest request
+    ) {
+        HttpStatus status = HttpStatus.BAD_REQUEST;
+        String msg = ex.getMethodParameter() != null
+                ? "Invalid value for parameter '" + ex.getMethodParameter().getParameterName() + "'"
+                : "Invalid request";
+        return ResponseEntity.status(status)
+                .body(buildError(status, msg, request));
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponseDto> handleException(
+            Exception ex,
+            ServerHttpRequest request
+    ) {
+        HttpStatus status = HttpStatus.INTERNAL_SERVER_ERROR;
+        String msg = "Unexpected Server Error";
+        return ResponseEntity.status(status)
+                .body(buildError(status, msg, request));
+    }
+
+    private ErrorResponseDto buildError(HttpStatus status, String message, ServerHttpRequest request) {
+        return ErrorResponseDto.builder()
+                .timestamp(Instant.now().toString())
+                .status(status.value())
+                .error(status.getReasonPhrase())
+                .message(message)
+                .path(request.getPath().value())
+                .build();
+    }
+}
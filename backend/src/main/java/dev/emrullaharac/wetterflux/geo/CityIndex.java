@@ -0,0 +1,244 @@
+package dev.emrullaharac.wetterflux.geo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.Normalizer;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+// Read-only city name index, memory-mapped from the file CityIndexBuilder writes:
+//   header   magic, version, city count, key count, section offsets
+//   cities   fixed 28-byte records: name offset/length, country, lat/lon * 1e5, population, timezone
+//   keys     fixed 12-byte records (key offset, city, key length), sorted by normalized key bytes
+//   strings  UTF-8 names, timezones and keys
+// Opening maps the file and checks the header, so it takes milliseconds and none of it lives on the heap.
+// A prefix search is a binary search plus a scan over all matching keys that keeps the most populous
+// cities in a bounded heap; fuzzy search runs a bounded prefix edit distance over the keys that share
+// the first character. Strings are only decoded for results.
+public final class CityIndex {
+
+    static final int MAGIC = 0x57464349; // "WFCI"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    static final int CITY_BYTES = 28;
+    static final int KEY_BYTES = 12;
+    static final double COORDINATE_SCALE = 100_000d;
+
+    public record City(String name, String country, double latitude, double longitude, int population,
+                       String timezone, int distance) {
+    }
+
+    private final ByteBuffer buffer;
+    private final int cityCount;
+    private final int keyCount;
+    private final int citiesOffset;
+    private final int keysOffset;
+    private final int stringsOffset;
+
+    private CityIndex(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a city index");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported city index version " + buffer.getInt(4));
+        }
+        this.cityCount = buffer.getInt(8);
+        this.keyCount = buffer.getInt(12);
+        this.citiesOffset = buffer.getInt(16);
+        this.keysOffset = buffer.getInt(20);
+        this.stringsOffset = buffer.getInt(24);
+        if (keysOffset != citiesOffset + cityCount * CITY_BYTES
+                || stringsOffset != keysOffset + keyCount * KEY_BYTES
+                || stringsOffset > buffer.capacity()) {
+            throw new IOException("Corrupt city index");
+        }
+    }
+
+    public static CityIndex open(Path file) throws IOException {
+        // The mapping stays valid after the channel is closed.
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new CityIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public int size() {
+        return cityCount;
+    }
+
+    public int keyCount() {
+        return keyCount;
+    }
+
+    // Prefix matches first (exact names before longer ones), then fuzzy matches by distance, each by
+    // population. Fuzzy matching only runs when there are fewer than limit prefix matches.
+    public List<City> search(String query, int limit, boolean fuzzy) {
+        byte[] q = normalize(query).getBytes(StandardCharsets.UTF_8);
+        if (q.length == 0 || limit <= 0) return List.of();
+
+        // city -> rank: 0 exact, 1 prefix, 1 + distance fuzzy
+        Map<Integer, Integer> ranks = new HashMap<>();
+        // Least populous prefix match on top, so a short prefix costs a scan but only limit cities of memory.
+        PriorityQueue<Integer> prefix = new PriorityQueue<>(limit + 1,
+                Comparator.comparingInt(this::population).thenComparing(Comparator.reverseOrder()));
+        Set<Integer> inPrefix = new HashSet<>();
+        for (int k = lowerBound(q, q.length); k < keyCount && compareKey(k, q, q.length) == 0; k++) {
+            int city = keyCity(k);
+            // Exact keys sort before the longer keys they prefix, so they are all seen first.
+            if (keyLength(k) == q.length) {
+                ranks.put(city, 0);
+            } else if (!ranks.containsKey(city) && inPrefix.add(city)) {
+                prefix.add(city);
+                if (prefix.size() > limit) inPrefix.remove(prefix.poll());
+            }
+        }
+        for (int city : prefix) {
+            ranks.put(city, 1);
+        }
+
+        int maxDistance = maxDistance(q.length);
+        if (fuzzy && maxDistance > 0 && ranks.size() < limit) {
+            int[] previous = new int[q.length + 1];
+            int[] current = new int[q.length + 1];
+            for (int k = lowerBound(q, 1); k < keyCount && compareKey(k, q, 1) == 0; k++) {
+                int distance = prefixDistance(k, q, maxDistance, previous, current);
+                if (distance > 0 && distance <= maxDistance) {
+                    ranks.merge(keyCity(k), 1 + distance, Math::min);
+                }
+            }
+        }
+
+        return ranks.entrySet().stream()
+                .sorted(Comparator.<Map.Entry<Integer, Integer>>comparingInt(Map.Entry::getValue)
+                        .thenComparing(e -> population(e.getKey()), Comparator.reverseOrder())
+                        .thenComparingInt(Map.Entry::getKey))
+                .limit(limit)
+                .map(e -> city(e.getKey(), Math.max(0, e.getValue() - 1)))
+                .toList();
+    }
+
+    // Lower case, diacritics dropped, runs of anything but letters and digits collapsed to one space.
+    public static String normalize(String name) {
+        if (name == null) return "";
+        String decomposed = Normalizer.normalize(name, Normalizer.Form.NFKD);
+        StringBuilder out = new StringBuilder(decomposed.length());
+        boolean separator = false;
+        for (int i = 0; i < decomposed.length(); ) {
+            int cp = decomposed.codePointAt(i);
+            i += Character.charCount(cp);
+            if (Character.getType(cp) == Character.NON_SPACING_MARK) continue;
+            if (!Character.isLetterOrDigit(cp)) {
+                separator = true;
+                continue;
+            }
+            if (separator && !out.isEmpty()) out.append(' ');
+            separator = false;
+            cp = Character.toLowerCase(cp);
+            switch (cp) {
+                case 'ß' -> out.append("ss");
+                case 'æ' -> out.append("ae");
+                case 'œ' -> out.append("oe");
+                case 'ø' -> out.append('o');
+                case 'ł' -> out.append('l');
+                case 'đ' -> out.append('d');
+                case 'þ' -> out.append("th");
+                default -> out.appendCodePoint(cp);
+            }
+        }
+        return out.toString();
+    }
+
+    static int maxDistance(int queryLength) {
+        return queryLength < 4 ? 0 : queryLength < 8 ? 1 : 2;
+    }
+
+    private City city(int city, int distance) {
+        int record = citiesOffset + city * CITY_BYTES;
+        return new City(
+                string(buffer.getInt(record), Short.toUnsignedInt(buffer.getShort(record + 4))),
+                new String(new byte[]{buffer.get(record + 6), buffer.get(record + 7)}, StandardCharsets.US_ASCII).trim(),
+                buffer.getInt(record + 8) / COORDINATE_SCALE,
+                buffer.getInt(record + 12) / COORDINATE_SCALE,
+                buffer.getInt(record + 16),
+                string(buffer.getInt(record + 20), Short.toUnsignedInt(buffer.getShort(record + 24))),
+                distance);
+    }
+
+    private int population(int city) {
+        return buffer.getInt(citiesOffset + city * CITY_BYTES + 16);
+    }
+
+    private int keyOffset(int k) {
+        return stringsOffset + buffer.getInt(keysOffset + k * KEY_BYTES);
+    }
+
+    private int keyCity(int k) {
+        return buffer.getInt(keysOffset + k * KEY_BYTES + 4);
+    }
+
+    private int keyLength(int k) {
+        return Short.toUnsignedInt(buffer.getShort(keysOffset + k * KEY_BYTES + 8));
+    }
+
+    private String string(int offset, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(stringsOffset + offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // < 0 if key k sorts before q[0, length), 0 if it starts with it, > 0 if it sorts after.
+    private int compareKey(int k, byte[] q, int length) {
+        int offset = keyOffset(k);
+        int keyLength = keyLength(k);
+        int n = Math.min(keyLength, length);
+        for (int i = 0; i < n; i++) {
+            int cmp = Byte.compareUnsigned(buffer.get(offset + i), q[i]);
+            if (cmp != 0) return cmp;
+        }
+        return keyLength < length ? -1 : 0;
+    }
+
+    private int lowerBound(byte[] q, int length) {
+        int lo = 0;
+        int hi = keyCount;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compareKey(mid, q, length) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // Smallest edit distance between q and any prefix of key k; stops early once it exceeds max.
+    private int prefixDistance(int k, byte[] q, int max, int[] previous, int[] current) {
+        int offset = keyOffset(k);
+        int rows = Math.min(keyLength(k), q.length + max);
+        for (int j = 0; j <= q.length; j++) previous[j] = j;
+        int best = previous[q.length];
+        for (int i = 1; i <= rows; i++) {
+            byte c = buffer.get(offset + i - 1);
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= q.length; j++) {
+                int substitution = previous[j - 1] + (c == q[j - 1] ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            best = Math.min(best, current[q.length]);
+            if (rowMin > max) break;
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return best;
+    }
+}
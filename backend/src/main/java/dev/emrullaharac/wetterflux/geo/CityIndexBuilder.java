@@ -0,0 +1,168 @@
+package dev.emrullaharac.wetterflux.geo;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Converts a GeoNames dump (cities15000.txt, allCountries.txt, ... tab separated: geonameid, name,
+// asciiname, alternatenames, latitude, longitude, feature class, feature code, country code, cc2,
+// admin1-4, population, elevation, dem, timezone, modification date) into the file CityIndex maps.
+// Only populated places (feature class P) with at least minPopulation are kept; every city is
+// searchable by its name, ASCII name and up to maxAlternateNames alternate names.
+public final class CityIndexBuilder {
+
+    private static final int COL_NAME = 1;
+    private static final int COL_ASCII_NAME = 2;
+    private static final int COL_ALTERNATE_NAMES = 3;
+    private static final int COL_LATITUDE = 4;
+    private static final int COL_LONGITUDE = 5;
+    private static final int COL_FEATURE_CLASS = 6;
+    private static final int COL_COUNTRY = 8;
+    private static final int COL_POPULATION = 14;
+    private static final int COL_TIMEZONE = 17;
+
+    private final int minPopulation;
+    private final int maxAlternateNames;
+
+    public CityIndexBuilder(int minPopulation, int maxAlternateNames) {
+        this.minPopulation = minPopulation;
+        this.maxAlternateNames = maxAlternateNames;
+    }
+
+    private record City(byte[] name, byte[] country, int latE5, int lonE5, int population, String timezone) {
+    }
+
+    private record Key(byte[] key, int city) {
+    }
+
+    // Returns the number of cities written. The file is written next to the target and moved into place.
+    public int build(Path dump, Path target) throws IOException {
+        List<City> cities = new ArrayList<>();
+        List<Key> keys = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(dump, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] cols = line.split("\t", -1);
+                if (cols.length <= COL_TIMEZONE || !"P".equals(cols[COL_FEATURE_CLASS])) continue;
+                int population = parsePopulation(cols[COL_POPULATION]);
+                if (population < minPopulation) continue;
+
+                int city = cities.size();
+                cities.add(new City(
+                        cols[COL_NAME].getBytes(StandardCharsets.UTF_8),
+                        country(cols[COL_COUNTRY]),
+                        (int) Math.round(Double.parseDouble(cols[COL_LATITUDE]) * CityIndex.COORDINATE_SCALE),
+                        (int) Math.round(Double.parseDouble(cols[COL_LONGITUDE]) * CityIndex.COORDINATE_SCALE),
+                        population,
+                        cols[COL_TIMEZONE]));
+                for (String key : searchKeys(cols)) {
+                    keys.add(new Key(key.getBytes(StandardCharsets.UTF_8), city));
+                }
+            }
+        }
+        keys.sort((a, b) -> {
+            int cmp = Arrays.compareUnsigned(a.key(), b.key());
+            return cmp != 0 ? cmp : Integer.compare(cities.get(b.city()).population(), cities.get(a.city()).population());
+        });
+
+        write(cities, keys, target);
+        return cities.size();
+    }
+
+    private Set<String> searchKeys(String[] cols) {
+        Set<String> keys = new LinkedHashSet<>();
+        addKey(keys, cols[COL_NAME]);
+        addKey(keys, cols[COL_ASCII_NAME]);
+        if (!cols[COL_ALTERNATE_NAMES].isEmpty()) {
+            int alternates = 0;
+            for (String alternate : cols[COL_ALTERNATE_NAMES].split(",")) {
+                if (alternates >= maxAlternateNames) break;
+                // Alternate names also carry links, postal and airport codes.
+                if (alternate.contains("://") || alternate.chars().anyMatch(Character::isDigit)) continue;
+                if (addKey(keys, alternate)) alternates++;
+            }
+        }
+        return keys;
+    }
+
+    private static boolean addKey(Set<String> keys, String name) {
+        String key = CityIndex.normalize(name);
+        return key.length() >= 2 && keys.add(key);
+    }
+
+    private static void write(List<City> cities, List<Key> keys, Path target) throws IOException {
+        ByteArrayOutputStream strings = new ByteArrayOutputStream();
+        Map<String, Integer> timezones = new HashMap<>();
+        int citiesOffset = CityIndex.HEADER_BYTES;
+        int keysOffset = citiesOffset + cities.size() * CityIndex.CITY_BYTES;
+        int stringsOffset = keysOffset + keys.size() * CityIndex.KEY_BYTES;
+
+        ByteBuffer table = ByteBuffer.allocate(stringsOffset);
+        table.putInt(CityIndex.MAGIC).putInt(CityIndex.VERSION)
+                .putInt(cities.size()).putInt(keys.size())
+                .putInt(citiesOffset).putInt(keysOffset).putInt(stringsOffset).putInt(0);
+
+        for (City city : cities) {
+            int nameOffset = strings.size();
+            strings.writeBytes(city.name());
+            byte[] timezone = city.timezone().getBytes(StandardCharsets.UTF_8);
+            int timezoneOffset = timezones.computeIfAbsent(city.timezone(), tz -> {
+                int offset = strings.size();
+                strings.writeBytes(timezone);
+                return offset;
+            });
+            table.putInt(nameOffset).putShort((short) city.name().length)
+                    .put(city.country())
+                    .putInt(city.latE5()).putInt(city.lonE5())
+                    .putInt(city.population())
+                    .putInt(timezoneOffset).putShort((short) timezone.length)
+                    .putShort((short) 0);
+        }
+        for (Key key : keys) {
+            int keyOffset = strings.size();
+            strings.writeBytes(key.key());
+            table.putInt(keyOffset).putInt(key.city()).putShort((short) key.key().length).putShort((short) 0);
+        }
+
+        Path parent = target.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, target.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            table.flip();
+            while (table.hasRemaining()) channel.write(table);
+            ByteBuffer blob = ByteBuffer.wrap(strings.toByteArray());
+            while (blob.hasRemaining()) channel.write(blob);
+            channel.force(true);
+        } catch (IOException ex) {
+            Files.deleteIfExists(tmp);
+            throw ex;
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static int parsePopulation(String value) {
+        if (value.isEmpty()) return 0;
+        long population = Long.parseLong(value);
+        return (int) Math.min(population, Integer.MAX_VALUE);
+    }
+
+    private static byte[] country(String code) {
+        byte[] bytes = {' ', ' '};
+        for (int i = 0; i < Math.min(2, code.length()); i++) bytes[i] = (byte) code.charAt(i);
+        return bytes;
+    }
+}
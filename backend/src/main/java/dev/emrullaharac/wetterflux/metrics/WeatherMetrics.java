@@ -0,0 +1,95 @@
+package dev.emrullaharac.wetterflux.metrics;
+
+import dev.emrullaharac.wetterflux.cache.QueryCanonicalizer;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Hot-path timers split by stage, weather_stage_duration{stage, outcome, forecast_days}, and payload size
+// distributions, weather_payload_bytes{source, direction}. Both publish percentile histograms so the
+// Prometheus endpoint can aggregate quantiles across nodes.
+@Component
+@RequiredArgsConstructor
+public class WeatherMetrics {
+
+    public static final String VALIDATE = "validate";
+    public static final String KEY = "key";
+    public static final String CACHE_GET = "cache_get";
+    public static final String UPSTREAM = "upstream";
+    public static final String DECODE = "decode";
+    public static final String CACHE_SET = "cache_set";
+    public static final String SERIALIZE = "serialize";
+
+    public static final String OK = "ok";
+    public static final String ERROR = "error";
+    public static final String HIT = "hit";
+    public static final String STALE = "stale";
+    public static final String MISS = "miss";
+    public static final String NEARBY = "nearby";
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, DistributionSummary> payloads = new ConcurrentHashMap<>();
+
+    public void record(String stage, String outcome, Integer forecastDays, long startNanos) {
+        stageTimer(stage, outcome, daysBucket(forecastDays)).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public <T> T time(String stage, Integer forecastDays, Supplier<T> body) {
+        long start = System.nanoTime();
+        String outcome = ERROR;
+        try {
+            T value = body.get();
+            outcome = OK;
+            return value;
+        } finally {
+            record(stage, outcome, forecastDays, start);
+        }
+    }
+
+    public void time(String stage, Integer forecastDays, Runnable body) {
+        time(stage, forecastDays, () -> {
+            body.run();
+            return null;
+        });
+    }
+
+    public DistributionSummary payloadSize(String source, String direction) {
+        return payloads.computeIfAbsent(source + '|' + direction, k -> DistributionSummary.builder("weather_payload_bytes")
+                .baseUnit("bytes")
+                .tag("source", source)
+                .tag("direction", direction)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(64d)
+                .maximumExpectedValue(8d * 1024 * 1024)
+                .register(meterRegistry));
+    }
+
+    public static String daysBucket(Integer forecastDays) {
+        int days = forecastDays != null ? forecastDays : QueryCanonicalizer.DEFAULT_FORECAST_DAYS;
+        if (days <= 1) return "1";
+        if (days <= 3) return "2-3";
+        if (days <= 7) return "4-7";
+        return "8-16";
+    }
+
+    private Timer stageTimer(String stage, String outcome, String days) {
+        return timers.computeIfAbsent(stage + '|' + outcome + '|' + days, k -> Timer.builder("weather_stage_duration")
+                .tag("stage", stage)
+                .tag("outcome", outcome)
+                .tag("forecast_days", days)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(10_000))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry));
+    }
+}
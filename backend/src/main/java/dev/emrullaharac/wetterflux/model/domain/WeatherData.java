@@ -1,5 +1,324 @@
 package dev.emrullaharac.wetterflux.model.domain;
 
-public class WeatherData {
-    // TODO: internal domain fields will be added later
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+// Columnar time series: one primitive column per variable, NaN marks a missing value.
+// Timestamps are provider-local wall-clock times encoded as epoch seconds at UTC.
+public final class WeatherData {
+
+    public enum TimeFormat {
+        DATE(10),
+        DATE_TIME(16),
+        DATE_TIME_SECONDS(19);
+
+        private final int length;
+
+        TimeFormat(int length) {
+            this.length = length;
+        }
+
+        public int length() {
+            return length;
+        }
+
+        static TimeFormat ofLength(int length) {
+            for (TimeFormat format : values()) {
+                if (format.length == length) return format;
+            }
+            throw new IllegalArgumentException("Unsupported timestamp length " + length);
+        }
+    }
+
+    public static final WeatherData EMPTY = new WeatherData(
+            TimeFormat.DATE_TIME, 0, 0, 0, null, new LinkedHashMap<>(), new LinkedHashMap<>());
+
+    private final TimeFormat timeFormat;
+    private final long startEpochSecond;
+    private final int stepSeconds;
+    private final int length;
+    private final long[] explicitTimes;
+    private final Map<String, double[]> columns;
+    private final Map<String, String> units;
+
+    public WeatherData(
+            TimeFormat timeFormat,
+            long startEpochSecond,
+            int stepSeconds,
+            int length,
+            long[] explicitTimes,
+            Map<String, double[]> columns,
+            Map<String, String> units
+    ) {
+        this.timeFormat = timeFormat;
+        this.startEpochSecond = startEpochSecond;
+        this.stepSeconds = stepSeconds;
+        this.length = length;
+        this.explicitTimes = explicitTimes;
+        this.columns = Collections.unmodifiableMap(columns);
+        this.units = Collections.unmodifiableMap(units);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public TimeFormat getTimeFormat() {
+        return timeFormat;
+    }
+
+    public boolean isRegular() {
+        return explicitTimes == null;
+    }
+
+    public long getStartEpochSecond() {
+        return startEpochSecond;
+    }
+
+    public int getStepSeconds() {
+        return stepSeconds;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public long[] getExplicitTimes() {
+        return explicitTimes;
+    }
+
+    public long epochSecondAt(int index) {
+        return explicitTimes != null ? explicitTimes[index] : startEpochSecond + (long) index * stepSeconds;
+    }
+
+    public String timeAt(int index) {
+        char[] buf = new char[timeFormat.length()];
+        formatTime(index, buf);
+        return new String(buf);
+    }
+
+    // Writes the ISO representation of timestamp `index` into buf and returns its length.
+    public int formatTime(int index, char[] buf) {
+        return formatEpochSecond(epochSecondAt(index), timeFormat, buf);
+    }
+
+    public Map<String, double[]> getColumns() {
+        return columns;
+    }
+
+    public double[] column(String name) {
+        return columns.get(name);
+    }
+
+    public Map<String, String> getUnits() {
+        return units;
+    }
+
+    public boolean isEmpty() {
+        return length == 0 && columns.isEmpty() && units.isEmpty();
+    }
+
+    // Points [from, to) of the named columns; units are kept for those columns and the time axis.
+    public WeatherData slice(int from, int to, Collection<String> names) {
+        Map<String, double[]> sliced = new LinkedHashMap<>();
+        for (String name : names) {
+            double[] values = columns.get(name);
+            if (values != null) sliced.put(name, Arrays.copyOfRange(values, from, to));
+        }
+        Map<String, String> slicedUnits = new LinkedHashMap<>();
+        units.forEach((name, unit) -> {
+            if ("time".equals(name) || sliced.containsKey(name)) slicedUnits.put(name, unit);
+        });
+        return new WeatherData(
+                timeFormat,
+                explicitTimes == null ? startEpochSecond + (long) from * stepSeconds : 0,
+                explicitTimes == null ? stepSeconds : 0,
+                to - from,
+                explicitTimes == null ? null : Arrays.copyOfRange(explicitTimes, from, to),
+                sliced,
+                slicedUnits);
+    }
+
+    // Number of leading points whose timestamp is before epochSecond.
+    public int countBefore(long epochSecond) {
+        int n = 0;
+        while (n < length && epochSecondAt(n) < epochSecond) n++;
+        return n;
+    }
+
+    public boolean sameTimeAxis(WeatherData other) {
+        if (timeFormat != other.timeFormat || length != other.length) return false;
+        for (int i = 0; i < length; i++) {
+            if (epochSecondAt(i) != other.epochSecondAt(i)) return false;
+        }
+        return true;
+    }
+
+    public static int formatEpochSecond(long epochSecond, TimeFormat format, char[] buf) {
+        long days = Math.floorDiv(epochSecond, 86_400L);
+        int secondOfDay = (int) Math.floorMod(epochSecond, 86_400L);
+
+        // civil-from-days, proleptic Gregorian
+        long z = days + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long doe = z - era * 146_097;
+        long yoe = (doe - doe / 1460 + doe / 36_524 - doe / 146_096) / 365;
+        long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        long mp = (5 * doy + 2) / 153;
+        int day = (int) (doy - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        long year = yoe + era * 400 + (month <= 2 ? 1 : 0);
+
+        put4(buf, 0, (int) year);
+        buf[4] = '-';
+        put2(buf, 5, month);
+        buf[7] = '-';
+        put2(buf, 8, day);
+        if (format == TimeFormat.DATE) return 10;
+
+        buf[10] = 'T';
+        put2(buf, 11, secondOfDay / 3600);
+        buf[13] = ':';
+        put2(buf, 14, (secondOfDay / 60) % 60);
+        if (format == TimeFormat.DATE_TIME) return 16;
+
+        buf[16] = ':';
+        put2(buf, 17, secondOfDay % 60);
+        return 19;
+    }
+
+    public static long parseEpochSecond(CharSequence iso) {
+        int year = digits(iso, 0, 4);
+        int month = digits(iso, 5, 2);
+        int day = digits(iso, 8, 2);
+        long seconds = daysFromCivil(year, month, day) * 86_400L;
+        if (iso.length() >= 16) {
+            seconds += digits(iso, 11, 2) * 3600L + digits(iso, 14, 2) * 60L;
+        }
+        if (iso.length() >= 19) {
+            seconds += digits(iso, 17, 2);
+        }
+        return seconds;
+    }
+
+    private static long daysFromCivil(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yoe = y - era * 400;
+        long doy = (153L * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146_097 + doe - 719_468;
+    }
+
+    private static int digits(CharSequence s, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("Invalid timestamp " + s);
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static void put2(char[] buf, int offset, int value) {
+        buf[offset] = (char) ('0' + value / 10);
+        buf[offset + 1] = (char) ('0' + value % 10);
+    }
+
+    private static void put4(char[] buf, int offset, int value) {
+        put2(buf, offset, value / 100);
+        put2(buf, offset + 2, value % 100);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof WeatherData other)) return false;
+        if (length != other.length || timeFormat != other.timeFormat) return false;
+        for (int i = 0; i < length; i++) {
+            if (epochSecondAt(i) != other.epochSecondAt(i)) return false;
+        }
+        if (!columns.keySet().equals(other.columns.keySet())) return false;
+        for (Map.Entry<String, double[]> column : columns.entrySet()) {
+            if (!Arrays.equals(column.getValue(), other.columns.get(column.getKey()))) return false;
+        }
+        return units.equals(other.units);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Objects.hash(timeFormat, length, units, columns.keySet());
+        return 31 * result + (length > 0 ? Long.hashCode(epochSecondAt(0)) : 0);
+    }
+
+    @Override
+    public String toString() {
+        return "WeatherData(length=" + length + ", columns=" + columns.keySet() + ")";
+    }
+
+    public static final class Builder {
+
+        private TimeFormat timeFormat;
+        private long[] times = new long[32];
+        private int length;
+        private final Map<String, double[]> columns = new LinkedHashMap<>();
+        private final Map<String, String> units = new LinkedHashMap<>();
+
+        public Builder time(CharSequence iso) {
+            TimeFormat format = TimeFormat.ofLength(iso.length());
+            if (timeFormat == null) {
+                timeFormat = format;
+            } else if (timeFormat != format) {
+                throw new IllegalArgumentException("Mixed timestamp formats in one series");
+            }
+            if (length == times.length) {
+                times = Arrays.copyOf(times, length * 2);
+            }
+            times[length++] = parseEpochSecond(iso);
+            return this;
+        }
+
+        public int timeCount() {
+            return length;
+        }
+
+        public Builder column(String name, double[] values) {
+            columns.put(name, values);
+            return this;
+        }
+
+        public Builder unit(String name, String unit) {
+            units.put(name, unit);
+            return this;
+        }
+
+        public WeatherData build() {
+            if (length == 0 && columns.isEmpty() && units.isEmpty()) {
+                return EMPTY;
+            }
+
+            long start = length > 0 ? times[0] : 0;
+            int step = length > 1 ? (int) (times[1] - times[0]) : 0;
+            boolean regular = true;
+            for (int i = 2; i < length && regular; i++) {
+                regular = times[i] - times[i - 1] == step;
+            }
+
+            return new WeatherData(
+                    timeFormat != null ? timeFormat : TimeFormat.DATE_TIME,
+                    start,
+                    step,
+                    length,
+                    regular ? null : Arrays.copyOf(times, length),
+                    columns,
+                    units
+            );
+        }
+    }
 }
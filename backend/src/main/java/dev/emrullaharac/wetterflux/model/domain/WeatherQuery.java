@@ -0,0 +1,24 @@
+package dev.emrullaharac.wetterflux.model.domain;
+
+public record WeatherQuery(
+        double latitude,
+        double longitude,
+        String currentVars,
+        String hourlyVars,
+        String dailyVars,
+        int forecastDays,
+        String timezone,
+        String temperatureUnit,
+        String windSpeedUnit
+) {
+
+    public WeatherQuery withTimezone(String resolvedTimezone) {
+        return new WeatherQuery(latitude, longitude, currentVars, hourlyVars, dailyVars,
+                forecastDays, resolvedTimezone, temperatureUnit, windSpeedUnit);
+    }
+
+    public WeatherQuery withUnits(String temperature, String windSpeed) {
+        return new WeatherQuery(latitude, longitude, currentVars, hourlyVars, dailyVars,
+                forecastDays, timezone, temperature, windSpeed);
+    }
+}
@@ -0,0 +1,37 @@
+package dev.emrullaharac.wetterflux.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchWeatherRequestDto {
+
+    List<LocationDto> locations;
+    String current;
+    String hourly;
+    String daily;
+    @JsonProperty("forecast_days")
+    Integer forecastDays;
+    String timezone;
+    @JsonProperty("temperature_unit")
+    String temperatureUnit;
+    @JsonProperty("wind_speed_unit")
+    String windSpeedUnit;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LocationDto {
+        // Boxed so a missing coordinate is rejected instead of read as 0.
+        Double lat;
+        Double lon;
+    }
+}
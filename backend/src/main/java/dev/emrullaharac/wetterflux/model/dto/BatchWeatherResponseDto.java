@@ -0,0 +1,28 @@
+package dev.emrullaharac.wetterflux.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchWeatherResponseDto {
+
+    List<Item> results;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        double lat;
+        double lon;
+        WeatherResponseDto weather;
+        String error;
+    }
+}
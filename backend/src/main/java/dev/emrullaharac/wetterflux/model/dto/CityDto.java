@@ -0,0 +1,25 @@
+package dev.emrullaharac.wetterflux.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CityDto {
+
+    String name;
+    String country;
+    int population;
+    String timezone;
+    double latitude;
+    double longitude;
+
+    // Grid cell the weather cache keys this city under, and the weather request for it.
+    double lat;
+    double lon;
+    String weather;
+}
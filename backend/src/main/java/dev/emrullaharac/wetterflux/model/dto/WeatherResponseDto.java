@@ -1,14 +1,16 @@
 package dev.emrullaharac.wetterflux.model.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import dev.emrullaharac.wetterflux.model.domain.WeatherData;
 import lombok.*;
 
-import java.util.List;
-import java.util.Map;
-
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonSerialize(using = WeatherResponseJsonSerializer.class)
+@JsonDeserialize(using = WeatherResponseJsonDeserializer.class)
 public class WeatherResponseDto {
 
     double latitude;
@@ -20,8 +22,14 @@ public class WeatherResponseDto {
     Integer currentWeatherCode;
     String description;
     String currentTimeIso;
-    List<String> hourlyTime;
-    Map<String, List<Double>> hourlyValues;
-    Map<String, String> hourlyUnits;
+    WeatherData hourly;
+    WeatherData daily;
+
+    // Set on a last known good copy served past its expiry because the provider is failing.
+    boolean stale;
+
+    // Provider metadata used for cache expiry, not part of the API payload.
+    Integer utcOffsetSeconds;
+    Integer currentIntervalSeconds;
 
 }
@@ -0,0 +1,67 @@
+package dev.emrullaharac.wetterflux.model.dto;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import dev.emrullaharac.wetterflux.model.domain.WeatherData;
+
+import java.io.IOException;
+import java.util.Map;
+
+// Reads the public API shape back into the columnar model (JSON Redis values and older entries).
+public class WeatherResponseJsonDeserializer extends StdDeserializer<WeatherResponseDto> {
+
+    public WeatherResponseJsonDeserializer() {
+        super(WeatherResponseDto.class);
+    }
+
+    @Override
+    public WeatherResponseDto deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonNode root = p.readValueAsTree();
+
+        WeatherResponseDto dto = new WeatherResponseDto();
+        dto.setLatitude(root.path("latitude").asDouble());
+        dto.setLongitude(root.path("longitude").asDouble());
+        dto.setTimezone(text(root, "timezone"));
+        dto.setTimezoneAbbreviation(text(root, "timezoneAbbreviation"));
+        dto.setCurrentTemperature2m(number(root, "currentTemperature2m"));
+        dto.setCurrentWindSpeed10m(number(root, "currentWindSpeed10m"));
+        dto.setCurrentWeatherCode(root.hasNonNull("currentWeatherCode") ? root.get("currentWeatherCode").asInt() : null);
+        dto.setDescription(text(root, "description"));
+        dto.setCurrentTimeIso(text(root, "currentTimeIso"));
+        dto.setHourly(readSeries(root, "hourly"));
+        dto.setDaily(readSeries(root, "daily"));
+        dto.setStale(root.path("stale").asBoolean(false));
+        return dto;
+    }
+
+    static WeatherData readSeries(JsonNode root, String prefix) {
+        WeatherData.Builder builder = WeatherData.builder();
+
+        for (JsonNode t : root.path(prefix + "Time")) {
+            builder.time(t.asText());
+        }
+        for (Map.Entry<String, JsonNode> column : root.path(prefix + "Values").properties()) {
+            JsonNode arr = column.getValue();
+            double[] values = new double[arr.size()];
+            for (int i = 0; i < values.length; i++) {
+                JsonNode v = arr.get(i);
+                values[i] = v.isNumber() ? v.asDouble() : Double.NaN;
+            }
+            builder.column(column.getKey(), values);
+        }
+        for (Map.Entry<String, JsonNode> unit : root.path(prefix + "Units").properties()) {
+            builder.unit(unit.getKey(), unit.getValue().asText());
+        }
+        return builder.build();
+    }
+
+    private static String text(JsonNode node, String field) {
+        return node.hasNonNull(field) ? node.get(field).asText() : null;
+    }
+
+    private static Double number(JsonNode node, String field) {
+        return node.hasNonNull(field) && node.get(field).isNumber() ? node.get(field).asDouble() : null;
+    }
+}
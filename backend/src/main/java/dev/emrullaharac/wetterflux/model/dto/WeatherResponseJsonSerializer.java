@@ -0,0 +1,85 @@
+package dev.emrullaharac.wetterflux.model.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import dev.emrullaharac.wetterflux.model.domain.WeatherData;
+
+import java.io.IOException;
+import java.util.Map;
+
+// Writes the public API shape (hourlyTime / hourlyValues / hourlyUnits, same for daily) straight from the primitive columns.
+public class WeatherResponseJsonSerializer extends StdSerializer<WeatherResponseDto> {
+
+    public WeatherResponseJsonSerializer() {
+        super(WeatherResponseDto.class);
+    }
+
+    @Override
+    public void serialize(WeatherResponseDto dto, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject();
+        gen.writeNumberField("latitude", dto.getLatitude());
+        gen.writeNumberField("longitude", dto.getLongitude());
+        gen.writeStringField("timezone", dto.getTimezone());
+        gen.writeStringField("timezoneAbbreviation", dto.getTimezoneAbbreviation());
+        writeNumber(gen, "currentTemperature2m", dto.getCurrentTemperature2m());
+        writeNumber(gen, "currentWindSpeed10m", dto.getCurrentWindSpeed10m());
+        writeNumber(gen, "currentWeatherCode", dto.getCurrentWeatherCode());
+        gen.writeStringField("description", dto.getDescription());
+        gen.writeStringField("currentTimeIso", dto.getCurrentTimeIso());
+        writeSeries(gen, "hourly", dto.getHourly());
+        writeSeries(gen, "daily", dto.getDaily());
+        if (dto.isStale()) {
+            gen.writeBooleanField("stale", true);
+        }
+        gen.writeEndObject();
+    }
+
+    static void writeSeries(JsonGenerator gen, String prefix, WeatherData data) throws IOException {
+        WeatherData series = data != null ? data : WeatherData.EMPTY;
+
+        gen.writeArrayFieldStart(prefix + "Time");
+        char[] buf = new char[series.getTimeFormat().length()];
+        for (int i = 0; i < series.length(); i++) {
+            int len = series.formatTime(i, buf);
+            gen.writeString(buf, 0, len);
+        }
+        gen.writeEndArray();
+
+        gen.writeObjectFieldStart(prefix + "Values");
+        for (Map.Entry<String, double[]> column : series.getColumns().entrySet()) {
+            gen.writeArrayFieldStart(column.getKey());
+            for (double v : column.getValue()) {
+                if (Double.isNaN(v)) {
+                    gen.writeNull();
+                } else {
+                    gen.writeNumber(v);
+                }
+            }
+            gen.writeEndArray();
+        }
+        gen.writeEndObject();
+
+        gen.writeObjectFieldStart(prefix + "Units");
+        for (Map.Entry<String, String> unit : series.getUnits().entrySet()) {
+            gen.writeStringField(unit.getKey(), unit.getValue());
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeNumber(JsonGenerator gen, String field, Double value) throws IOException {
+        if (value == null) {
+            gen.writeNullField(field);
+        } else {
+            gen.writeNumberField(field, value);
+        }
+    }
+
+    private static void writeNumber(JsonGenerator gen, String field, Integer value) throws IOException {
+        if (value == null) {
+            gen.writeNullField(field);
+        } else {
+            gen.writeNumberField(field, value);
+        }
+    }
+}
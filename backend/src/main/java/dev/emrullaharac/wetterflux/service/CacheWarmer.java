@@ -0,0 +1,204 @@
+package dev.emrullaharac.wetterflux.service;
+
+import dev.emrullaharac.wetterflux.cache.CachedWeather;
+import dev.emrullaharac.wetterflux.cache.HotKeySketch;
+import dev.emrullaharac.wetterflux.cache.HotKeyTracker;
+import dev.emrullaharac.wetterflux.cache.WeatherCacheService;
+import dev.emrullaharac.wetterflux.client.RequestPriority;
+import dev.emrullaharac.wetterflux.model.domain.WeatherQuery;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "weather.cache.warmer.enabled", havingValue = "true", matchIfMissing = true)
+public class CacheWarmer {
+
+    private final HotKeyTracker hotKeyTracker;
+    private final WeatherCacheService weatherCacheService;
+    private final WeatherBatchService weatherBatchService;
+    private final WeatherService weatherService;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolTaskExecutor weatherRefreshExecutor;
+
+    @Value("${weather.cache.warmer.max-keys:200}")
+    private int maxKeys;
+
+    @Value("${weather.cache.warmer.min-hits:3}")
+    private long minHits;
+
+    @Value("${weather.cache.warmer.lead-seconds:120}")
+    private long leadSeconds;
+
+    @Value("${weather.cache.warmer.concurrency:2}")
+    private int concurrency;
+
+    @Value("${weather.cache.warmer.max-upstream-calls-per-minute:30}")
+    private int maxCallsPerMinute;
+
+    private final AtomicInteger callsInWindow = new AtomicInteger();
+    private volatile long windowStartedAt = System.currentTimeMillis();
+    private Semaphore permits;
+
+    private Counter warmedKeys;
+    private Counter warmFailures;
+    private Counter upstreamCalls;
+    private Counter budgetExhausted;
+    private Timer refreshLag;
+
+    @PostConstruct
+    void initMetrics() {
+        permits = new Semaphore(concurrency);
+        warmedKeys = meterRegistry.counter("weather_cache_warmer_keys_total");
+        warmFailures = meterRegistry.counter("weather_cache_warmer_failures_total");
+        upstreamCalls = meterRegistry.counter("weather_cache_warmer_upstream_calls_total");
+        budgetExhausted = meterRegistry.counter("weather_cache_warmer_budget_exhausted_total");
+        refreshLag = meterRegistry.timer("weather_cache_warmer_refresh_lag");
+        meterRegistry.gauge("weather_cache_warmer_budget_used", callsInWindow, AtomicInteger::get);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void prewarm() {
+        if (hotKeyTracker.loadWarmSet(maxKeys) > 0) {
+            warm();
+        }
+    }
+
+    @Scheduled(
+            fixedDelayString = "${weather.cache.warmer.interval-ms:30000}",
+            initialDelayString = "${weather.cache.warmer.interval-ms:30000}")
+    public void warm() {
+        List<HotKeySketch.HotKey<String, WeatherQuery>> hot = hotKeyTracker.top(maxKeys, minHits);
+        if (hot.isEmpty()) return;
+
+        List<String> keys = new ArrayList<>(hot.size());
+        for (HotKeySketch.HotKey<String, WeatherQuery> entry : hot) {
+            if (!weatherService.isRefreshing(entry.key())) keys.add(entry.key());
+        }
+        Map<String, CachedWeather> cached = weatherCacheService.getManyFromCache(keys);
+
+        long now = System.currentTimeMillis();
+        long leadMillis = Duration.ofSeconds(leadSeconds).toMillis();
+        Map<List<Object>, List<Map.Entry<String, WeatherQuery>>> due = new LinkedHashMap<>();
+        for (HotKeySketch.HotKey<String, WeatherQuery> entry : hot) {
+            if (weatherService.isRefreshing(entry.key())) continue;
+            CachedWeather current = cached.get(entry.key());
+            if (current != null) {
+                long dueAt = current.softExpiresAt() - leadMillis;
+                if (dueAt > now) continue;
+                refreshLag.record(Duration.ofMillis(now - dueAt));
+            }
+            due.computeIfAbsent(WeatherBatchService.signature(entry.value()), s -> new ArrayList<>())
+                    .add(Map.entry(entry.key(), entry.value()));
+        }
+        if (due.isEmpty()) return;
+
+        int chunkSize = weatherBatchService.chunkSize();
+        int submitted = 0;
+        for (List<Map.Entry<String, WeatherQuery>> group : due.values()) {
+            for (int from = 0; from < group.size(); from += chunkSize) {
+                if (!tryConsumeBudget()) {
+                    budgetExhausted.increment();
+                    log.info("cache_warm_budget_exhausted submitted={} maxCallsPerMinute={}", submitted, maxCallsPerMinute);
+                    return;
+                }
+                List<Map.Entry<String, WeatherQuery>> chunk =
+                        List.copyOf(group.subList(from, Math.min(group.size(), from + chunkSize)));
+                if (!submit(chunk)) return;
+                submitted += chunk.size();
+            }
+        }
+        log.info("cache_warm_cycle hot={} submitted={}", hot.size(), submitted);
+    }
+
+    @Scheduled(
+            fixedDelayString = "${weather.cache.warmer.decay-interval-ms:600000}",
+            initialDelayString = "${weather.cache.warmer.decay-interval-ms:600000}")
+    public void persistAndDecay() {
+        hotKeyTracker.saveWarmSet(maxKeys);
+        hotKeyTracker.decay();
+    }
+
+    @PreDestroy
+    void persistOnShutdown() {
+        hotKeyTracker.saveWarmSet(maxKeys);
+    }
+
+    private boolean submit(List<Map.Entry<String, WeatherQuery>> chunk) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        // Claimed like any background refresh, so request paths do not refresh these keys meanwhile.
+        List<Map.Entry<String, WeatherQuery>> claimed = chunk.stream()
+                .filter(entry -> weatherService.claimRefresh(entry.getKey()))
+                .toList();
+        if (claimed.isEmpty()) {
+            permits.release();
+            return true;
+        }
+        try {
+            weatherRefreshExecutor.execute(() -> {
+                try {
+                    upstreamCalls.increment();
+                    Map<String, WeatherQuery> keys = new LinkedHashMap<>();
+                    claimed.forEach(entry -> keys.put(entry.getKey(), entry.getValue()));
+                    Map<String, String> errors = new HashMap<>();
+                    warmedKeys.increment(weatherBatchService.fetchAll(keys, errors, RequestPriority.WARM).size());
+                    if (!errors.isEmpty()) {
+                        warmFailures.increment();
+                        log.warn("cache_warm_failed keys={} message={}", errors.size(), errors.values().iterator().next());
+                    }
+                } catch (Exception ex) {
+                    warmFailures.increment();
+                    log.warn("cache_warm_failed keys={} message={}", claimed.size(), ex.getMessage());
+                } finally {
+                    claimed.forEach(entry -> weatherService.releaseRefresh(entry.getKey()));
+                    permits.release();
+                }
+            });
+            return true;
+        } catch (TaskRejectedException ex) {
+            claimed.forEach(entry -> weatherService.releaseRefresh(entry.getKey()));
+            permits.release();
+            log.warn("cache_warm_rejected keys={}", claimed.size());
+            return false;
+        }
+    }
+
+    private boolean tryConsumeBudget() {
+        long now = System.currentTimeMillis();
+        if (now - windowStartedAt >= 60_000) {
+            windowStartedAt = now;
+            callsInWindow.set(0);
+        }
+        if (callsInWindow.get() >= maxCallsPerMinute) return false;
+        callsInWindow.incrementAndGet();
+        return true;
+    }
+}
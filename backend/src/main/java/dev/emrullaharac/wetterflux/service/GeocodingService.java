@@ -0,0 +1,129 @@
+package dev.emrullaharac.wetterflux.service;
+
+import dev.emrullaharac.wetterflux.cache.QueryCanonicalizer;
+import dev.emrullaharac.wetterflux.exception.ApiException;
+import dev.emrullaharac.wetterflux.geo.CityIndex;
+import dev.emrullaharac.wetterflux.geo.CityIndexBuilder;
+import dev.emrullaharac.wetterflux.model.dto.CityDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GeocodingService {
+
+    private static final int MAX_QUERY_LENGTH = 100;
+
+    private final QueryCanonicalizer queryCanonicalizer;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${weather.geocoding.enabled:true}")
+    private boolean enabled;
+
+    @Value("${weather.geocoding.index-path:data/cities.idx}")
+    private String indexPath;
+
+    @Value("${weather.geocoding.dump-path:}")
+    private String dumpPath;
+
+    @Value("${weather.geocoding.min-population:1000}")
+    private int minPopulation;
+
+    @Value("${weather.geocoding.max-alternate-names:10}")
+    private int maxAlternateNames;
+
+    @Value("${weather.geocoding.default-limit:10}")
+    private int defaultLimit;
+
+    @Value("${weather.geocoding.max-limit:50}")
+    private int maxLimit;
+
+    private volatile CityIndex index;
+    private Timer searchDuration;
+
+    @PostConstruct
+    void init() {
+        searchDuration = meterRegistry.timer("geocoding_search_duration");
+        meterRegistry.gauge("geocoding_index_cities", this, s -> s.index != null ? s.index.size() : 0);
+        if (!enabled) return;
+
+        Path indexFile = Path.of(indexPath);
+        try {
+            if (!dumpPath.isBlank() && needsBuild(Path.of(dumpPath), indexFile)) {
+                long start = System.nanoTime();
+                int cities = new CityIndexBuilder(minPopulation, maxAlternateNames).build(Path.of(dumpPath), indexFile);
+                log.info("geocoding_index_built cities={} dump={} index={} tookMs={}",
+                        cities, dumpPath, indexFile, (System.nanoTime() - start) / 1_000_000);
+            }
+            if (!Files.isRegularFile(indexFile)) {
+                log.warn("geocoding_index_missing index={} dump={}", indexFile, dumpPath);
+                return;
+            }
+            long start = System.nanoTime();
+            index = CityIndex.open(indexFile);
+            log.info("geocoding_index_loaded cities={} keys={} index={} tookMs={}",
+                    index.size(), index.keyCount(), indexFile, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException ex) {
+            // City search is optional; weather requests do not depend on it.
+            log.warn("geocoding_index_unavailable index={} error={}", indexFile, ex.toString());
+        }
+    }
+
+    public List<CityDto> search(String query, Integer limit, boolean fuzzy) {
+        CityIndex current = index;
+        if (current == null) {
+            throw new ApiException(HttpStatus.SERVICE_UNAVAILABLE, "City search is not available");
+        }
+        if (query == null || query.isBlank()) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "Query 'q' must not be empty");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "Query 'q' must be at most " + MAX_QUERY_LENGTH + " characters");
+        }
+        int max = limit != null ? limit : defaultLimit;
+        if (max < 1 || max > maxLimit) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and " + maxLimit);
+        }
+
+        return searchDuration.record(() -> current.search(query, max, fuzzy).stream()
+                .map(this::toDto)
+                .toList());
+    }
+
+    private CityDto toDto(CityIndex.City city) {
+        double lat = queryCanonicalizer.snap(city.latitude());
+        double lon = queryCanonicalizer.snap(city.longitude());
+        return CityDto.builder()
+                .name(city.name())
+                .country(city.country())
+                .population(city.population())
+                .timezone(city.timezone())
+                .latitude(city.latitude())
+                .longitude(city.longitude())
+                .lat(lat)
+                .lon(lon)
+                .weather("/api/v1/weather?lat=" + lat + "&lon=" + lon)
+                .build();
+    }
+
+    private static boolean needsBuild(Path dump, Path indexFile) throws IOException {
+        if (!Files.isRegularFile(dump)) {
+            log.warn("geocoding_dump_missing dump={}", dump);
+            return false;
+        }
+        return !Files.isRegularFile(indexFile)
+                || Files.getLastModifiedTime(dump).compareTo(Files.getLastModifiedTime(indexFile)) > 0;
+    }
+}
@@ -0,0 +1,174 @@
+package dev.emrullaharac.wetterflux.service;
+
+import dev.emrullaharac.wetterflux.cache.HotKeyTracker;
+import dev.emrullaharac.wetterflux.cache.QueryCanonicalizer;
+import dev.emrullaharac.wetterflux.cache.ReactiveWeatherCacheService;
+import dev.emrullaharac.wetterflux.cache.WeatherCacheService;
+import dev.emrullaharac.wetterflux.client.CircuitBreaker;
+import dev.emrullaharac.wetterflux.client.OpenMeteoClient;
+import dev.emrullaharac.wetterflux.client.RateLimitedException;
+import dev.emrullaharac.wetterflux.client.RequestPriority;
+import dev.emrullaharac.wetterflux.exception.ApiException;
+import dev.emrullaharac.wetterflux.model.domain.WeatherQuery;
+import dev.emrullaharac.wetterflux.model.dto.WeatherResponseDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWeatherService {
+
+    private final WeatherService weatherService;
+    private final OpenMeteoClient openMeteoClient;
+    private final WeatherCacheService weatherCacheService;
+    private final ReactiveWeatherCacheService reactiveWeatherCacheService;
+    private final QueryCanonicalizer queryCanonicalizer;
+    private final HotKeyTracker hotKeyTracker;
+    private final UnitConverter unitConverter;
+    private final MeterRegistry meterRegistry;
+
+    // cache key -> shared upstream fetch, the reactive counterpart of SingleFlight
+    private final Map<String, Mono<WeatherResponseDto>> inFlight = new ConcurrentHashMap<>();
+
+    private Counter weatherRequestsTotal;
+    private Timer weatherRequestsDuration;
+    private Counter staleServed;
+    private Counter backgroundRefreshes;
+    private Counter backgroundRefreshFailures;
+    private Counter leaders;
+    private Counter coalesced;
+    private Counter staleOnError;
+
+    @PostConstruct
+    void initMetrics() {
+        weatherRequestsTotal = meterRegistry.counter("weather_requests_total");
+        weatherRequestsDuration = meterRegistry.timer("weather_requests_duration");
+        staleServed = meterRegistry.counter("weather_cache_stale_served_total");
+        backgroundRefreshes = meterRegistry.counter("weather_cache_background_refresh_total");
+        backgroundRefreshFailures = meterRegistry.counter("weather_cache_background_refresh_failures_total");
+        leaders = meterRegistry.counter("weather_singleflight_leaders_total");
+        coalesced = meterRegistry.counter("weather_singleflight_coalesced_total");
+        staleOnError = meterRegistry.counter("weather_cache_stale_on_error_total");
+    }
+
+    public Mono<WeatherResponseDto> getWeather(
+            double lat,
+            double lon,
+            String currentVars,
+            String hourlyVars,
+            String dailyVars,
+            Integer forecastDays,
+            String timezone,
+            String temperatureUnit,
+            String windSpeedUnit
+    ) {
+        return Mono.defer(() -> {
+            weatherService.validateParams(lat, lon, forecastDays, temperatureUnit, windSpeedUnit);
+
+            weatherRequestsTotal.increment();
+            Timer.Sample sample = Timer.start(meterRegistry);
+
+            WeatherQuery requested = weatherService.toQuery(lat, lon, currentVars, hourlyVars, dailyVars,
+                    forecastDays, timezone, temperatureUnit, windSpeedUnit);
+            WeatherQuery query = UnitConverter.canonical(requested);
+            String cacheKey = weatherCacheService.buildKey(query);
+            hotKeyTracker.record(cacheKey, query);
+
+            return reactiveWeatherCacheService.getFromCache(cacheKey)
+                    .map(entry -> {
+                        if (entry.isFresh(System.currentTimeMillis())) {
+                            log.info("cache_hit lat={} lon={} forecastDays={}", lat, lon, forecastDays);
+                        } else {
+                            log.info("cache_stale lat={} lon={} forecastDays={}", lat, lon, forecastDays);
+                            staleServed.increment();
+                            refreshInBackground(cacheKey, query);
+                        }
+                        return entry.response();
+                    })
+                    .switchIfEmpty(Mono.defer(() -> {
+                        log.info("cache_miss lat={} lon={} forecastDays={}", lat, lon, forecastDays);
+                        return sharedFetch(cacheKey, query, RequestPriority.USER);
+                    }))
+                    .onErrorResume(ex -> ex instanceof ApiException api && api.getStatus().is5xxServerError(),
+                            ex -> lastKnownGood(cacheKey).switchIfEmpty(Mono.error(ex)))
+                    .map(response -> unitConverter.convert(response, requested))
+                    .doFinally(signal -> sample.stop(weatherRequestsDuration));
+        });
+    }
+
+    private Mono<WeatherResponseDto> sharedFetch(String cacheKey, WeatherQuery query, RequestPriority priority) {
+        boolean[] leader = {false};
+        Mono<WeatherResponseDto> call = inFlight.computeIfAbsent(cacheKey, key -> {
+            leader[0] = true;
+            return fetchAndCache(key, query, priority)
+                    .doFinally(signal -> inFlight.remove(key))
+                    .cache();
+        });
+        (leader[0] ? leaders : coalesced).increment();
+        return call;
+    }
+
+    private Mono<WeatherResponseDto> lastKnownGood(String cacheKey) {
+        return reactiveWeatherCacheService.getLastKnownGood(cacheKey)
+                .map(entry -> {
+                    staleOnError.increment();
+                    log.warn("cache_stale_on_error keyHash={} fetchedAt={}", cacheKey.hashCode(), entry.fetchedAt());
+                    return entry.asStale().response();
+                });
+    }
+
+    private void refreshInBackground(String cacheKey, WeatherQuery query) {
+        if (inFlight.containsKey(cacheKey)) {
+            return;
+        }
+        backgroundRefreshes.increment();
+        sharedFetch(cacheKey, query, RequestPriority.REFRESH).subscribe(
+                response -> { },
+                ex -> {
+                    backgroundRefreshFailures.increment();
+                    log.warn("background_refresh_failed keyHash={} message={}", cacheKey.hashCode(), ex.getMessage());
+                });
+    }
+
+    private Mono<WeatherResponseDto> fetchAndCache(String cacheKey, WeatherQuery query, RequestPriority priority) {
+        log.info("calling_openmeteo lat={} lon={} forecastDays={} timezone={}",
+                query.latitude(), query.longitude(), query.forecastDays(), query.timezone());
+
+        return openMeteoClient.fetchForecastAsync(
+                        priority,
+                        query.latitude(), query.longitude(),
+                        query.currentVars(),
+                        query.hourlyVars(),
+                        query.dailyVars(),
+                        query.forecastDays(),
+                        query.timezone(),
+                        query.temperatureUnit(),
+                        query.windSpeedUnit())
+                .onErrorMap(CircuitBreaker.OpenException.class,
+                        ex -> new ApiException(HttpStatus.SERVICE_UNAVAILABLE, "Weather provider is temporarily unavailable"))
+                .onErrorMap(RateLimitedException.class,
+                        ex -> new ApiException(HttpStatus.SERVICE_UNAVAILABLE, "Weather provider request budget exhausted"))
+                .onErrorMap(ex -> !(ex instanceof ApiException),
+                        ex -> new ApiException(HttpStatus.BAD_GATEWAY, "Failed to fetch weather data from provider"))
+                .defaultIfEmpty(new byte[0])
+                .map(body -> weatherService.decodeForecast(query, body))
+                .flatMap(response -> {
+                    queryCanonicalizer.rememberTimezone(query, response.getTimezone());
+                    return reactiveWeatherCacheService.putToCache(cacheKey, response)
+                            .thenReturn(response);
+                });
+    }
+}
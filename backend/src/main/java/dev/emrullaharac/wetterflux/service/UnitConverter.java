@@ -0,0 +1,161 @@
+package dev.emrullaharac.wetterflux.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.emrullaharac.wetterflux.cache.CachedWeather;
+import dev.emrullaharac.wetterflux.cache.QueryCanonicalizer;
+import dev.emrullaharac.wetterflux.model.domain.WeatherData;
+import dev.emrullaharac.wetterflux.model.domain.WeatherQuery;
+import dev.emrullaharac.wetterflux.model.dto.WeatherResponseDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Forecasts are fetched and cached in canonical units (°C, km/h) and converted per response, so every
+// unit shares one upstream call and one cache entry. Series are matched by their provider unit, only
+// converted columns are copied, and values are rounded to one decimal like Open-Meteo's. Converted
+// entries are memoized per source entry (weak keys), so their precomputed bodies and ETags are reused.
+@Component
+@RequiredArgsConstructor
+public class UnitConverter {
+
+    static final String CELSIUS = "°C";
+    static final String FAHRENHEIT = "°F";
+    static final String KMH = "km/h";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${weather.units.memo-size:10000}")
+    private long memoSize;
+
+    private Cache<CachedWeather, Map<String, CachedWeather>> converted;
+    private Counter conversions;
+
+    @PostConstruct
+    void init() {
+        converted = Caffeine.newBuilder()
+                .weakKeys()
+                .maximumSize(memoSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, converted, "weather_unit_conversions");
+        conversions = meterRegistry.counter("weather_unit_conversions_total");
+    }
+
+    public static WeatherQuery canonical(WeatherQuery query) {
+        return isCanonical(query.temperatureUnit(), query.windSpeedUnit())
+                ? query
+                : query.withUnits(QueryCanonicalizer.DEFAULT_TEMPERATURE_UNIT, QueryCanonicalizer.DEFAULT_WIND_SPEED_UNIT);
+    }
+
+    public static boolean isCanonical(String temperatureUnit, String windSpeedUnit) {
+        return QueryCanonicalizer.DEFAULT_TEMPERATURE_UNIT.equals(temperatureUnit)
+                && QueryCanonicalizer.DEFAULT_WIND_SPEED_UNIT.equals(windSpeedUnit);
+    }
+
+    public CachedWeather convert(CachedWeather entry, WeatherQuery requested) {
+        String temperatureUnit = requested.temperatureUnit();
+        String windSpeedUnit = requested.windSpeedUnit();
+        if (isCanonical(temperatureUnit, windSpeedUnit)) return entry;
+
+        return converted.get(entry, e -> new ConcurrentHashMap<>(4))
+                .computeIfAbsent(temperatureUnit + '|' + windSpeedUnit, units -> new CachedWeather(
+                        convert(entry.response(), temperatureUnit, windSpeedUnit),
+                        entry.fetchedAt(), entry.softExpiresAt(), entry.hardExpiresAt()));
+    }
+
+    // Unmemoized, for responses that are not backed by a cache entry instance.
+    public WeatherResponseDto convert(WeatherResponseDto response, WeatherQuery requested) {
+        if (isCanonical(requested.temperatureUnit(), requested.windSpeedUnit())) return response;
+        return convert(response, requested.temperatureUnit(), requested.windSpeedUnit());
+    }
+
+    private WeatherResponseDto convert(WeatherResponseDto response, String temperatureUnit, String windSpeedUnit) {
+        conversions.increment();
+        Conversion temperature = temperature(temperatureUnit);
+        Conversion windSpeed = windSpeed(windSpeedUnit);
+        return response.toBuilder()
+                .currentTemperature2m(apply(temperature, response.getCurrentTemperature2m()))
+                .currentWindSpeed10m(apply(windSpeed, response.getCurrentWindSpeed10m()))
+                .hourly(convert(response.getHourly(), temperature, windSpeed))
+                .daily(convert(response.getDaily(), temperature, windSpeed))
+                .build();
+    }
+
+    private static WeatherData convert(WeatherData series, Conversion temperature, Conversion windSpeed) {
+        if (series == null || series.isEmpty()) return series;
+
+        Map<String, double[]> columns = null;
+        Map<String, String> units = null;
+        for (Map.Entry<String, String> unit : series.getUnits().entrySet()) {
+            Conversion conversion = CELSIUS.equals(unit.getValue()) ? temperature
+                    : KMH.equals(unit.getValue()) ? windSpeed
+                    : null;
+            double[] values = series.column(unit.getKey());
+            if (conversion == null || conversion.isIdentity() || values == null) continue;
+
+            if (columns == null) {
+                columns = new LinkedHashMap<>(series.getColumns());
+                units = new LinkedHashMap<>(series.getUnits());
+            }
+            double[] out = new double[values.length];
+            for (int i = 0; i < values.length; i++) {
+                out[i] = conversion.apply(values[i]);
+            }
+            columns.put(unit.getKey(), out);
+            units.put(unit.getKey(), conversion.unit());
+        }
+        if (columns == null) return series;
+
+        return new WeatherData(series.getTimeFormat(), series.getStartEpochSecond(), series.getStepSeconds(),
+                series.length(), series.getExplicitTimes(), columns, units);
+    }
+
+    private static Double apply(Conversion conversion, Double value) {
+        // Not a ternary: mixing Double and double there would unbox a null value.
+        if (value == null || conversion.isIdentity()) return value;
+        return conversion.apply(value);
+    }
+
+    static Conversion temperature(String unit) {
+        return switch (unit) {
+            case "celsius" -> Conversion.IDENTITY_CELSIUS;
+            case "fahrenheit" -> new Conversion(FAHRENHEIT, 9d / 5, 32);
+            default -> throw new IllegalArgumentException("Unsupported temperature unit " + unit);
+        };
+    }
+
+    static Conversion windSpeed(String unit) {
+        return switch (unit) {
+            case "kmh" -> Conversion.IDENTITY_KMH;
+            case "ms" -> new Conversion("m/s", 1 / 3.6, 0);
+            case "mph" -> new Conversion("mp/h", 1 / 1.609344, 0);
+            case "kn" -> new Conversion("kn", 1 / 1.852, 0);
+            default -> throw new IllegalArgumentException("Unsupported wind speed unit " + unit);
+        };
+    }
+
+    // value * factor + offset, rounded to one decimal; NaN (missing) stays NaN.
+    record Conversion(String unit, double factor, double offset) {
+
+        static final Conversion IDENTITY_CELSIUS = new Conversion(CELSIUS, 1, 0);
+        static final Conversion IDENTITY_KMH = new Conversion(KMH, 1, 0);
+
+        boolean isIdentity() {
+            return factor == 1 && offset == 0;
+        }
+
+        double apply(double value) {
+            if (Double.isNaN(value)) return value;
+            return Math.round((value * factor + offset) * 10) / 10d;
+        }
+    }
+}
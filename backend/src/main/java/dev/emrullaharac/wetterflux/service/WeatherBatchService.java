@@ -0,0 +1,372 @@
+package dev.emrullaharac.wetterflux.service;
+
+import dev.emrullaharac.wetterflux.cache.CachedWeather;
+import dev.emrullaharac.wetterflux.cache.HotKeyTracker;
+import dev.emrullaharac.wetterflux.cache.LocationCache;
+import dev.emrullaharac.wetterflux.cache.NearbyCellIndex;
+import dev.emrullaharac.wetterflux.cache.QueryCanonicalizer;
+import dev.emrullaharac.wetterflux.cache.SingleFlight;
+import dev.emrullaharac.wetterflux.cache.WeatherCacheService;
+import dev.emrullaharac.wetterflux.client.CircuitBreaker;
+import dev.emrullaharac.wetterflux.client.ForecastDecoder;
+import dev.emrullaharac.wetterflux.client.OpenMeteoClient;
+import dev.emrullaharac.wetterflux.client.RateLimitedException;
+import dev.emrullaharac.wetterflux.client.RequestPriority;
+import dev.emrullaharac.wetterflux.exception.ApiException;
+import dev.emrullaharac.wetterflux.model.domain.WeatherQuery;
+import dev.emrullaharac.wetterflux.model.dto.BatchWeatherRequestDto;
+import dev.emrullaharac.wetterflux.model.dto.BatchWeatherResponseDto;
+import dev.emrullaharac.wetterflux.model.dto.WeatherResponseDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WeatherBatchService {
+
+    private final WeatherService weatherService;
+    private final WeatherCacheService weatherCacheService;
+    private final LocationCache locationCache;
+    private final NearbyCellIndex nearbyCells;
+    private final QueryCanonicalizer queryCanonicalizer;
+    private final HotKeyTracker hotKeyTracker;
+    private final UnitConverter unitConverter;
+    private final OpenMeteoClient openMeteoClient;
+    private final ForecastDecoder forecastDecoder;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolTaskExecutor weatherRefreshExecutor;
+
+    @Value("${weather.batch.max-locations:200}")
+    private int maxLocations;
+
+    @Value("${weather.batch.chunk-size:50}")
+    private int chunkSize;
+
+    @Value("${weather.batch.upstream-concurrency:4}")
+    private int upstreamConcurrency;
+
+    private Counter batchRequestsTotal;
+    private Counter batchLocationsTotal;
+    private Counter batchUpstreamChunksTotal;
+    private Counter staleOnError;
+
+    @PostConstruct
+    void initMetrics() {
+        batchRequestsTotal = meterRegistry.counter("weather_batch_requests_total");
+        batchLocationsTotal = meterRegistry.counter("weather_batch_locations_total");
+        batchUpstreamChunksTotal = meterRegistry.counter("weather_batch_upstream_chunks_total");
+        staleOnError = meterRegistry.counter("weather_cache_stale_on_error_total");
+    }
+
+    public BatchWeatherResponseDto getWeatherBatch(BatchWeatherRequestDto request) {
+        List<BatchWeatherRequestDto.LocationDto> locations = request.getLocations();
+        if (locations == null || locations.isEmpty()) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "locations must not be empty.");
+        }
+        if (locations.size() > maxLocations) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "At most " + maxLocations + " locations per batch.");
+        }
+        for (BatchWeatherRequestDto.LocationDto location : locations) {
+            if (location == null) {
+                throw new ApiException(HttpStatus.BAD_REQUEST, "locations must not contain null entries.");
+            }
+            if (location.getLat() == null) {
+                throw new ApiException(HttpStatus.BAD_REQUEST, "lat is required for every location.");
+            }
+            if (location.getLon() == null) {
+                throw new ApiException(HttpStatus.BAD_REQUEST, "lon is required for every location.");
+            }
+            weatherService.validateParams(location.getLat(), location.getLon(),
+                    request.getForecastDays(), request.getTemperatureUnit(), request.getWindSpeedUnit());
+        }
+
+        batchRequestsTotal.increment();
+        batchLocationsTotal.increment(locations.size());
+
+        // Nearby coordinates can snap to the same cell, so each distinct key is resolved once.
+        List<String> keyPerLocation = new ArrayList<>(locations.size());
+        Map<String, WeatherQuery> queries = new LinkedHashMap<>();
+        WeatherQuery requested = null;
+        for (BatchWeatherRequestDto.LocationDto location : locations) {
+            requested = weatherService.toQuery(
+                    location.getLat(), location.getLon(),
+                    request.getCurrent(),
+                    request.getHourly(),
+                    request.getDaily(),
+                    request.getForecastDays(),
+                    request.getTimezone(),
+                    request.getTemperatureUnit(),
+                    request.getWindSpeedUnit());
+            WeatherQuery query = UnitConverter.canonical(requested);
+            String key = weatherCacheService.buildKey(query);
+            keyPerLocation.add(key);
+            hotKeyTracker.record(key, query);
+            queries.putIfAbsent(key, query);
+        }
+
+        Map<String, CachedWeather> cached = weatherCacheService.getManyFromCache(queries.keySet());
+
+        Map<String, WeatherResponseDto> resolved = new HashMap<>(queries.size() * 2);
+        Map<String, WeatherQuery> misses = new LinkedHashMap<>();
+        Map<String, WeatherQuery> stale = new LinkedHashMap<>();
+        long now = System.currentTimeMillis();
+        queries.forEach((key, query) -> {
+            CachedWeather entry = cached.get(key);
+            if (entry == null) {
+                misses.put(key, query);
+            } else {
+                resolved.put(key, entry.response());
+                if (!entry.isFresh(now)) stale.put(key, query);
+            }
+        });
+
+        log.info("batch_request locations={} distinctKeys={} misses={} stale={}",
+                locations.size(), queries.size(), misses.size(), stale.size());
+
+        Map<String, String> errors = new HashMap<>();
+        resolved.putAll(fetchAll(misses, errors, RequestPriority.USER));
+        refreshInBackground(stale);
+
+        if (!errors.isEmpty()) {
+            weatherCacheService.getManyLastKnownGood(errors.keySet()).forEach((key, entry) -> {
+                resolved.put(key, entry.asStale().response());
+                errors.remove(key);
+                staleOnError.increment();
+            });
+        }
+
+        // All locations share the requested units, so each distinct key is converted once.
+        WeatherQuery units = requested;
+        resolved.replaceAll((key, response) -> unitConverter.convert(response, units));
+
+        List<BatchWeatherResponseDto.Item> results = new ArrayList<>(locations.size());
+        for (int i = 0; i < locations.size(); i++) {
+            String key = keyPerLocation.get(i);
+            results.add(BatchWeatherResponseDto.Item.builder()
+                    .lat(locations.get(i).getLat())
+                    .lon(locations.get(i).getLon())
+                    .weather(resolved.get(key))
+                    .error(errors.get(key))
+                    .build());
+        }
+        return BatchWeatherResponseDto.builder().results(results).build();
+    }
+
+    // Each miss is claimed through the single-flight shared with single requests: keys someone else is
+    // already fetching are waited for, the rest are grouped by everything but the coordinates
+    // (timezone=auto may already be resolved differently per cell) and sent as comma-separated coordinate
+    // chunks, up to upstream-concurrency at a time. Own chunks are finished before waiting on others.
+    Map<String, WeatherResponseDto> fetchAll(Map<String, WeatherQuery> misses, Map<String, String> errors,
+                                             RequestPriority priority) {
+        Map<String, WeatherResponseDto> fetched = new HashMap<>(misses.size() * 2);
+        if (misses.isEmpty()) return fetched;
+
+        SingleFlight<String, CachedWeather> flights = weatherService.upstreamFetches();
+        Map<String, SingleFlight.Claim<CachedWeather>> leading = new HashMap<>(misses.size() * 2);
+        Map<String, SingleFlight.Claim<CachedWeather>> following = new LinkedHashMap<>();
+        Map<List<Object>, List<Map.Entry<String, WeatherQuery>>> groups = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<String, WeatherQuery> miss : misses.entrySet()) {
+                SingleFlight.Claim<CachedWeather> claim = flights.claim(miss.getKey());
+                if (!claim.leader()) {
+                    following.put(miss.getKey(), claim);
+                    continue;
+                }
+                leading.put(miss.getKey(), claim);
+                groups.computeIfAbsent(signature(miss.getValue()), s -> new ArrayList<>()).add(miss);
+            }
+
+            List<List<Map.Entry<String, WeatherQuery>>> chunks = new ArrayList<>();
+            for (List<Map.Entry<String, WeatherQuery>> group : groups.values()) {
+                for (int from = 0; from < group.size(); from += chunkSize) {
+                    chunks.add(group.subList(from, Math.min(group.size(), from + chunkSize)));
+                }
+            }
+            List<ChunkResponse> responses = chunks.isEmpty() ? List.of() : Flux.fromIterable(chunks)
+                    .flatMap(chunk -> request(chunk, priority)
+                            .map(body -> new ChunkResponse(chunk, body, null))
+                            .defaultIfEmpty(new ChunkResponse(chunk, new byte[0], null))
+                            .onErrorResume(ex -> Mono.just(new ChunkResponse(chunk, null, ex))), upstreamConcurrency)
+                    .collectList()
+                    .block();
+
+            for (ChunkResponse response : responses) {
+                try {
+                    store(response.chunk(), decode(response)).forEach((key, entry) -> {
+                        flights.complete(key, leading.remove(key), entry);
+                        fetched.put(key, entry.response());
+                    });
+                } catch (RuntimeException ex) {
+                    log.warn("batch_chunk_failed size={} message={}", response.chunk().size(), ex.getMessage());
+                    for (Map.Entry<String, WeatherQuery> entry : response.chunk()) {
+                        errors.put(entry.getKey(), message(ex));
+                        flights.fail(entry.getKey(), leading.remove(entry.getKey()), ex);
+                    }
+                }
+            }
+        } finally {
+            // Nothing may stay claimed, or every later request for the key would wait on it.
+            RuntimeException abandoned = new ApiException(HttpStatus.BAD_GATEWAY, "Failed to fetch weather data from provider");
+            leading.forEach((key, claim) -> flights.fail(key, claim, abandoned));
+        }
+
+        following.forEach((key, claim) -> {
+            try {
+                fetched.put(key, flights.join(claim).response());
+            } catch (RuntimeException ex) {
+                errors.put(key, message(ex));
+            }
+        });
+        return fetched;
+    }
+
+    private record ChunkResponse(List<Map.Entry<String, WeatherQuery>> chunk, byte[] body, Throwable error) {
+    }
+
+    private static String message(RuntimeException ex) {
+        return ex instanceof ApiException ? ex.getMessage() : "Failed to fetch weather data from provider";
+    }
+
+    static List<Object> signature(WeatherQuery q) {
+        return List.of(
+                Objects.toString(q.currentVars()), Objects.toString(q.hourlyVars()), Objects.toString(q.dailyVars()),
+                q.forecastDays(), Objects.toString(q.timezone()),
+                Objects.toString(q.temperatureUnit()), Objects.toString(q.windSpeedUnit()));
+    }
+
+    int chunkSize() {
+        return chunkSize;
+    }
+
+    private Mono<byte[]> request(List<Map.Entry<String, WeatherQuery>> chunk, RequestPriority priority) {
+        double[] lats = new double[chunk.size()];
+        double[] lons = new double[chunk.size()];
+        for (int i = 0; i < chunk.size(); i++) {
+            lats[i] = chunk.get(i).getValue().latitude();
+            lons[i] = chunk.get(i).getValue().longitude();
+        }
+        WeatherQuery template = chunk.get(0).getValue();
+
+        batchUpstreamChunksTotal.increment();
+        log.info("calling_openmeteo_batch locations={} forecastDays={} timezone={}",
+                chunk.size(), template.forecastDays(), template.timezone());
+
+        return openMeteoClient.fetchForecastBatchAsync(
+                priority,
+                lats, lons,
+                template.currentVars(),
+                template.hourlyVars(),
+                template.dailyVars(),
+                template.forecastDays(),
+                template.timezone(),
+                template.temperatureUnit(),
+                template.windSpeedUnit());
+    }
+
+    private List<WeatherResponseDto> decode(ChunkResponse response) {
+        if (response.error() instanceof CircuitBreaker.OpenException) {
+            throw new ApiException(HttpStatus.SERVICE_UNAVAILABLE, "Weather provider is temporarily unavailable");
+        }
+        if (response.error() instanceof RateLimitedException) {
+            throw new ApiException(HttpStatus.SERVICE_UNAVAILABLE, "Weather provider request budget exhausted");
+        }
+        if (response.error() != null) {
+            throw new ApiException(HttpStatus.BAD_GATEWAY, "Failed to fetch weather data from provider");
+        }
+        byte[] body = response.body();
+        if (body == null || body.length == 0) {
+            throw new ApiException(HttpStatus.BAD_GATEWAY, "Empty response from weather provider");
+        }
+
+        List<WeatherResponseDto> forecasts;
+        try {
+            forecasts = forecastDecoder.decodeAll(body);
+        } catch (Exception ex) {
+            log.error("openmeteo_decode_error message={}", ex.getMessage(), ex);
+            throw new ApiException(HttpStatus.BAD_GATEWAY, "Unreadable response from weather provider");
+        }
+        if (forecasts.size() != response.chunk().size()) {
+            throw new ApiException(HttpStatus.BAD_GATEWAY, "Weather provider returned " + forecasts.size()
+                    + " forecasts for " + response.chunk().size() + " locations");
+        }
+        return forecasts;
+    }
+
+    // Returns the entries of the chunk's own keys; timezone=auto results are also written under their
+    // resolved zone's key, like on the single path.
+    private Map<String, CachedWeather> store(List<Map.Entry<String, WeatherQuery>> chunk, List<WeatherResponseDto> forecasts) {
+        Map<String, WeatherResponseDto> responses = new LinkedHashMap<>(chunk.size() * 4);
+        Map<String, WeatherQuery> locationQueries = new LinkedHashMap<>(chunk.size() * 4);
+        for (int i = 0; i < chunk.size(); i++) {
+            String key = chunk.get(i).getKey();
+            WeatherQuery query = chunk.get(i).getValue();
+            WeatherResponseDto forecast = forecasts.get(i);
+            WeatherResponseDto response = weatherService.finishResponse(query, forecast);
+            queryCanonicalizer.rememberTimezone(query, response.getTimezone());
+            responses.put(key, response);
+            locationQueries.put(key, query);
+
+            WeatherQuery resolved = WeatherService.resolvedTimezoneQuery(query, response);
+            if (resolved != null) {
+                responses.putIfAbsent(weatherCacheService.buildKey(resolved), response);
+                locationQueries.put(key, resolved);
+            }
+        }
+        Map<String, CachedWeather> entries = weatherCacheService.putManyToCache(responses);
+        // Registered only once cached, so a nearby lookup never finds a key that isn't there yet.
+        for (int i = 0; i < chunk.size(); i++) {
+            String key = chunk.get(i).getKey();
+            WeatherQuery query = chunk.get(i).getValue();
+            WeatherQuery located = locationQueries.get(key);
+            WeatherResponseDto forecast = forecasts.get(i);
+            nearbyCells.register(query, key, forecast.getLatitude(), forecast.getLongitude());
+            if (located != query) {
+                nearbyCells.register(located, weatherCacheService.buildKey(located), forecast.getLatitude(), forecast.getLongitude());
+            }
+            locationCache.store(located, responses.get(key));
+        }
+        Map<String, CachedWeather> own = new LinkedHashMap<>(chunk.size() * 2);
+        chunk.forEach(entry -> own.put(entry.getKey(), entries.get(entry.getKey())));
+        return own;
+    }
+
+    // Keys another request, batch or the warmer is already refreshing are left to it.
+    private void refreshInBackground(Map<String, WeatherQuery> stale) {
+        Map<String, WeatherQuery> claimed = new LinkedHashMap<>();
+        stale.forEach((key, query) -> {
+            if (weatherService.claimRefresh(key)) claimed.put(key, query);
+        });
+        if (claimed.isEmpty()) return;
+
+        try {
+            weatherRefreshExecutor.execute(() -> {
+                try {
+                    fetchAll(claimed, new HashMap<>(), RequestPriority.REFRESH);
+                } finally {
+                    claimed.keySet().forEach(weatherService::releaseRefresh);
+                }
+            });
+        } catch (TaskRejectedException ex) {
+            claimed.keySet().forEach(weatherService::releaseRefresh);
+            log.warn("batch_refresh_rejected keys={}", claimed.size());
+        }
+    }
+}
@@ -1,23 +1,48 @@
 package dev.emrullaharac.wetterflux.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import dev.emrullaharac.wetterflux.cache.CachedWeather;
+import dev.emrullaharac.wetterflux.cache.HotKeyTracker;
+import dev.emrullaharac.wetterflux.cache.LocationCache;
+import dev.emrullaharac.wetterflux.cache.NearbyCellIndex;
+import dev.emrullaharac.wetterflux.cache.QueryCanonicalizer;
+import dev.emrullaharac.wetterflux.cache.SingleFlight;
 import dev.emrullaharac.wetterflux.cache.WeatherCacheService;
+import dev.emrullaharac.wetterflux.client.CircuitBreaker;
+import dev.emrullaharac.wetterflux.client.ForecastDecoder;
 import dev.emrullaharac.wetterflux.client.OpenMeteoClient;
+import dev.emrullaharac.wetterflux.client.RateLimitedException;
+import dev.emrullaharac.wetterflux.client.RequestPriority;
 import dev.emrullaharac.wetterflux.exception.ApiException;
+import dev.emrullaharac.wetterflux.metrics.WeatherMetrics;
+import dev.emrullaharac.wetterflux.model.domain.WeatherData;
+import dev.emrullaharac.wetterflux.model.domain.WeatherQuery;
 import dev.emrullaharac.wetterflux.model.dto.WeatherResponseDto;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
-import java.util.List;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Slf4j
 @Service
@@ -25,16 +50,50 @@ import java.util.Map;
 public class WeatherService {
 
     private final OpenMeteoClient openMeteoClient;
+    private final ForecastDecoder forecastDecoder;
     private final WeatherCacheService  weatherCacheService;
+    private final LocationCache locationCache;
+    private final NearbyCellIndex nearbyCells;
+    private final QueryCanonicalizer queryCanonicalizer;
+    private final HotKeyTracker hotKeyTracker;
     private final MeterRegistry meterRegistry;
+    private final WeatherMetrics weatherMetrics;
+    private final ObservationRegistry observationRegistry;
+    private final UnitConverter unitConverter;
+    private final ThreadPoolTaskExecutor weatherRefreshExecutor;
+
+    private final Set<String> pendingRefreshes = ConcurrentHashMap.newKeySet();
 
     private Counter weatherRequestsTotal;
     private Timer weatherRequestsDuration;
+    private Counter staleServed;
+    private Counter backgroundRefreshes;
+    private Counter backgroundRefreshFailures;
+    private Counter subsetHits;
+    private Counter subsetMerges;
+    private Counter staleOnError;
+    private Counter nearbyHits;
+    private DistributionSummary nearbyDistance;
+    private SingleFlight<String, CachedWeather> upstreamFetches;
 
     @PostConstruct
     void initMetrics() {
         weatherRequestsTotal = meterRegistry.counter("weather_requests_total");
         weatherRequestsDuration = meterRegistry.timer("weather_requests_duration");
+        staleServed = meterRegistry.counter("weather_cache_stale_served_total");
+        backgroundRefreshes = meterRegistry.counter("weather_cache_background_refresh_total");
+        backgroundRefreshFailures = meterRegistry.counter("weather_cache_background_refresh_failures_total");
+        subsetHits = meterRegistry.counter("weather_cache_subset_hits_total");
+        subsetMerges = meterRegistry.counter("weather_cache_subset_merges_total");
+        staleOnError = meterRegistry.counter("weather_cache_stale_on_error_total");
+        // Each nearby hit is an upstream call the exact key would have needed.
+        nearbyHits = meterRegistry.counter("weather_cache_nearby_hits_total");
+        nearbyDistance = DistributionSummary.builder("weather_cache_nearby_distance_meters")
+                .baseUnit("meters")
+                .register(meterRegistry);
+        upstreamFetches = new SingleFlight<>(
+                meterRegistry.counter("weather_singleflight_leaders_total"),
+                meterRegistry.counter("weather_singleflight_coalesced_total"));
     }
 
     public WeatherResponseDto getWeather(
@@ -48,142 +107,340 @@ public class WeatherService {
             String temperatureUnit,
             String windSpeedUnit
     ) {
-        validateParams(lat, lon, forecastDays, temperatureUnit);
-
-        weatherRequestsTotal.increment();
-
-        return weatherRequestsDuration.record(() -> {
-            String effectiveCurrent = (currentVars == null || currentVars.isBlank())
-                    ? "temperature_2m,wind_speed_10m,weather_code"
-                    : currentVars;
-
-            String effectiveHourly = (hourlyVars == null || hourlyVars.isBlank())
-                    ? "temperature_2m,relative_humidity_2m"
-                    : hourlyVars;
-
-            String effectiveDaily = (dailyVars == null || dailyVars.isBlank())
-                    ? "weather_code,temperature_2m_max,temperature_2m_min"
-                    : dailyVars;
-
-            var cached = weatherCacheService.getFromCache(
-                    lat, lon,
-                    effectiveCurrent,
-                    effectiveHourly,
-                    effectiveDaily,
-                    forecastDays,
-                    timezone,
-                    temperatureUnit,
-                    windSpeedUnit
-            );
-            if (cached.isPresent()) {
-                log.info("cache_hit lat={} lon={} forecastDays={}", lat, lon, forecastDays);
-                return cached.get();
-            }
+        return getWeatherEntry(lat, lon, currentVars, hourlyVars, dailyVars, forecastDays, timezone,
+                temperatureUnit, windSpeedUnit).response();
+    }
 
-            log.info("cache_miss lat={} lon={} forecastDays={}", lat, lon, forecastDays);
-
-            log.info("calling_openmeteo lat={} lon={} forecastDays={} timezone={}",
-                    lat, lon, forecastDays, timezone);
-
-            JsonNode root;
-
-            try {
-                root = openMeteoClient.fetchForecast(
-                        lat, lon,
-                        effectiveCurrent,
-                        effectiveHourly,
-                        effectiveDaily,
-                        forecastDays,
-                        timezone,
-                        temperatureUnit,
-                        windSpeedUnit);
-            } catch (Exception ex) {
-                throw new ApiException(HttpStatus.BAD_GATEWAY, "Failed to fetch weather data from provider");
-            }
+    public CachedWeather getWeatherEntry(
+            double lat,
+            double lon,
+            String currentVars,
+            String hourlyVars,
+            String dailyVars,
+            Integer forecastDays,
+            String timezone,
+            String temperatureUnit,
+            String windSpeedUnit
+    ) {
+        // One observation per request (a span once tracing is on, weather_request{outcome, forecast_days}
+        // otherwise); the stages inside are timed separately as weather_stage_duration.
+        Observation observation = Observation.createNotStarted("weather_request", observationRegistry)
+                .lowCardinalityKeyValue("forecast_days", WeatherMetrics.daysBucket(forecastDays))
+                .lowCardinalityKeyValue("outcome", WeatherMetrics.ERROR);
+
+        return observation.observe(() -> {
+            weatherMetrics.time(WeatherMetrics.VALIDATE, forecastDays,
+                    () -> validateParams(lat, lon, forecastDays, temperatureUnit, windSpeedUnit));
+
+            weatherRequestsTotal.increment();
+
+            return weatherRequestsDuration.record(() -> {
+                long keyStart = System.nanoTime();
+                WeatherQuery requested = toQuery(lat, lon, currentVars, hourlyVars, dailyVars, forecastDays,
+                        timezone, temperatureUnit, windSpeedUnit);
+                WeatherQuery query = UnitConverter.canonical(requested);
+                String cacheKey = weatherCacheService.buildKey(query);
+                weatherMetrics.record(WeatherMetrics.KEY, WeatherMetrics.OK, forecastDays, keyStart);
+                hotKeyTracker.record(cacheKey, query);
+
+                return unitConverter.convert(
+                        lookup(observation, query, cacheKey, forecastDays, RequestPriority.USER), requested);
+            });
+        });
+    }
 
-            if (root == null || root.isMissingNode()) {
-                throw new ApiException(HttpStatus.BAD_GATEWAY, "Empty response from weather provider");
-            }
+    // For internal loops such as the stream topics: not a user request, so no request metrics and no
+    // hot-key sample, and upstream calls come out of the refresh budget. The query is from toQuery.
+    CachedWeather getWeatherEntryForRefresh(WeatherQuery requested) {
+        WeatherQuery query = UnitConverter.canonical(requested);
+        String cacheKey = weatherCacheService.buildKey(query);
+        return unitConverter.convert(
+                lookup(Observation.NOOP, query, cacheKey, query.forecastDays(), RequestPriority.REFRESH), requested);
+    }
 
-            String tz = text(root, "timezone");
-            String tzAbbr = text(root, "timezone_abbreviation");
-
-            // CURRENT
-            Double currentTemp = null, currentWind = null;
-            Integer currentCode = null;
-            String currentTimeIso = null;
-            JsonNode current = root.get("current");
-            if (current != null && !current.isMissingNode()) {
-                currentTemp = number(current, "temperature_2m");
-                currentWind = number(current, "wind_speed_10m");
-                currentTimeIso =  text(current, "time");
-                if (current.hasNonNull("weather_code")) {
-                    currentCode = current.get("weather_code").isInt()
-                            ? current.get("weather_code").asInt()
-                            : null;
+    // Cache, then single-flighted upstream fetch, then last known good; query is in canonical units.
+    private CachedWeather lookup(Observation observation, WeatherQuery query, String cacheKey, Integer forecastDays,
+                                 RequestPriority priority) {
+        Function<RequestPriority, CachedWeather> loader = fetchPriority -> {
+            WeatherResponseDto response = fetchFromProvider(query, fetchPriority);
+            double gridLatitude = response.getLatitude();
+            double gridLongitude = response.getLongitude();
+            finishResponse(query, response);
+            queryCanonicalizer.rememberTimezone(query, response.getTimezone());
+            WeatherQuery resolved = resolvedTimezoneQuery(query, response);
+            return weatherMetrics.time(WeatherMetrics.CACHE_SET, query.forecastDays(), () -> {
+                CachedWeather entry = weatherCacheService.putToCache(cacheKey, response);
+                locationCache.store(resolved != null ? resolved : query, response);
+                nearbyCells.register(query, cacheKey, gridLatitude, gridLongitude);
+                if (resolved != null) {
+                    String resolvedKey = weatherCacheService.buildKey(resolved);
+                    weatherCacheService.putEntry(resolvedKey, entry);
+                    nearbyCells.register(resolved, resolvedKey, gridLatitude, gridLongitude);
                 }
-            }
+                return entry;
+            });
+        };
 
-            // HOURLY
-            List<String> hourlyTime = new ArrayList<>();
-            Map<String, List<Double>> hourlyValues = new LinkedHashMap<>();
-            Map<String, String> hourlyUnits = new LinkedHashMap<>();
+        long lookupStart = System.nanoTime();
+        Optional<CachedWeather> cached;
+        try {
+            cached = weatherCacheService.getFromCache(cacheKey);
+        } catch (RuntimeException ex) {
+            weatherMetrics.record(WeatherMetrics.CACHE_GET, WeatherMetrics.ERROR, forecastDays, lookupStart);
+            throw ex;
+        }
 
-            JsonNode hourly = root.get("hourly");
-            JsonNode hourlyUnitsNode = root.get("hourly_units");
-            if (hourlyUnitsNode != null && hourlyUnitsNode.isObject()) {
-                hourlyUnitsNode.properties().forEach(e ->
-                        hourlyUnits.put(e.getKey(), e.getValue().asText()));
+        double lat = query.latitude();
+        double lon = query.longitude();
+        if (cached.isPresent()) {
+            CachedWeather entry = cached.get();
+            if (entry.isFresh(System.currentTimeMillis())) {
+                log.info("cache_hit lat={} lon={} forecastDays={}", lat, lon, forecastDays);
+                outcome(observation, WeatherMetrics.HIT, forecastDays, lookupStart);
+            } else {
+                log.info("cache_stale lat={} lon={} forecastDays={}", lat, lon, forecastDays);
+                outcome(observation, WeatherMetrics.STALE, forecastDays, lookupStart);
+                staleServed.increment();
+                refreshInBackground(cacheKey, () -> loader.apply(RequestPriority.REFRESH));
             }
-            if (hourly != null && hourly.isObject()) {
-                JsonNode timeArr = hourly.get("time");
-                if (timeArr != null && timeArr.isArray()) {
-                    for (JsonNode t : timeArr) hourlyTime.add(t.asText());
+            return entry;
+        }
+
+        Optional<CachedWeather> nearby = fromNearbyCell(query, cacheKey);
+        if (nearby.isPresent()) {
+            outcome(observation, WeatherMetrics.NEARBY, forecastDays, lookupStart);
+            return nearby.get();
+        }
+
+        log.info("cache_miss lat={} lon={} forecastDays={}", lat, lon, forecastDays);
+        weatherMetrics.record(WeatherMetrics.CACHE_GET, WeatherMetrics.MISS, forecastDays, lookupStart);
+
+        CachedWeather entry;
+        try {
+            entry = upstreamFetches.execute(cacheKey,
+                    () -> loadFromLocation(query, cacheKey, priority).orElseGet(() -> loader.apply(priority)));
+        } catch (ApiException ex) {
+            if (!ex.getStatus().is5xxServerError()) throw ex;
+            entry = lastKnownGood(cacheKey).orElseThrow(() -> ex);
+            observation.lowCardinalityKeyValue("outcome", WeatherMetrics.STALE);
+            return entry;
+        }
+        observation.lowCardinalityKeyValue("outcome", WeatherMetrics.MISS);
+        return entry;
+    }
+
+    // A fresh entry whose provider grid point lies within the configured distance answers for this
+    // cell too; it is served as is (its own coordinates) and not copied under this key.
+    private Optional<CachedWeather> fromNearbyCell(WeatherQuery query, String cacheKey) {
+        Optional<NearbyCellIndex.Match> match = nearbyCells.nearest(query, cacheKey);
+        if (match.isEmpty()) return Optional.empty();
+
+        String nearbyKey = match.get().cacheKey();
+        Optional<CachedWeather> entry = weatherCacheService.peek(nearbyKey)
+                .filter(e -> e.isFresh(System.currentTimeMillis()));
+        if (entry.isEmpty()) {
+            nearbyCells.forget(nearbyKey);
+            return Optional.empty();
+        }
+        nearbyHits.increment();
+        nearbyDistance.record(match.get().distanceMeters());
+        log.info("cache_nearby lat={} lon={} distanceMeters={}",
+                query.latitude(), query.longitude(), Math.round(match.get().distanceMeters()));
+        return entry;
+    }
+
+    private void outcome(Observation observation, String outcome, Integer forecastDays, long lookupStart) {
+        weatherMetrics.record(WeatherMetrics.CACHE_GET, outcome, forecastDays, lookupStart);
+        observation.lowCardinalityKeyValue("outcome", outcome);
+    }
+
+    Optional<CachedWeather> lastKnownGood(String cacheKey) {
+        Optional<CachedWeather> entry = weatherCacheService.getLastKnownGood(cacheKey).map(CachedWeather::asStale);
+        if (entry.isPresent()) {
+            staleOnError.increment();
+            log.warn("cache_stale_on_error keyHash={} fetchedAt={}", cacheKey.hashCode(), entry.get().fetchedAt());
+        }
+        return entry;
+    }
+
+    private Optional<CachedWeather> loadFromLocation(WeatherQuery query, String cacheKey, RequestPriority priority) {
+        if (!locationCache.isEnabled()) return Optional.empty();
+
+        LocationCache.Resolution resolution = locationCache.resolve(query);
+        if (resolution.isEmpty()) return Optional.empty();
+
+        Map<String, CachedWeather> fields = resolution.fields();
+        if (!resolution.isComplete()) {
+            WeatherQuery missing = resolution.missing();
+            log.info("cache_subset_partial lat={} lon={} hourly={} current={}",
+                    query.latitude(), query.longitude(), missing.hourlyVars(), missing.currentVars());
+            WeatherResponseDto fetched = finishResponse(missing, fetchFromProvider(missing, priority));
+            queryCanonicalizer.rememberTimezone(query, fetched.getTimezone());
+            fields.putAll(locationCache.store(missing, fetched));
+        }
+
+        Optional<CachedWeather> merged = locationCache.assemble(query, fields);
+        if (merged.isEmpty()) return Optional.empty();
+
+        (resolution.isComplete() ? subsetHits : subsetMerges).increment();
+        CachedWeather entry = merged.get();
+        finishResponse(query, entry.response());
+        weatherCacheService.putEntry(cacheKey, entry);
+        return Optional.of(entry);
+    }
+
+    WeatherQuery toQuery(
+            double lat,
+            double lon,
+            String currentVars,
+            String hourlyVars,
+            String dailyVars,
+            Integer forecastDays,
+            String timezone,
+            String temperatureUnit,
+            String windSpeedUnit
+    ) {
+        String effectiveCurrent = (currentVars == null || currentVars.isBlank())
+                ? "temperature_2m,wind_speed_10m,weather_code"
+                : currentVars;
+
+        String effectiveHourly = (hourlyVars == null || hourlyVars.isBlank())
+                ? "temperature_2m,relative_humidity_2m"
+                : hourlyVars;
+
+        String effectiveDaily = (dailyVars == null || dailyVars.isBlank())
+                ? "weather_code,temperature_2m_max,temperature_2m_min"
+                : dailyVars;
+
+        return queryCanonicalizer.canonicalize(
+                lat, lon,
+                effectiveCurrent,
+                effectiveHourly,
+                effectiveDaily,
+                forecastDays,
+                timezone,
+                temperatureUnit,
+                windSpeedUnit
+        );
+    }
+
+    // Shared with batch fetches, so a key is fetched upstream once whichever path asks for it.
+    SingleFlight<String, CachedWeather> upstreamFetches() {
+        return upstreamFetches;
+    }
+
+    // One background refresh per key at a time, whether the single, batch or warmer path noticed it;
+    // a claimed key must be released once its refresh finished or was rejected.
+    boolean claimRefresh(String cacheKey) {
+        return !upstreamFetches.isInFlight(cacheKey) && pendingRefreshes.add(cacheKey);
+    }
+
+    void releaseRefresh(String cacheKey) {
+        pendingRefreshes.remove(cacheKey);
+    }
+
+    boolean isRefreshing(String cacheKey) {
+        return pendingRefreshes.contains(cacheKey) || upstreamFetches.isInFlight(cacheKey);
+    }
+
+    private void refreshInBackground(String cacheKey, Supplier<CachedWeather> loader) {
+        if (!claimRefresh(cacheKey)) return;
+
+        try {
+            weatherRefreshExecutor.execute(() -> {
+                try {
+                    backgroundRefreshes.increment();
+                    upstreamFetches.execute(cacheKey, loader);
+                } catch (RuntimeException ex) {
+                    backgroundRefreshFailures.increment();
+                    log.warn("background_refresh_failed keyHash={} message={}", cacheKey.hashCode(), ex.getMessage());
+                } finally {
+                    releaseRefresh(cacheKey);
                 }
-                hourly.fieldNames().forEachRemaining(var -> {
-                    if ("time".equals(var)) return;
-                    JsonNode arr = hourly.get(var);
-                    if (arr != null && arr.isArray()) {
-                        List<Double> vals = new ArrayList<>(arr.size());
-                        for (JsonNode v : arr) vals.add(v.isNumber() ? v.asDouble() : null);
-                        hourlyValues.put(var, vals);
-                    }
-                });
-            }
+            });
+        } catch (TaskRejectedException ex) {
+            releaseRefresh(cacheKey);
+            log.warn("background_refresh_rejected keyHash={}", cacheKey.hashCode());
+        }
+    }
 
-            String description = mapWeatherCodeToText(currentCode);
-
-            WeatherResponseDto response = WeatherResponseDto.builder()
-                    .latitude(lat)
-                    .longitude(lon)
-                    .timezone(tz)
-                    .timezoneAbbreviation(tzAbbr)
-                    .currentTemperature2m(currentTemp)
-                    .currentWindSpeed10m(currentWind)
-                    .currentWeatherCode(currentCode)
-                    .description(description)
-                    .currentTimeIso(currentTimeIso)
-                    .hourlyTime(hourlyTime)
-                    .hourlyValues(hourlyValues)
-                    .hourlyUnits(hourlyUnits)
-                    .build();
-
-            weatherCacheService.putToCache(
-                    lat, lon,
-                    effectiveCurrent,
-                    effectiveHourly,
-                    effectiveDaily,
-                    forecastDays,
-                    timezone,
-                    temperatureUnit,
-                    windSpeedUnit,
-                    response
-            );
-            return response;
-        });
+    // As decoded: latitude/longitude are still the provider's grid point until finishResponse.
+    private WeatherResponseDto fetchFromProvider(WeatherQuery query, RequestPriority priority) {
+        log.info("calling_openmeteo lat={} lon={} forecastDays={} timezone={}",
+                query.latitude(), query.longitude(), query.forecastDays(), query.timezone());
+
+        byte[] body;
+
+        long upstreamStart = System.nanoTime();
+        String outcome = WeatherMetrics.ERROR;
+        try {
+            body = openMeteoClient.fetchForecast(
+                    priority,
+                    query.latitude(), query.longitude(),
+                    query.currentVars(),
+                    query.hourlyVars(),
+                    query.dailyVars(),
+                    query.forecastDays(),
+                    query.timezone(),
+                    query.temperatureUnit(),
+                    query.windSpeedUnit());
+            outcome = WeatherMetrics.OK;
+        } catch (CircuitBreaker.OpenException ex) {
+            throw new ApiException(HttpStatus.SERVICE_UNAVAILABLE, "Weather provider is temporarily unavailable");
+        } catch (RateLimitedException ex) {
+            throw new ApiException(HttpStatus.SERVICE_UNAVAILABLE, "Weather provider request budget exhausted");
+        } catch (Exception ex) {
+            throw new ApiException(HttpStatus.BAD_GATEWAY, "Failed to fetch weather data from provider");
+        } finally {
+            weatherMetrics.record(WeatherMetrics.UPSTREAM, outcome, query.forecastDays(), upstreamStart);
+        }
+
+        return decode(query, body);
+    }
+
+    WeatherResponseDto decodeForecast(WeatherQuery query, byte[] body) {
+        return finishResponse(query, decode(query, body));
     }
 
-    private void validateParams(double lat, double lon, Integer forecastDays, String temperatureUnit) {
+    private WeatherResponseDto decode(WeatherQuery query, byte[] body) {
+        if (body == null || body.length == 0) {
+            throw new ApiException(HttpStatus.BAD_GATEWAY, "Empty response from weather provider");
+        }
+
+        WeatherResponseDto response;
+        long decodeStart = System.nanoTime();
+        try {
+            response = forecastDecoder.decode(body);
+        } catch (Exception ex) {
+            weatherMetrics.record(WeatherMetrics.DECODE, WeatherMetrics.ERROR, query.forecastDays(), decodeStart);
+            log.error("openmeteo_decode_error message={}", ex.getMessage(), ex);
+            throw new ApiException(HttpStatus.BAD_GATEWAY, "Unreadable response from weather provider");
+        }
+        weatherMetrics.record(WeatherMetrics.DECODE, WeatherMetrics.OK, query.forecastDays(), decodeStart);
+        return response;
+    }
+
+    // Once rememberTimezone ran, a timezone=auto request for the cell canonicalizes to the resolved zone,
+    // so an auto fetch is also cached under that key; the auto key still serves nodes that have not
+    // resolved the cell yet. Null when the query was not auto or the provider named no zone.
+    static WeatherQuery resolvedTimezoneQuery(WeatherQuery query, WeatherResponseDto response) {
+        String timezone = response.getTimezone();
+        if (!QueryCanonicalizer.AUTO_TIMEZONE.equals(query.timezone()) || timezone == null || timezone.isBlank()) {
+            return null;
+        }
+        return query.withTimezone(timezone);
+    }
+
+    // Responses report the snapped cell, not the caller's coordinates: every request of the cell is served
+    // the same cached entry and body. With grid snapping off the two are the same.
+    WeatherResponseDto finishResponse(WeatherQuery query, WeatherResponseDto response) {
+        response.setLatitude(query.latitude());
+        response.setLongitude(query.longitude());
+        response.setDescription(mapWeatherCodeToText(response.getCurrentWeatherCode()));
+        return response;
+    }
+
+    void validateParams(double lat, double lon, Integer forecastDays, String temperatureUnit, String windSpeedUnit) {
         if (lat < -90 || lat > 90) {
             throw new ApiException(HttpStatus.BAD_REQUEST, "lat is out of range, must be between -90 and 90.");
         }
@@ -201,18 +458,79 @@ public class WeatherService {
                 && !temperatureUnit.equalsIgnoreCase("fahrenheit")) {
             throw new ApiException(HttpStatus.BAD_REQUEST, "temperatureUnit must be either 'celsius' or 'fahrenheit'");
         }
+
+        if (windSpeedUnit != null
+                && !windSpeedUnit.equalsIgnoreCase("kmh")
+                && !windSpeedUnit.equalsIgnoreCase("ms")
+                && !windSpeedUnit.equalsIgnoreCase("mph")
+                && !windSpeedUnit.equalsIgnoreCase("kn")) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "windSpeedUnit must be one of 'kmh', 'ms', 'mph' or 'kn'");
+        }
+    }
+
+    // Narrows a (cached, full) response to [from, to) and the requested variables. Bounds are provider-local
+    // ISO dates or date-times, or "now"; a daily point is kept when its day overlaps the window.
+    public WeatherResponseDto slice(WeatherResponseDto response, String from, String to, String fields) {
+        boolean hasFields = fields != null && !fields.isBlank();
+        if (from == null && to == null && !hasFields) return response;
+
+        long fromSecond = from == null ? Long.MIN_VALUE : parseBound("from", from, response);
+        long toSecond = to == null ? Long.MAX_VALUE : parseBound("to", to, response);
+        if (fromSecond >= toSecond) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "from must be before to.");
+        }
+        long fromDay = fromSecond == Long.MIN_VALUE ? Long.MIN_VALUE : Math.floorDiv(fromSecond, 86_400L) * 86_400L;
+
+        Set<String> names = null;
+        if (hasFields) {
+            names = new LinkedHashSet<>();
+            for (String field : fields.split(",")) {
+                if (!field.isBlank()) names.add(field.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+
+        return response.toBuilder()
+                .hourly(sliceSeries(response.getHourly(), fromSecond, toSecond, names))
+                .daily(sliceSeries(response.getDaily(), fromDay, toSecond, names))
+                .build();
     }
 
-    private String text(JsonNode node, String field) {
-        return node != null && node.hasNonNull(field) ? node.get(field).asText() : null;
+    private static WeatherData sliceSeries(WeatherData series, long from, long to, Set<String> names) {
+        if (series == null) return null;
+        Collection<String> columns = names != null ? names : series.getColumns().keySet();
+        if (columns.stream().noneMatch(series.getColumns()::containsKey)) return WeatherData.EMPTY;
+        return series.slice(series.countBefore(from), series.countBefore(to), columns);
     }
 
-    private Double number(JsonNode node, String field) {
-        return node != null && node.hasNonNull(field) && node.get(field).isNumber()
-                ? node.get(field).asDouble() : null;
+    private static long parseBound(String name, String value, WeatherResponseDto response) {
+        String bound = value.trim();
+        if (bound.equalsIgnoreCase("now")) {
+            Instant now = Instant.now();
+            return now.getEpochSecond() + utcOffsetSeconds(response, now);
+        }
+        if (bound.length() != 10 && bound.length() != 16 && bound.length() != 19) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, name + " must be an ISO date, date-time or 'now'.");
+        }
+        try {
+            return WeatherData.parseEpochSecond(bound);
+        } catch (RuntimeException ex) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, name + " must be an ISO date, date-time or 'now'.");
+        }
+    }
+
+    // Series times are local to the response's timezone. Entries read back from JSON values carry no
+    // provider offset, so it is derived from the timezone name then.
+    private static int utcOffsetSeconds(WeatherResponseDto response, Instant at) {
+        if (response.getUtcOffsetSeconds() != null) return response.getUtcOffsetSeconds();
+        if (response.getTimezone() == null) return 0;
+        try {
+            return ZoneId.of(response.getTimezone()).getRules().getOffset(at).getTotalSeconds();
+        } catch (DateTimeException ex) {
+            return 0;
+        }
     }
 
-    private static String mapWeatherCodeToText(Integer code) {
+    static String mapWeatherCodeToText(Integer code) {
         if (code == null) {return null;}
 
         return switch (code) {
@@ -0,0 +1,322 @@
+package dev.emrullaharac.wetterflux.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import dev.emrullaharac.wetterflux.cache.CachedWeather;
+import dev.emrullaharac.wetterflux.cache.WeatherCacheService;
+import dev.emrullaharac.wetterflux.exception.ApiException;
+import dev.emrullaharac.wetterflux.model.domain.WeatherQuery;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Subscribers of the same cache key share one topic: a single refresh loop polls the cache for the
+// topic and fans out a JSON merge patch of the fields that changed ("update"). A subscriber whose
+// previous send has not finished is not queued up; it gets a fresh "snapshot" once it catches up.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class WeatherStreamService {
+
+    private final WeatherService weatherService;
+    private final WeatherCacheService weatherCacheService;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolTaskExecutor weatherStreamExecutor;
+
+    @Value("${weather.stream.max-topics:10000}")
+    private int maxTopics;
+
+    @Value("${weather.stream.max-subscribers:50000}")
+    private int maxSubscribers;
+
+    @Value("${weather.stream.min-refresh-seconds:60}")
+    private long minRefreshSeconds;
+
+    @Value("${weather.stream.timeout-minutes:30}")
+    private long timeoutMinutes;
+
+    private final ConcurrentMap<String, Topic> topics = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private Counter eventsSent;
+    private Counter sendFailures;
+    private Counter coalesced;
+    private Counter rejected;
+    private DistributionSummary fanOutSize;
+    private Timer refreshDuration;
+
+    private static final class Topic {
+        final String key;
+        final WeatherQuery query;
+        final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        final AtomicBoolean refreshing = new AtomicBoolean();
+        volatile JsonNode last;
+        volatile String lastJson;
+        volatile long nextRefreshAt;
+
+        Topic(String key, WeatherQuery query) {
+            this.key = key;
+            this.query = query;
+        }
+    }
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final AtomicBoolean sending = new AtomicBoolean();
+        volatile boolean needsSnapshot;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+
+    @PostConstruct
+    void initMetrics() {
+        eventsSent = meterRegistry.counter("weather_stream_events_total");
+        sendFailures = meterRegistry.counter("weather_stream_send_failures_total");
+        coalesced = meterRegistry.counter("weather_stream_backpressure_coalesced_total");
+        rejected = meterRegistry.counter("weather_stream_rejected_total");
+        fanOutSize = DistributionSummary.builder("weather_stream_fanout_size").register(meterRegistry);
+        refreshDuration = meterRegistry.timer("weather_stream_refresh_duration");
+        meterRegistry.gauge("weather_stream_topics", topics, Map::size);
+        meterRegistry.gauge("weather_stream_subscribers", subscriberCount, AtomicInteger::get);
+    }
+
+    public SseEmitter subscribe(
+            double lat,
+            double lon,
+            String currentVars,
+            String hourlyVars,
+            String dailyVars,
+            Integer forecastDays,
+            String timezone,
+            String temperatureUnit,
+            String windSpeedUnit
+    ) {
+        if (subscriberCount.get() >= maxSubscribers) {
+            rejected.increment();
+            throw new ApiException(HttpStatus.SERVICE_UNAVAILABLE, "Too many stream subscribers, try again later.");
+        }
+
+        CachedWeather entry = weatherService.getWeatherEntry(lat, lon, currentVars, hourlyVars, dailyVars,
+                forecastDays, timezone, temperatureUnit, windSpeedUnit);
+        WeatherQuery query = weatherService.toQuery(lat, lon, currentVars, hourlyVars, dailyVars,
+                forecastDays, timezone, temperatureUnit, windSpeedUnit);
+        String key = weatherCacheService.buildKey(query);
+
+        if (!topics.containsKey(key) && topics.size() >= maxTopics) {
+            rejected.increment();
+            throw new ApiException(HttpStatus.SERVICE_UNAVAILABLE, "Too many streamed locations, try again later.");
+        }
+
+        SseEmitter emitter = new SseEmitter(Duration.ofMinutes(timeoutMinutes).toMillis());
+        Subscriber subscriber = new Subscriber(emitter);
+        subscriber.sending.set(true);
+        Topic topic = topics.compute(key, (k, existing) -> {
+            Topic t = existing != null ? existing : new Topic(k, query);
+            t.subscribers.add(subscriber);
+            return t;
+        });
+        subscriberCount.incrementAndGet();
+        emitter.onCompletion(() -> unsubscribe(topic, subscriber));
+        emitter.onTimeout(() -> unsubscribe(topic, subscriber));
+        emitter.onError(ex -> unsubscribe(topic, subscriber));
+
+        synchronized (topic) {
+            if (topic.last == null) {
+                publish(topic, entry);
+            }
+        }
+        log.info("stream_subscribe keyHash={} subscribers={}", key.hashCode(), topic.subscribers.size());
+
+        try {
+            emitter.send(SseEmitter.event().name("snapshot").data(topic.lastJson));
+            eventsSent.increment();
+        } catch (IOException ex) {
+            unsubscribe(topic, subscriber);
+            emitter.completeWithError(ex);
+            return emitter;
+        } finally {
+            subscriber.sending.set(false);
+        }
+        if (subscriber.needsSnapshot) {
+            subscriber.needsSnapshot = false;
+            sendSnapshot(topic, subscriber);
+        }
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${weather.stream.tick-ms:5000}")
+    public void refreshTopics() {
+        long now = System.currentTimeMillis();
+        for (Topic topic : topics.values()) {
+            if (topic.subscribers.isEmpty()) {
+                topics.computeIfPresent(topic.key, (k, t) -> t.subscribers.isEmpty() ? null : t);
+                continue;
+            }
+            if (now < topic.nextRefreshAt || !topic.refreshing.compareAndSet(false, true)) continue;
+            try {
+                weatherStreamExecutor.execute(() -> refresh(topic));
+            } catch (TaskRejectedException ex) {
+                topic.refreshing.set(false);
+                log.warn("stream_refresh_rejected keyHash={}", topic.key.hashCode());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${weather.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (Topic topic : topics.values()) {
+            for (Subscriber subscriber : topic.subscribers) {
+                send(topic, subscriber, null);
+            }
+        }
+    }
+
+    private void refresh(Topic topic) {
+        try {
+            refreshDuration.record(() -> {
+                CachedWeather entry = weatherService.getWeatherEntryForRefresh(topic.query);
+                String patch;
+                synchronized (topic) {
+                    patch = publish(topic, entry);
+                }
+                if (patch != null) {
+                    fanOutSize.record(topic.subscribers.size());
+                    for (Subscriber subscriber : topic.subscribers) {
+                        send(topic, subscriber, patch);
+                    }
+                }
+            });
+        } catch (RuntimeException ex) {
+            topic.nextRefreshAt = System.currentTimeMillis() + Duration.ofSeconds(minRefreshSeconds).toMillis();
+            log.warn("stream_refresh_failed keyHash={} message={}", topic.key.hashCode(), ex.getMessage());
+        } finally {
+            topic.refreshing.set(false);
+        }
+    }
+
+    // Stores the entry as the topic's latest state and returns the merge patch against the previous one,
+    // or null when nothing changed.
+    private String publish(Topic topic, CachedWeather entry) {
+        long now = System.currentTimeMillis();
+        topic.nextRefreshAt = Math.max(entry.softExpiresAt(), now + Duration.ofSeconds(minRefreshSeconds).toMillis());
+
+        JsonNode next = objectMapper.valueToTree(entry.response());
+        JsonNode previous = topic.last;
+        if (next.equals(previous)) return null;
+
+        try {
+            topic.lastJson = objectMapper.writeValueAsString(next);
+            topic.last = next;
+            return previous == null ? null : objectMapper.writeValueAsString(diff(previous, next));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    // patch == null sends a keep-alive comment.
+    private void send(Topic topic, Subscriber subscriber, String patch) {
+        if (!subscriber.sending.compareAndSet(false, true)) {
+            if (patch != null) {
+                subscriber.needsSnapshot = true;
+                coalesced.increment();
+            }
+            return;
+        }
+        try {
+            weatherStreamExecutor.execute(() -> {
+                try {
+                    if (patch == null) {
+                        subscriber.emitter.send(SseEmitter.event().comment("keep-alive"));
+                    } else {
+                        subscriber.emitter.send(SseEmitter.event().name("update").data(patch));
+                        eventsSent.increment();
+                    }
+                } catch (IOException | IllegalStateException ex) {
+                    sendFailures.increment();
+                    unsubscribe(topic, subscriber);
+                    return;
+                } finally {
+                    subscriber.sending.set(false);
+                }
+                if (subscriber.needsSnapshot) {
+                    subscriber.needsSnapshot = false;
+                    sendSnapshot(topic, subscriber);
+                }
+            });
+        } catch (TaskRejectedException ex) {
+            subscriber.sending.set(false);
+            if (patch != null) {
+                subscriber.needsSnapshot = true;
+                coalesced.increment();
+            }
+        }
+    }
+
+    private void sendSnapshot(Topic topic, Subscriber subscriber) {
+        if (!subscriber.sending.compareAndSet(false, true)) {
+            subscriber.needsSnapshot = true;
+            return;
+        }
+        try {
+            subscriber.emitter.send(SseEmitter.event().name("snapshot").data(topic.lastJson));
+            eventsSent.increment();
+        } catch (IOException | IllegalStateException ex) {
+            sendFailures.increment();
+            unsubscribe(topic, subscriber);
+        } finally {
+            subscriber.sending.set(false);
+        }
+    }
+
+    private void unsubscribe(Topic topic, Subscriber subscriber) {
+        if (topic.subscribers.remove(subscriber)) {
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    static ObjectNode diff(JsonNode previous, JsonNode next) {
+        ObjectNode patch = JsonNodeFactory.instance.objectNode();
+        for (Map.Entry<String, JsonNode> field : next.properties()) {
+            JsonNode old = previous.get(field.getKey());
+            JsonNode value = field.getValue();
+            if (value.equals(old)) continue;
+            if (old != null && old.isObject() && value.isObject()) {
+                patch.set(field.getKey(), diff(old, value));
+            } else {
+                patch.set(field.getKey(), value);
+            }
+        }
+        previous.fieldNames().forEachRemaining(name -> {
+            if (!next.has(name)) patch.putNull(name);
+        });
+        return patch;
+    }
+}
@@ -0,0 +1,109 @@
+package dev.emrullaharac.wetterflux.cache;
+
+import dev.emrullaharac.wetterflux.model.domain.WeatherData;
+import dev.emrullaharac.wetterflux.model.dto.WeatherResponseDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveTtlPolicyTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AdaptiveTtlPolicy policy = new AdaptiveTtlPolicy(registry);
+
+    AdaptiveTtlPolicyTest() {
+        ReflectionTestUtils.setField(policy, "enabled", true);
+        ReflectionTestUtils.setField(policy, "modelUpdateMinutes", 60L);
+        ReflectionTestUtils.setField(policy, "modelAvailabilityDelayMinutes", 10L);
+        ReflectionTestUtils.setField(policy, "currentPublishDelaySeconds", 60L);
+        ReflectionTestUtils.setField(policy, "minSeconds", 60L);
+        ReflectionTestUtils.setField(policy, "maxMinutes", 180L);
+        policy.initMetrics();
+    }
+
+    @Test
+    void currentIsFreshUntilItsNextIntervalSlotIsPublished() {
+        // 14:00 Berlin summer time is 12:00Z; the 15-minute slot after it is published a minute late.
+        WeatherResponseDto berlin = current("2026-10-17T14:00", 7200, 900);
+        assertThat(policy.softExpiresAt(berlin, at("2026-10-17T12:05:00Z"))).isEqualTo(at("2026-10-17T12:16:00Z"));
+
+        WeatherResponseDto utc = current("2026-10-17T12:00", 0, 900);
+        assertThat(policy.softExpiresAt(utc, at("2026-10-17T12:05:00Z"))).isEqualTo(at("2026-10-17T12:16:00Z"));
+
+        WeatherResponseDto newYork = current("2026-10-17T08:00", -4 * 3600, 3600);
+        assertThat(policy.softExpiresAt(newYork, at("2026-10-17T12:05:00Z"))).isEqualTo(at("2026-10-17T13:01:00Z"));
+    }
+
+    @Test
+    void forecastIsFreshUntilTheNextModelRunIsAvailable() {
+        WeatherResponseDto forecast = forecast();
+
+        assertThat(policy.softExpiresAt(forecast, at("2026-10-17T12:05:00Z"))).isEqualTo(at("2026-10-17T12:10:00Z"));
+        assertThat(policy.softExpiresAt(forecast, at("2026-10-17T12:10:00Z"))).isEqualTo(at("2026-10-17T13:10:00Z"));
+        assertThat(policy.softExpiresAt(forecast, at("2026-10-17T12:30:00Z"))).isEqualTo(at("2026-10-17T13:10:00Z"));
+    }
+
+    @Test
+    void takesTheEarlierOfCurrentAndModelRun() {
+        WeatherResponseDto both = forecast();
+        both.setCurrentTimeIso("2026-10-17T12:00");
+        both.setUtcOffsetSeconds(0);
+        both.setCurrentIntervalSeconds(900);
+
+        assertThat(policy.softExpiresAt(both, at("2026-10-17T12:05:00Z"))).isEqualTo(at("2026-10-17T12:10:00Z"));
+        assertThat(policy.softExpiresAt(both, at("2026-10-17T12:11:00Z"))).isEqualTo(at("2026-10-17T12:16:00Z"));
+
+        assertThat(registry.counter("weather_cache_ttl_bound_total", "section", "forecast").count()).isEqualTo(1);
+        assertThat(registry.counter("weather_cache_ttl_bound_total", "section", "current").count()).isEqualTo(1);
+        assertThat(registry.summary("weather_cache_soft_ttl_seconds").count()).isEqualTo(2);
+    }
+
+    @Test
+    void clampsToMinAndMax() {
+        assertThat(policy.softExpiresAt(forecast(), at("2026-10-17T12:09:30Z"))).isEqualTo(at("2026-10-17T12:10:30Z"));
+
+        WeatherResponseDto published = current("2026-10-17T12:00", 0, 900);
+        assertThat(policy.softExpiresAt(published, at("2026-10-17T12:30:00Z"))).isEqualTo(at("2026-10-17T12:31:00Z"));
+
+        WeatherResponseDto daily = current("2026-10-17T00:00", 0, 86_400);
+        assertThat(policy.softExpiresAt(daily, at("2026-10-17T01:00:00Z"))).isEqualTo(at("2026-10-17T04:00:00Z"));
+    }
+
+    @Test
+    void fallsBackWhenThereIsNothingToGoBy() {
+        long now = at("2026-10-17T12:05:00Z");
+
+        assertThat(policy.softExpiresAt(new WeatherResponseDto(), now)).isEqualTo(-1);
+        assertThat(policy.softExpiresAt(current("2026-10-17T12:00", null, 900), now)).isEqualTo(-1);
+        assertThat(policy.softExpiresAt(current("2026-10-17T12:00", 0, 0), now)).isEqualTo(-1);
+        assertThat(policy.softExpiresAt(current("not a time", 0, 900), now)).isEqualTo(-1);
+
+        ReflectionTestUtils.setField(policy, "enabled", false);
+        assertThat(policy.softExpiresAt(forecast(), now)).isEqualTo(-1);
+    }
+
+    private static WeatherResponseDto current(String time, Integer utcOffsetSeconds, Integer intervalSeconds) {
+        return WeatherResponseDto.builder()
+                .currentTimeIso(time)
+                .utcOffsetSeconds(utcOffsetSeconds)
+                .currentIntervalSeconds(intervalSeconds)
+                .build();
+    }
+
+    private static WeatherResponseDto forecast() {
+        WeatherData hourly = WeatherData.builder()
+                .time("2026-10-17T12:00")
+                .time("2026-10-17T13:00")
+                .column("temperature_2m", new double[]{11.4, 12.0})
+                .build();
+        return WeatherResponseDto.builder().hourly(hourly).build();
+    }
+
+    private static long at(String instant) {
+        return Instant.parse(instant).toEpochMilli();
+    }
+}
@@ -0,0 +1,106 @@
+package dev.emrullaharac.wetterflux.cache;
+
+import dev.emrullaharac.wetterflux.config.RedisConfig;
+import dev.emrullaharac.wetterflux.model.domain.WeatherData;
+import dev.emrullaharac.wetterflux.model.dto.WeatherResponseDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BinaryWeatherSerializerTest {
+
+    private final Jackson2JsonRedisSerializer<CachedWeather> json = RedisConfig.jsonWeatherSerializer();
+    private final BinaryWeatherSerializer binary = new BinaryWeatherSerializer(json, false, 0);
+    private final BinaryWeatherSerializer deflated = new BinaryWeatherSerializer(json, true, 0);
+
+    @Test
+    void roundTripsWithAndWithoutCompression() {
+        CachedWeather entry = forecast(16);
+
+        assertThat(binary.deserialize(binary.serialize(entry))).isEqualTo(entry);
+        assertThat(deflated.deserialize(deflated.serialize(entry))).isEqualTo(entry);
+    }
+
+    @Test
+    void keepsNullsAndIrregularTimestamps() {
+        CachedWeather entry = forecast(1);
+        entry.response().setCurrentWeatherCode(null);
+
+        WeatherData irregular = WeatherData.builder()
+                .time("2025-03-30T01:00")
+                .time("2025-03-30T03:00")
+                .time("2025-03-30T03:30")
+                .column("temperature_2m", new double[]{1.5, Double.NaN, Math.PI})
+                .unit("temperature_2m", "°C")
+                .build();
+        entry.response().setHourly(irregular);
+
+        assertThat(irregular.isRegular()).isFalse();
+        assertThat(binary.deserialize(binary.serialize(entry))).isEqualTo(entry);
+    }
+
+    @Test
+    void readsLegacyJsonEntries() {
+        CachedWeather entry = forecast(7);
+
+        assertThat(binary.deserialize(json.serialize(entry))).isEqualTo(entry);
+    }
+
+    @Test
+    void isSmallerThanJson() {
+        CachedWeather entry = forecast(16);
+
+        // 16-day entry: json 17834 B, binary 8748 B (49%), binary + deflate 4001 B (22%).
+        int jsonBytes = json.serialize(entry).length;
+        assertThat(binary.serialize(entry).length).isLessThan(jsonBytes * 55 / 100);
+        assertThat(deflated.serialize(entry).length).isLessThan(jsonBytes * 25 / 100);
+    }
+
+    static CachedWeather forecast(int days) {
+        Random random = new Random(days);
+        int hours = days * 24;
+        LocalDateTime start = LocalDateTime.of(2025, 3, 29, 0, 0);
+
+        WeatherData.Builder hourly = WeatherData.builder();
+        for (int i = 0; i < hours; i++) hourly.time(start.plusHours(i).toString());
+
+        hourly.unit("time", "iso8601");
+        for (String var : List.of("temperature_2m", "relative_humidity_2m", "wind_speed_10m",
+                "precipitation", "cloud_cover")) {
+            double[] series = new double[hours];
+            for (int i = 0; i < hours; i++) series[i] = Math.round(random.nextGaussian() * 100) / 10.0;
+            hourly.column(var, series);
+            hourly.unit(var, "unit");
+        }
+
+        WeatherData.Builder daily = WeatherData.builder();
+        for (int i = 0; i < days; i++) daily.time(start.toLocalDate().plusDays(i).toString());
+        daily.unit("time", "iso8601");
+        for (String var : List.of("weather_code", "temperature_2m_max", "temperature_2m_min")) {
+            double[] series = new double[days];
+            for (int i = 0; i < days; i++) series[i] = Math.round(random.nextGaussian() * 100) / 10.0;
+            daily.column(var, series);
+            daily.unit(var, "unit");
+        }
+
+        WeatherResponseDto dto = WeatherResponseDto.builder()
+                .latitude(52.52)
+                .longitude(13.41)
+                .timezone("Europe/Berlin")
+                .timezoneAbbreviation("CET")
+                .currentTemperature2m(11.4)
+                .currentWindSpeed10m(7.2)
+                .currentWeatherCode(3)
+                .description("Overcast")
+                .currentTimeIso("2025-03-29T10:15")
+                .hourly(hourly.build())
+                .daily(daily.build())
+                .build();
+        return new CachedWeather(dto, 1_743_000_000_000L, 1_743_000_900_000L, 1_743_003_600_000L);
+    }
+}
@@ -0,0 +1,90 @@
+package dev.emrullaharac.wetterflux.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DiskCacheTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsBackAcrossRestartsAndHonoursExpiry() {
+        long now = System.currentTimeMillis();
+        CachedWeather fresh = entry(now + 60_000);
+        CachedWeather hardExpired = entry(now - 1);
+
+        DiskCache disk = open();
+        disk.put("fresh", fresh, now + 120_000);
+        disk.put("last-known-good", hardExpired, now + 120_000);
+        disk.put("gone", hardExpired, now - 1);
+
+        assertThat(disk.get("fresh")).contains(fresh);
+        assertThat(disk.get("fresh").orElseThrow()).isSameAs(disk.get("fresh").orElseThrow());
+        assertThat(disk.get("last-known-good")).isEmpty();
+        assertThat(disk.getLastKnownGood("last-known-good")).contains(hardExpired);
+        assertThat(disk.getLastKnownGood("gone")).isEmpty();
+        disk.close();
+
+        DiskCache reopened = open();
+        assertThat(reopened.get("fresh")).contains(fresh);
+        assertThat(reopened.getLastKnownGood("last-known-good")).contains(hardExpired);
+
+        Map<String, CachedWeather> rehydrated = new HashMap<>();
+        assertThat(reopened.forEachLive(10, rehydrated::put)).isEqualTo(1);
+        assertThat(rehydrated).containsOnlyKeys("fresh");
+    }
+
+    @Test
+    void compactsOverwrittenSegmentsAndKeepsTheLatestValues() throws IOException {
+        long now = System.currentTimeMillis();
+        DiskCache disk = open();
+        for (int round = 0; round < 40; round++) {
+            for (int key = 0; key < 10; key++) {
+                disk.put("key-" + key, entry(now + 60_000 + round), now + 120_000);
+            }
+        }
+        assertThat(segmentFiles()).isGreaterThan(2);
+
+        disk.maintain();
+
+        assertThat(segmentFiles()).isLessThanOrEqualTo(2);
+        for (int key = 0; key < 10; key++) {
+            assertThat(disk.get("key-" + key)).hasValueSatisfying(e -> assertThat(e.hardExpiresAt()).isEqualTo(now + 60_039));
+        }
+    }
+
+    private DiskCache open() {
+        DiskCache disk = new DiskCache(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(disk, "enabled", true);
+        ReflectionTestUtils.setField(disk, "path", dir.toString());
+        ReflectionTestUtils.setField(disk, "segmentSizeMb", 1);
+        ReflectionTestUtils.setField(disk, "maxSizeMb", 64L);
+        ReflectionTestUtils.setField(disk, "compactionThreshold", 0.5);
+        ReflectionTestUtils.setField(disk, "decodedMaxEntries", 100L);
+        disk.init();
+        return disk;
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+
+    private static CachedWeather entry(long hardExpiresAt) {
+        CachedWeather forecast = BinaryWeatherSerializerTest.forecast(16);
+        return new CachedWeather(forecast.response(), hardExpiresAt - 120_000, hardExpiresAt - 60_000, hardExpiresAt);
+    }
+}
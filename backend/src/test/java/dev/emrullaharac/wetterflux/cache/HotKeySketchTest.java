@@ -0,0 +1,112 @@
+package dev.emrullaharac.wetterflux.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HotKeySketchTest {
+
+    private final HotKeySketch<String, String> sketch = new HotKeySketch<>(3);
+
+    @Test
+    void buffersHitsUntilReadOrCapacityPending() {
+        sketch.offer("a", "a1");
+        sketch.offer("a", "a2");
+        sketch.offer("b", "b1");
+        assertThat(sketch.size()).isZero();
+
+        assertThat(sketch.top(10, 0)).containsExactly(
+                new HotKeySketch.HotKey<>("a", "a2", 2, 0),
+                new HotKeySketch.HotKey<>("b", "b1", 1, 0));
+
+        // A third distinct pending key reaches capacity and merges without a read.
+        sketch.offer("c", "c1");
+        sketch.offer("d", "d1");
+        sketch.offer("e", "e1");
+        assertThat(sketch.size()).isEqualTo(3);
+    }
+
+    @Test
+    void newKeyEvictsTheSmallestCounterAndInheritsItAsError() {
+        sketch.offer("a", "a", 5);
+        sketch.offer("b", "b", 3);
+        sketch.top(10, 0);
+        sketch.offer("c", "c", 1);
+        sketch.top(10, 0);
+
+        sketch.offer("d", "d", 1);
+
+        assertThat(sketch.top(10, 0)).containsExactly(
+                new HotKeySketch.HotKey<>("a", "a", 5, 0),
+                new HotKeySketch.HotKey<>("b", "b", 3, 0),
+                new HotKeySketch.HotKey<>("d", "d", 2, 1));
+        assertThat(sketch.size()).isEqualTo(3);
+    }
+
+    @Test
+    void equalCountsEvictTheLeastRecentlyUpdated() {
+        sketch.offer("a", "a", 2);
+        sketch.top(10, 0);
+        sketch.offer("b", "b", 2);
+        sketch.top(10, 0);
+        sketch.offer("c", "c", 2);
+        sketch.top(10, 0);
+
+        sketch.offer("d", "d", 1);
+
+        assertThat(sketch.top(10, 0)).extracting(HotKeySketch.HotKey::key).containsExactly("d", "c", "b");
+        assertThat(sketch.top(1, 0)).containsExactly(new HotKeySketch.HotKey<>("d", "d", 3, 2));
+    }
+
+    @Test
+    void topFiltersOnGuaranteedCount() {
+        sketch.offer("a", "a", 5);
+        sketch.offer("b", "b", 3);
+        sketch.top(10, 0);
+        sketch.offer("c", "c", 1);
+        sketch.top(10, 0);
+        sketch.offer("d", "d", 1);
+
+        // d's count is 2, but only count - error = 1 of it is certain.
+        assertThat(sketch.top(10, 2)).extracting(HotKeySketch.HotKey::key).containsExactly("a", "b");
+        assertThat(sketch.top(10, 4)).extracting(HotKeySketch.HotKey::key).containsExactly("a");
+        assertThat(sketch.top(10, 6)).isEmpty();
+        assertThat(sketch.top(1, 0)).extracting(HotKeySketch.HotKey::key).containsExactly("a");
+        assertThat(sketch.top(0, 0)).isEmpty();
+    }
+
+    @Test
+    void decayHalvesCountsAndErrorsAndDropsZeroes() {
+        sketch.offer("a", "a", 5);
+        sketch.offer("b", "b", 3);
+        sketch.top(10, 0);
+        sketch.offer("c", "c", 1);
+        sketch.top(10, 0);
+        sketch.offer("d", "d", 1);
+        sketch.offer("a", "a", 1);
+
+        sketch.decay();
+
+        List<HotKeySketch.HotKey<String, String>> top = sketch.top(10, 0);
+        assertThat(top).containsExactly(
+                new HotKeySketch.HotKey<>("a", "a", 3, 0),
+                new HotKeySketch.HotKey<>("d", "d", 1, 0),
+                new HotKeySketch.HotKey<>("b", "b", 1, 0));
+
+        sketch.decay();
+
+        assertThat(sketch.top(10, 0)).containsExactly(new HotKeySketch.HotKey<>("a", "a", 1, 0));
+        assertThat(sketch.size()).isEqualTo(1);
+
+        sketch.decay();
+        assertThat(sketch.size()).isZero();
+    }
+
+    @Test
+    void rejectsNonPositiveCapacity() {
+        assertThatThrownBy(() -> new HotKeySketch<String, String>(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
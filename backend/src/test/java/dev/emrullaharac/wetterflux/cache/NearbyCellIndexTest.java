@@ -0,0 +1,53 @@
+package dev.emrullaharac.wetterflux.cache;
+
+import dev.emrullaharac.wetterflux.model.domain.WeatherQuery;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NearbyCellIndexTest {
+
+    private final NearbyCellIndex index = new NearbyCellIndex(new SimpleMeterRegistry());
+
+    NearbyCellIndexTest() {
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "maxDistanceMeters", 1000d);
+        ReflectionTestUtils.setField(index, "maxEntries", 100L);
+        ReflectionTestUtils.setField(index, "hardTtlMinutes", 60L);
+        index.init();
+    }
+
+    @Test
+    void findsTheNearestProviderGridPointWithinDistance() {
+        index.register(query(52.52, 13.41, 7), "berlin", 52.52, 13.419998);
+        index.register(query(52.54, 13.41, 7), "berlin-north", 52.535, 13.41);
+
+        NearbyCellIndex.Match match = index.nearest(query(52.52, 13.42, 7), "requested").orElseThrow();
+        assertThat(match.cacheKey()).isEqualTo("berlin");
+        assertThat(match.distanceMeters()).isLessThan(1);
+
+        assertThat(index.nearest(query(52.54, 13.41, 7), "requested")).hasValueSatisfying(m ->
+                assertThat(m.cacheKey()).isEqualTo("berlin-north"));
+        assertThat(index.nearest(query(52.60, 13.41, 7), "requested")).isEmpty();
+    }
+
+    @Test
+    void onlyMatchesTheSameQueryVariantAndSkipsItsOwnKey() {
+        index.register(query(60.00, 10.00, 7), "oslo", 60.0, 10.0);
+
+        // At 60° a 0.015° step in longitude is ~830 m, in the next cell east.
+        assertThat(index.nearest(query(60.00, 10.015, 7), "requested")).isPresent();
+        assertThat(index.nearest(query(60.00, 10.015, 3), "requested")).isEmpty();
+        assertThat(index.nearest(query(60.00, 10.00, 7), "oslo")).isEmpty();
+
+        index.forget("oslo");
+        assertThat(index.nearest(query(60.00, 10.015, 7), "requested")).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    private static WeatherQuery query(double lat, double lon, int days) {
+        return new WeatherQuery(lat, lon, "temperature_2m", "temperature_2m", null, days, "auto", "celsius", "kmh");
+    }
+}
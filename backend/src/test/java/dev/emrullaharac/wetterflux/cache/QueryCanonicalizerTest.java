@@ -0,0 +1,97 @@
+package dev.emrullaharac.wetterflux.cache;
+
+import dev.emrullaharac.wetterflux.model.domain.WeatherQuery;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryCanonicalizerTest {
+
+    private final QueryCanonicalizer canonicalizer = canonicalizer(true, 0.01);
+
+    @Test
+    void snapsNearbyCoordinatesToTheSameGridCell() {
+        assertThat(canonicalizer.snap(52.52)).isEqualTo(52.52);
+        assertThat(canonicalizer.snap(52.5201)).isEqualTo(52.52);
+        assertThat(canonicalizer.snap(13.4049)).isEqualTo(13.40);
+        assertThat(canonicalizer.snap(13.4001)).isEqualTo(13.40);
+        // Half-way rounds up, so points either side of a cell edge stay in different cells.
+        assertThat(canonicalizer.snap(13.405)).isEqualTo(13.41);
+        assertThat(canonicalizer.snap(-13.4049)).isEqualTo(-13.40);
+        assertThat(Double.doubleToRawLongBits(canonicalizer.snap(-0.001))).isZero();
+
+        WeatherQuery a = canonicalizer.canonicalize(52.52, 13.4049, null, null, null, null, null, null, null);
+        WeatherQuery b = canonicalizer.canonicalize(52.5201, 13.4001, null, null, null, null, null, null, null);
+        assertThat(a).isEqualTo(b);
+        assertThat(canonicalizer.canonicalize(52.52, 13.405, null, null, null, null, null, null, null)).isNotEqualTo(a);
+    }
+
+    @Test
+    void keepsCoordinatesWhenSnappingIsOff() {
+        QueryCanonicalizer exact = canonicalizer(false, 0.01);
+
+        assertThat(exact.snap(52.5201)).isEqualTo(52.5201);
+        assertThat(Double.doubleToRawLongBits(exact.snap(-0.0))).isZero();
+        assertThat(canonicalizer(true, 0).snap(13.4049)).isEqualTo(13.4049);
+    }
+
+    @Test
+    void ordersAndNormalizesVariableLists() {
+        assertThat(QueryCanonicalizer.canonicalVars("wind_speed_10m, Temperature_2m,,weather_code"))
+                .isEqualTo("temperature_2m,weather_code,wind_speed_10m");
+        assertThat(QueryCanonicalizer.canonicalVars("temperature_2m,temperature_2m"))
+                .isEqualTo("temperature_2m");
+        assertThat(QueryCanonicalizer.canonicalVars(" , ")).isNull();
+        assertThat(QueryCanonicalizer.canonicalVars(null)).isNull();
+
+        WeatherQuery a = canonicalizer.canonicalize(52.52, 13.40, null, "wind_speed_10m,temperature_2m", null, 7, null, null, null);
+        WeatherQuery b = canonicalizer.canonicalize(52.52, 13.40, null, "temperature_2m,wind_speed_10m", null, 7, null, null, null);
+        assertThat(a).isEqualTo(b);
+    }
+
+    @Test
+    void fillsInDefaults() {
+        WeatherQuery query = canonicalizer.canonicalize(52.52, 13.40, null, null, null, null, " ", null, " KMH ");
+
+        assertThat(query.forecastDays()).isEqualTo(QueryCanonicalizer.DEFAULT_FORECAST_DAYS);
+        assertThat(query.timezone()).isEqualTo(QueryCanonicalizer.AUTO_TIMEZONE);
+        assertThat(query.temperatureUnit()).isEqualTo(QueryCanonicalizer.DEFAULT_TEMPERATURE_UNIT);
+        assertThat(query.windSpeedUnit()).isEqualTo("kmh");
+
+        WeatherQuery explicit = canonicalizer.canonicalize(52.52, 13.40, null, null, null, 3, "Europe/Berlin", "Fahrenheit", "mph");
+        assertThat(explicit.forecastDays()).isEqualTo(3);
+        assertThat(explicit.timezone()).isEqualTo("Europe/Berlin");
+        assertThat(explicit.temperatureUnit()).isEqualTo("fahrenheit");
+        assertThat(explicit.windSpeedUnit()).isEqualTo("mph");
+    }
+
+    @Test
+    void resolvesAutoTimezoneOnceTheCellsZoneIsKnown() {
+        WeatherQuery first = canonicalizer.canonicalize(52.52, 13.4049, null, null, null, null, "auto", null, null);
+        assertThat(first.timezone()).isEqualTo(QueryCanonicalizer.AUTO_TIMEZONE);
+
+        canonicalizer.rememberTimezone(first, "Europe/Berlin");
+        canonicalizer.rememberTimezone(first, " ");
+
+        assertThat(canonicalizer.canonicalize(52.5201, 13.4001, null, null, null, null, "AUTO", null, null).timezone())
+                .isEqualTo("Europe/Berlin");
+        assertThat(canonicalizer.canonicalize(52.52, 13.40, null, null, null, null, null, null, null).timezone())
+                .isEqualTo("Europe/Berlin");
+        assertThat(canonicalizer.canonicalize(52.52, 13.40, null, null, null, null, "GMT", null, null).timezone())
+                .isEqualTo("GMT");
+        assertThat(canonicalizer.canonicalize(52.52, 13.405, null, null, null, null, "auto", null, null).timezone())
+                .isEqualTo(QueryCanonicalizer.AUTO_TIMEZONE);
+        assertThat(canonicalizer.canonicalize(48.14, 11.58, null, null, null, null, "auto", null, null).timezone())
+                .isEqualTo(QueryCanonicalizer.AUTO_TIMEZONE);
+    }
+
+    private static QueryCanonicalizer canonicalizer(boolean gridSnapping, double gridResolution) {
+        QueryCanonicalizer canonicalizer = new QueryCanonicalizer();
+        ReflectionTestUtils.setField(canonicalizer, "gridSnapping", gridSnapping);
+        ReflectionTestUtils.setField(canonicalizer, "gridResolution", gridResolution);
+        ReflectionTestUtils.setField(canonicalizer, "timezoneMemoSize", 100L);
+        canonicalizer.init();
+        return canonicalizer;
+    }
+}
@@ -0,0 +1,128 @@
+package dev.emrullaharac.wetterflux.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final Counter leaders = registry.counter("leaders");
+    private final Counter coalesced = registry.counter("coalesced");
+    private final SingleFlight<String, String> flights = new SingleFlight<>(leaders, coalesced);
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        List<Future<String>> results = callConcurrently(() -> "forecast");
+
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("forecast");
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(leaders.count()).isEqualTo(1);
+        assertThat(coalesced.count()).isEqualTo(CALLERS - 1);
+        assertThat(flights.isInFlight("k")).isFalse();
+    }
+
+    @Test
+    void loaderFailureReachesEveryCallerAndReleasesTheKey() throws Exception {
+        List<Future<String>> results = callConcurrently(() -> {
+            throw new IllegalStateException("upstream down");
+        });
+
+        for (Future<String> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .cause().isInstanceOf(IllegalStateException.class).hasMessage("upstream down");
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(flights.isInFlight("k")).isFalse();
+
+        assertThat(flights.execute("k", () -> "retried")).isEqualTo("retried");
+        assertThat(leaders.count()).isEqualTo(2);
+    }
+
+    @Test
+    void claimsCoalesceUntilTheLeaderCompletes() {
+        SingleFlight.Claim<String> leader = flights.claim("k");
+        SingleFlight.Claim<String> follower = flights.claim("k");
+        assertThat(leader.leader()).isTrue();
+        assertThat(follower.leader()).isFalse();
+        assertThat(flights.isInFlight("k")).isTrue();
+
+        flights.complete("k", leader, "forecast");
+
+        assertThat(flights.join(follower)).isEqualTo("forecast");
+        assertThat(flights.isInFlight("k")).isFalse();
+        assertThat(flights.claim("k").leader()).isTrue();
+    }
+
+    @Test
+    void failedClaimPropagatesToFollowers() {
+        SingleFlight.Claim<String> leader = flights.claim("k");
+        SingleFlight.Claim<String> follower = flights.claim("k");
+
+        flights.fail("k", leader, new IllegalStateException("chunk failed"));
+
+        assertThatThrownBy(() -> flights.join(follower))
+                .isInstanceOf(IllegalStateException.class).hasMessage("chunk failed");
+        assertThat(flights.isInFlight("k")).isFalse();
+    }
+
+    // The leader's load blocks until every other caller has joined its flight.
+    private List<Future<String>> callConcurrently(Supplier<String> body) throws InterruptedException {
+        Supplier<String> loader = () -> {
+            loads.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(ex);
+            }
+            return body.get();
+        };
+
+        List<Future<String>> results = new ArrayList<>();
+        results.add(executor.submit(() -> flights.execute("k", loader)));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 1; i < CALLERS; i++) {
+            results.add(executor.submit(() -> flights.execute("k", loader)));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (coalesced.count() < CALLERS - 1 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(coalesced.count()).isEqualTo(CALLERS - 1);
+        release.countDown();
+        return results;
+    }
+}
@@ -0,0 +1,61 @@
+package dev.emrullaharac.wetterflux.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(5);
+
+    private final CircuitBreaker breaker = new CircuitBreaker("test", 10, 4, 0.5, 0.8,
+            TimeUnit.SECONDS.toNanos(3), 1000, 2, null);
+
+    @Test
+    void opensOnFailureRateAndRecoversThroughHalfOpen() {
+        breaker.onSuccess(FAST, 0);
+        breaker.onSuccess(FAST, 0);
+        breaker.onFailure(0);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        breaker.onFailure(0);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire(999)).isFalse();
+
+        assertThat(breaker.tryAcquire(1000)).isTrue();
+        assertThat(breaker.tryAcquire(1000)).isTrue();
+        assertThat(breaker.tryAcquire(1000)).isFalse();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+
+        breaker.onSuccess(FAST, 1000);
+        breaker.onSuccess(FAST, 1000);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void opensOnSlowCallsAndReopensOnSlowProbe() {
+        for (int i = 0; i < 4; i++) {
+            breaker.onSuccess(SLOW, 0);
+        }
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        assertThat(breaker.tryAcquire(1000)).isTrue();
+        breaker.onSuccess(SLOW, 1000);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire(1500)).isFalse();
+    }
+
+    @Test
+    void cancelledProbeGivesItsSlotBack() {
+        for (int i = 0; i < 4; i++) {
+            breaker.onFailure(0);
+        }
+        assertThat(breaker.tryAcquire(1000)).isTrue();
+        assertThat(breaker.tryAcquire(1000)).isTrue();
+        breaker.release();
+        assertThat(breaker.tryAcquire(1000)).isTrue();
+    }
+}
@@ -0,0 +1,47 @@
+package dev.emrullaharac.wetterflux.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.emrullaharac.wetterflux.model.dto.WeatherResponseDto;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ForecastDecoderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final TreeForecastDecoder treeDecoder = new TreeForecastDecoder(objectMapper);
+    private final StreamingForecastDecoder streamingDecoder = new StreamingForecastDecoder(objectMapper);
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "forecast_1d.json",
+            "forecast_3d_hourly_only.json",
+            "forecast_7d.json",
+            "forecast_16d.json",
+            "forecast_16d_trailing_nulls.json"
+    })
+    void streamingAndTreeDecodersAgree(String payload) throws IOException {
+        byte[] body = load(payload);
+
+        WeatherResponseDto fromTree = treeDecoder.decode(body);
+        WeatherResponseDto fromStream = streamingDecoder.decode(body);
+
+        assertThat(fromStream).isEqualTo(fromTree);
+        assertThat(objectMapper.writeValueAsString(fromStream))
+                .isEqualTo(objectMapper.writeValueAsString(fromTree));
+        assertThat(fromStream.getHourly().length()).isPositive();
+        assertThat(fromStream.getHourly().isRegular()).isTrue();
+        assertThat(fromStream.getDaily().isEmpty()).isEqualTo(payload.contains("hourly_only"));
+    }
+
+    static byte[] load(String payload) throws IOException {
+        try (InputStream in = ForecastDecoderTest.class.getResourceAsStream("/openmeteo/" + payload)) {
+            assertThat(in).as(payload).isNotNull();
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package dev.emrullaharac.wetterflux.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void refillsAtTheConfiguredRate() {
+        TokenBucket bucket = new TokenBucket(2, 1, 0);
+
+        assertThat(bucket.tryTake(1, 0, 0)).isZero();
+        assertThat(bucket.tryTake(1, 0, 0)).isZero();
+        assertThat(bucket.tryTake(1, 0, 0)).isEqualTo(SECOND);
+        assertThat(bucket.tryTake(1, 0, SECOND)).isZero();
+    }
+
+    @Test
+    void lowerPrioritiesLeaveTheReserve() {
+        TokenBucket bucket = new TokenBucket(10, 1, 0);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(bucket.tryTake(1, 5, 0)).isZero();
+        }
+        assertThat(bucket.tryTake(1, 5, 0)).isPositive();
+        assertThat(bucket.tryTake(1, 0, 0)).isZero();
+    }
+
+    @Test
+    void oversizedCallsNeedAFullBucketAndLeaveDebt() {
+        TokenBucket bucket = new TokenBucket(10, 1, 0);
+
+        assertThat(bucket.tryTake(25, 0, 0)).isZero();
+        assertThat(bucket.available(0)).isEqualTo(-15);
+        assertThat(bucket.tryTake(1, 0, 0)).isEqualTo(16 * SECOND);
+    }
+}
@@ -0,0 +1,234 @@
+package dev.emrullaharac.wetterflux.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.emrullaharac.wetterflux.cache.CachedWeather;
+import dev.emrullaharac.wetterflux.cache.ResponseBodyCache;
+import dev.emrullaharac.wetterflux.exception.GlobalExceptionHandler;
+import dev.emrullaharac.wetterflux.metrics.WeatherMetrics;
+import dev.emrullaharac.wetterflux.model.domain.WeatherData;
+import dev.emrullaharac.wetterflux.model.dto.WeatherResponseDto;
+import dev.emrullaharac.wetterflux.service.WeatherService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+class WeatherControllerTest {
+
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+    private static final Pattern STALE_WHILE_REVALIDATE = Pattern.compile("stale-while-revalidate=(\\d+)");
+
+    private final ResponseBodyCache responseBodyCache = new ResponseBodyCache(
+            new ObjectMapper(), new SimpleMeterRegistry(), new WeatherMetrics(new SimpleMeterRegistry()));
+
+    private CachedWeather entry = entry(forecast(72), 600, 3600);
+
+    // Only getWeatherEntry is stubbed; slice runs for real.
+    private final WeatherService weatherService = new WeatherService(
+            null, null, null, null, null, null, null, null, null, null, null, null) {
+        @Override
+        public CachedWeather getWeatherEntry(double lat, double lon, String currentVars, String hourlyVars,
+                                             String dailyVars, Integer forecastDays, String timezone,
+                                             String temperatureUnit, String windSpeedUnit) {
+            return entry;
+        }
+    };
+
+    private final MockMvc mockMvc = MockMvcBuilders
+            .standaloneSetup(new WeatherController(weatherService, null, responseBodyCache, null))
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+
+    WeatherControllerTest() {
+        ReflectionTestUtils.setField(responseBodyCache, "enabled", true);
+        ReflectionTestUtils.setField(responseBodyCache, "maxEntries", 100L);
+        ReflectionTestUtils.setField(responseBodyCache, "gzipMinBytes", 1024);
+        ReflectionTestUtils.invokeMethod(responseBodyCache, "init");
+    }
+
+    @Test
+    void servesThePrecomputedJsonWithValidators() throws Exception {
+        MockHttpServletResponse response = perform(weather());
+
+        ResponseBodyCache.EncodedBody body = responseBodyCache.encode(entry);
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentType()).isEqualTo("application/json");
+        assertThat(response.getContentAsByteArray()).isEqualTo(body.json());
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(body.etag()).matches("\"[0-9a-f]{32}\"");
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    @Test
+    void encodesEachCacheEntryOnce() {
+        ResponseBodyCache.EncodedBody body = responseBodyCache.encode(entry);
+
+        assertThat(responseBodyCache.encode(entry)).isSameAs(body);
+        assertThat(responseBodyCache.encode(entry.response())).isNotSameAs(body)
+                .satisfies(fresh -> assertThat(fresh.etag()).isEqualTo(body.etag()));
+        assertThat(body.gzipEtag()).isEqualTo(body.etag().substring(0, 33) + "-gz\"");
+    }
+
+    @Test
+    void negotiatesGzip() throws Exception {
+        ResponseBodyCache.EncodedBody body = responseBodyCache.encode(entry);
+
+        MockHttpServletResponse gzip = perform(weather().header(HttpHeaders.ACCEPT_ENCODING, "br, GZIP;q=0.8"));
+        assertThat(gzip.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(gzip.getHeader(HttpHeaders.ETAG)).isEqualTo(body.gzipEtag());
+        assertThat(gunzip(gzip.getContentAsByteArray())).isEqualTo(body.json());
+
+        MockHttpServletResponse refused = perform(weather().header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, br"));
+        assertThat(refused.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(refused.getHeader(HttpHeaders.ETAG)).isEqualTo(body.etag());
+
+        assertThat(perform(weather().header(HttpHeaders.ACCEPT_ENCODING, "deflate"))
+                .getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(perform(weather().header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=bad"))
+                .getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+    }
+
+    @Test
+    void smallBodiesAreNeverGzipped() throws Exception {
+        entry = entry(forecast(1), 600, 3600);
+
+        MockHttpServletResponse response = perform(weather().header(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+
+        assertThat(responseBodyCache.encode(entry).gzip()).isNull();
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(responseBodyCache.encode(entry).etag());
+    }
+
+    @Test
+    void answersAMatchingIfNoneMatchWith304() throws Exception {
+        ResponseBodyCache.EncodedBody body = responseBodyCache.encode(entry);
+
+        for (String ifNoneMatch : new String[]{body.etag(), "W/" + body.etag(), "*", "\"other\", W/" + body.etag()}) {
+            MockHttpServletResponse response = perform(weather().header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch));
+            assertThat(response.getStatus()).as(ifNoneMatch).isEqualTo(304);
+            assertThat(response.getContentAsByteArray()).isEmpty();
+            assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(body.etag());
+            assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).contains("max-age=");
+        }
+
+        MockHttpServletResponse gzip = perform(weather()
+                .header(HttpHeaders.IF_NONE_MATCH, body.gzipEtag())
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+        assertThat(gzip.getStatus()).isEqualTo(304);
+    }
+
+    @Test
+    void servesTheBodyWhenTheTagDoesNotMatch() throws Exception {
+        ResponseBodyCache.EncodedBody body = responseBodyCache.encode(entry);
+
+        assertThat(perform(weather().header(HttpHeaders.IF_NONE_MATCH, "\"other\"")).getStatus()).isEqualTo(200);
+        // The identity tag does not validate the gzip representation, nor the other way around.
+        assertThat(perform(weather()
+                .header(HttpHeaders.IF_NONE_MATCH, body.etag())
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")).getStatus()).isEqualTo(200);
+        assertThat(perform(weather().header(HttpHeaders.IF_NONE_MATCH, body.gzipEtag())).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void cacheControlFollowsTheEntrysExpiry() throws Exception {
+        MockHttpServletResponse fresh = perform(weather());
+        assertThat(seconds(fresh, MAX_AGE)).isBetween(598L, 600L);
+        assertThat(seconds(fresh, STALE_WHILE_REVALIDATE)).isEqualTo(3000);
+        assertThat(fresh.getHeader(HttpHeaders.CACHE_CONTROL)).contains("public");
+
+        entry = entry(forecast(72), -60, 120);
+        MockHttpServletResponse stale = perform(weather());
+        assertThat(seconds(stale, MAX_AGE)).isZero();
+        assertThat(seconds(stale, STALE_WHILE_REVALIDATE)).isBetween(118L, 120L);
+
+        entry = entry(forecast(72), -120, -60);
+        MockHttpServletResponse expired = perform(weather());
+        assertThat(seconds(expired, MAX_AGE)).isZero();
+        assertThat(seconds(expired, STALE_WHILE_REVALIDATE)).isZero();
+    }
+
+    @Test
+    void slicedResponsesGetTheirOwnTag() throws Exception {
+        MockHttpServletResponse full = perform(weather());
+        MockHttpServletResponse sliced = perform(weather()
+                .param("from", "2026-10-18")
+                .param("fields", "temperature_2m"));
+
+        assertThat(sliced.getStatus()).isEqualTo(200);
+        assertThat(sliced.getHeader(HttpHeaders.ETAG)).isNotEqualTo(full.getHeader(HttpHeaders.ETAG));
+        assertThat(sliced.getContentAsByteArray().length).isLessThan(full.getContentAsByteArray().length);
+
+        MockHttpServletResponse invalid = perform(weather().param("from", "2026-10-18").param("to", "2026-10-17"));
+        assertThat(invalid.getStatus()).isEqualTo(400);
+    }
+
+    @Test
+    void fallsBackToPlainSerializationWhenDisabled() throws Exception {
+        ReflectionTestUtils.setField(responseBodyCache, "enabled", false);
+
+        MockHttpServletResponse response = perform(weather()
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .header(HttpHeaders.IF_NONE_MATCH, "*"));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getContentAsByteArray()).isEqualTo(responseBodyCache.encode(entry.response()).json());
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request).andReturn().getResponse();
+    }
+
+    private static MockHttpServletRequestBuilder weather() {
+        return get("/api/v1/weather").param("lat", "52.52").param("lon", "13.41");
+    }
+
+    private static long seconds(MockHttpServletResponse response, Pattern directive) {
+        Matcher matcher = directive.matcher(response.getHeader(HttpHeaders.CACHE_CONTROL));
+        assertThat(matcher.find()).as(response.getHeader(HttpHeaders.CACHE_CONTROL)).isTrue();
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private static byte[] gunzip(byte[] gzip) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static CachedWeather entry(WeatherResponseDto response, long softInSeconds, long hardInSeconds) {
+        long now = System.currentTimeMillis();
+        return new CachedWeather(response, now, now + softInSeconds * 1000, now + hardInSeconds * 1000);
+    }
+
+    private static WeatherResponseDto forecast(int hours) {
+        LocalDateTime start = LocalDateTime.of(2026, 10, 17, 0, 0);
+        WeatherData.Builder hourly = WeatherData.builder();
+        double[] temperature = new double[hours];
+        for (int i = 0; i < hours; i++) {
+            hourly.time(start.plusHours(i).toString());
+            temperature[i] = 10 + i % 7;
+        }
+        return WeatherResponseDto.builder()
+                .latitude(52.52)
+                .longitude(13.41)
+                .timezone("Europe/Berlin")
+                .utcOffsetSeconds(7200)
+                .hourly(hourly.column("temperature_2m", temperature).unit("temperature_2m", "°C").build())
+                .build();
+    }
+}
@@ -0,0 +1,73 @@
+package dev.emrullaharac.wetterflux.geo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CityIndexTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void prefixMatchesAreRankedExactFirstThenByPopulation() throws IOException {
+        CityIndex index = build(
+                row("Bern", "Bern", "", 46.94809, 7.44744, "CH", 121631, "Europe/Zurich"),
+                row("Berlin", "Berlin", "Berlim,Berlín", 52.52437, 13.41053, "DE", 3426354, "Europe/Berlin"),
+                row("Bergen", "Bergen", "", 60.39299, 5.32415, "NO", 213585, "Europe/Oslo"),
+                row("Hamburg", "Hamburg", "", 53.55073, 9.99302, "DE", 1739117, "Europe/Berlin"));
+
+        assertThat(names(index.search("Ber", 10, false))).containsExactly("Berlin", "Bergen", "Bern");
+        assertThat(names(index.search("Ber", 1, false))).containsExactly("Berlin");
+        assertThat(names(index.search("bern", 10, false))).containsExactly("Bern");
+        assertThat(index.search("berlín", 10, false)).singleElement().satisfies(city -> {
+            assertThat(city.country()).isEqualTo("DE");
+            assertThat(city.latitude()).isEqualTo(52.52437);
+            assertThat(city.timezone()).isEqualTo("Europe/Berlin");
+        });
+    }
+
+    @Test
+    void matchesAlternateNamesWithoutDiacriticsAndTypos() throws IOException {
+        CityIndex index = build(
+                row("Munich", "Munich", "Monaco di Baviera,München,Muenchen", 48.13743, 11.57549, "DE", 1260391, "Europe/Berlin"),
+                row("Hamburg", "Hamburg", "", 53.55073, 9.99302, "DE", 1739117, "Europe/Berlin"),
+                row("Harburg", "Harburg", "", 53.46057, 9.98388, "DE", 23000, "Europe/Berlin"),
+                row("Lake", "Lake", "", 1, 1, "US", 10, "America/Chicago"));
+
+        assertThat(names(index.search("munchen", 5, false))).containsExactly("Munich");
+        assertThat(names(index.search("MÜNCH", 5, false))).containsExactly("Munich");
+        assertThat(index.search("Hamburh", 5, false)).isEmpty();
+
+        List<CityIndex.City> fuzzy = index.search("Hamburh", 5, true);
+        assertThat(names(fuzzy)).containsExactly("Hamburg");
+        assertThat(fuzzy.get(0).distance()).isEqualTo(1);
+        // Populated places below the minimum and other feature classes are not indexed.
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    private CityIndex build(String... rows) throws IOException {
+        Path dump = dir.resolve("cities.txt");
+        Path index = dir.resolve("cities.idx");
+        Files.writeString(dump, String.join("\n", rows) + "\n"
+                + "1\tMount Hamburg\tMount Hamburg\t\t1\t1\tT\tMT\tUS\t\t\t\t\t\t5000000\t\t\tAmerica/Denver\t2020-01-01\n");
+        new CityIndexBuilder(100, 10).build(dump, index);
+        return CityIndex.open(index);
+    }
+
+    private static String row(String name, String asciiName, String alternates, double lat, double lon,
+                              String country, int population, String timezone) {
+        return String.join("\t", "1", name, asciiName, alternates, String.valueOf(lat), String.valueOf(lon),
+                "P", "PPL", country, "", "", "", "", "", String.valueOf(population), "", "", timezone, "2024-01-01");
+    }
+
+    private static List<String> names(List<CityIndex.City> cities) {
+        return cities.stream().map(CityIndex.City::name).toList();
+    }
+}
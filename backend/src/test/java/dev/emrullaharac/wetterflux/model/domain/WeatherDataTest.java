@@ -0,0 +1,88 @@
+package dev.emrullaharac.wetterflux.model.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WeatherDataTest {
+
+    @Test
+    void countsPointsBeforeAnInstant() {
+        WeatherData hourly = hourly("2026-10-17T00:00", 24);
+
+        assertThat(hourly.countBefore(Long.MIN_VALUE)).isZero();
+        assertThat(hourly.countBefore(WeatherData.parseEpochSecond("2026-10-17T00:00"))).isZero();
+        assertThat(hourly.countBefore(WeatherData.parseEpochSecond("2026-10-17T06:00"))).isEqualTo(6);
+        assertThat(hourly.countBefore(WeatherData.parseEpochSecond("2026-10-17T06:30"))).isEqualTo(7);
+        assertThat(hourly.countBefore(Long.MAX_VALUE)).isEqualTo(24);
+    }
+
+    @Test
+    void slicesARegularSeriesByIndexAndColumn() {
+        WeatherData hourly = hourly("2026-10-17T00:00", 24);
+
+        WeatherData sliced = hourly.slice(6, 9, List.of("temperature_2m", "unknown"));
+
+        assertThat(sliced.isRegular()).isTrue();
+        assertThat(sliced.length()).isEqualTo(3);
+        assertThat(sliced.timeAt(0)).isEqualTo("2026-10-17T06:00");
+        assertThat(sliced.timeAt(2)).isEqualTo("2026-10-17T08:00");
+        assertThat(sliced.getColumns()).containsOnlyKeys("temperature_2m");
+        assertThat(sliced.column("temperature_2m")).containsExactly(6, 7, 8);
+        assertThat(sliced.getUnits()).containsOnlyKeys("time", "temperature_2m");
+    }
+
+    @Test
+    void slicesAnIrregularSeriesKeepingItsTimes() {
+        WeatherData series = WeatherData.builder()
+                .time("2026-10-17T00:00")
+                .time("2026-10-17T01:00")
+                .time("2026-10-17T03:00")
+                .time("2026-10-17T07:00")
+                .column("precipitation", new double[]{0, 1, 3, 7})
+                .build();
+        assertThat(series.isRegular()).isFalse();
+
+        WeatherData sliced = series.slice(series.countBefore(WeatherData.parseEpochSecond("2026-10-17T02:00")), 4,
+                List.of("precipitation"));
+
+        assertThat(sliced.length()).isEqualTo(2);
+        assertThat(sliced.timeAt(0)).isEqualTo("2026-10-17T03:00");
+        assertThat(sliced.timeAt(1)).isEqualTo("2026-10-17T07:00");
+        assertThat(sliced.column("precipitation")).containsExactly(3, 7);
+    }
+
+    @Test
+    void emptySliceKeepsTheTimeAxisFormat() {
+        WeatherData hourly = hourly("2026-10-17T00:00", 24);
+
+        WeatherData sliced = hourly.slice(24, 24, List.of("temperature_2m"));
+
+        assertThat(sliced.length()).isZero();
+        assertThat(sliced.getTimeFormat()).isEqualTo(WeatherData.TimeFormat.DATE_TIME);
+        assertThat(sliced.column("temperature_2m")).isEmpty();
+    }
+
+    private static WeatherData hourly(String start, int hours) {
+        long first = WeatherData.parseEpochSecond(start);
+        WeatherData.Builder builder = WeatherData.builder();
+        double[] temperature = new double[hours];
+        double[] wind = new double[hours];
+        char[] buf = new char[19];
+        for (int i = 0; i < hours; i++) {
+            int length = WeatherData.formatEpochSecond(first + i * 3600L, WeatherData.TimeFormat.DATE_TIME, buf);
+            builder.time(new String(buf, 0, length));
+            temperature[i] = i;
+            wind[i] = i * 2;
+        }
+        return builder
+                .column("temperature_2m", temperature)
+                .column("wind_speed_10m", wind)
+                .unit("time", "iso8601")
+                .unit("temperature_2m", "°C")
+                .unit("wind_speed_10m", "km/h")
+                .build();
+    }
+}
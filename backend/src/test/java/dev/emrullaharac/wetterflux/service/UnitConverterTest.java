@@ -0,0 +1,69 @@
+package dev.emrullaharac.wetterflux.service;
+
+import dev.emrullaharac.wetterflux.cache.CachedWeather;
+import dev.emrullaharac.wetterflux.model.domain.WeatherData;
+import dev.emrullaharac.wetterflux.model.domain.WeatherQuery;
+import dev.emrullaharac.wetterflux.model.dto.WeatherResponseDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UnitConverterTest {
+
+    private final UnitConverter converter = new UnitConverter(new SimpleMeterRegistry());
+
+    UnitConverterTest() {
+        ReflectionTestUtils.setField(converter, "memoSize", 100L);
+        converter.init();
+    }
+
+    @Test
+    void convertsMatchingColumnsAndSharesTheRest() {
+        double[] humidity = {80, 75};
+        WeatherData hourly = WeatherData.builder()
+                .time("2025-01-01T00:00").time("2025-01-01T01:00")
+                .unit("time", "iso8601")
+                .unit("temperature_2m", "°C").column("temperature_2m", new double[]{20, Double.NaN})
+                .unit("wind_speed_10m", "km/h").column("wind_speed_10m", new double[]{36, 18})
+                .unit("relative_humidity_2m", "%").column("relative_humidity_2m", humidity)
+                .build();
+        WeatherResponseDto response = WeatherResponseDto.builder()
+                .currentTemperature2m(-40.0)
+                .currentWindSpeed10m(10.0)
+                .hourly(hourly)
+                .daily(WeatherData.EMPTY)
+                .build();
+
+        WeatherResponseDto converted = converter.convert(response, query("fahrenheit", "ms"));
+
+        assertThat(converted.getCurrentTemperature2m()).isEqualTo(-40.0);
+        assertThat(converted.getCurrentWindSpeed10m()).isEqualTo(2.8);
+        assertThat(converted.getHourly().column("temperature_2m")).containsExactly(68.0, Double.NaN);
+        assertThat(converted.getHourly().column("wind_speed_10m")).containsExactly(10.0, 5.0);
+        assertThat(converted.getHourly().column("relative_humidity_2m")).isSameAs(humidity);
+        assertThat(converted.getHourly().getUnits())
+                .containsEntry("temperature_2m", "°F")
+                .containsEntry("wind_speed_10m", "m/s")
+                .containsEntry("relative_humidity_2m", "%");
+        assertThat(response.getHourly().getUnits()).containsEntry("temperature_2m", "°C");
+    }
+
+    @Test
+    void canonicalUnitsPassThroughAndConvertedEntriesAreReused() {
+        WeatherResponseDto response = WeatherResponseDto.builder().currentTemperature2m(10.0).build();
+        CachedWeather entry = new CachedWeather(response, 0, 1, 2);
+
+        assertThat(converter.convert(entry, query("celsius", "kmh"))).isSameAs(entry);
+
+        CachedWeather fahrenheit = converter.convert(entry, query("fahrenheit", "kmh"));
+        assertThat(fahrenheit.response().getCurrentTemperature2m()).isEqualTo(50.0);
+        assertThat(fahrenheit.softExpiresAt()).isEqualTo(1);
+        assertThat(converter.convert(entry, query("fahrenheit", "kmh"))).isSameAs(fahrenheit);
+    }
+
+    private static WeatherQuery query(String temperatureUnit, String windSpeedUnit) {
+        return new WeatherQuery(52.52, 13.41, null, null, null, 7, "auto", temperatureUnit, windSpeedUnit);
+    }
+}
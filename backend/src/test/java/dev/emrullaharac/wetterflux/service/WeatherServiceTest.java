@@ -0,0 +1,148 @@
+package dev.emrullaharac.wetterflux.service;
+
+import dev.emrullaharac.wetterflux.exception.ApiException;
+import dev.emrullaharac.wetterflux.model.domain.WeatherData;
+import dev.emrullaharac.wetterflux.model.dto.WeatherResponseDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WeatherServiceTest {
+
+    // slice only reads its arguments.
+    private final WeatherService weatherService = new WeatherService(
+            null, null, null, null, null, null, null, null, null, null, null, null);
+
+    @Test
+    void returnsTheResponseUntouchedWithoutBoundsOrFields() {
+        WeatherResponseDto response = response(LocalDate.of(2026, 10, 17), 0);
+
+        assertThat(weatherService.slice(response, null, null, " ")).isSameAs(response);
+    }
+
+    @Test
+    void narrowsHourlyToTheWindowAndKeepsOverlappingDays() {
+        WeatherResponseDto response = response(LocalDate.of(2026, 10, 17), 0);
+
+        WeatherResponseDto sliced = weatherService.slice(response, "2026-10-18T06:00", "2026-10-19", null);
+
+        assertThat(sliced.getHourly().length()).isEqualTo(18);
+        assertThat(sliced.getHourly().timeAt(0)).isEqualTo("2026-10-18T06:00");
+        assertThat(sliced.getHourly().timeAt(17)).isEqualTo("2026-10-18T23:00");
+        // The 18th starts before the window but overlaps it; the 19th starts at its (exclusive) end.
+        assertThat(sliced.getDaily().length()).isEqualTo(1);
+        assertThat(sliced.getDaily().timeAt(0)).isEqualTo("2026-10-18");
+
+        WeatherResponseDto intoNextDay = weatherService.slice(response, "2026-10-18T06:00", "2026-10-19T01:00", null);
+        assertThat(intoNextDay.getDaily().length()).isEqualTo(2);
+        assertThat(intoNextDay.getDaily().timeAt(1)).isEqualTo("2026-10-19");
+
+        assertThat(sliced.getLatitude()).isEqualTo(response.getLatitude());
+        assertThat(response.getHourly().length()).isEqualTo(72);
+    }
+
+    @Test
+    void openBoundsRunToTheEndsOfTheSeries() {
+        WeatherResponseDto response = response(LocalDate.of(2026, 10, 17), 0);
+
+        WeatherResponseDto from = weatherService.slice(response, "2026-10-19", null, null);
+        assertThat(from.getHourly().length()).isEqualTo(24);
+        assertThat(from.getDaily().length()).isEqualTo(1);
+
+        WeatherResponseDto to = weatherService.slice(response, null, "2026-10-17T12:00:00", null);
+        assertThat(to.getHourly().length()).isEqualTo(12);
+        assertThat(to.getDaily().length()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsOnlyTheRequestedFields() {
+        WeatherResponseDto response = response(LocalDate.of(2026, 10, 17), 0);
+
+        WeatherResponseDto sliced = weatherService.slice(response, null, null, " Temperature_2m ,,");
+
+        assertThat(sliced.getHourly().getColumns()).containsOnlyKeys("temperature_2m");
+        assertThat(sliced.getHourly().length()).isEqualTo(72);
+        assertThat(sliced.getHourly().getUnits()).containsOnlyKeys("time", "temperature_2m");
+        // None of the daily variables were asked for.
+        assertThat(sliced.getDaily()).isSameAs(WeatherData.EMPTY);
+
+        WeatherResponseDto daily = weatherService.slice(response, null, null, "weather_code");
+        assertThat(daily.getHourly()).isSameAs(WeatherData.EMPTY);
+        assertThat(daily.getDaily().getColumns()).containsOnlyKeys("weather_code");
+    }
+
+    @Test
+    void nowIsTheCurrentTimeAtTheResponsesOffset() {
+        int offset = 2 * 3600;
+        LocalDate today = LocalDate.now(ZoneOffset.ofTotalSeconds(offset));
+        WeatherResponseDto response = response(today.minusDays(1), offset);
+
+        long before = Instant.now().getEpochSecond() + offset;
+        WeatherResponseDto sliced = weatherService.slice(response, "now", null, null);
+        long after = Instant.now().getEpochSecond() + offset;
+
+        long first = sliced.getHourly().epochSecondAt(0);
+        assertThat(first).isGreaterThanOrEqualTo(before).isLessThan(after + 3600);
+        assertThat(sliced.getDaily().timeAt(0)).isEqualTo(LocalDate.ofEpochDay(Math.floorDiv(before, 86_400L)).toString());
+
+        WeatherResponseDto byZone = response(today.minusDays(1), offset);
+        byZone.setUtcOffsetSeconds(null);
+        byZone.setTimezone("UTC");
+        long utcNow = Instant.now().getEpochSecond();
+        assertThat(weatherService.slice(byZone, null, "NOW", null).getHourly().length())
+                .isEqualTo((int) ((utcNow - byZone.getHourly().getStartEpochSecond() + 3599) / 3600));
+    }
+
+    @Test
+    void rejectsInvalidBounds() {
+        WeatherResponseDto response = response(LocalDate.of(2026, 10, 17), 0);
+
+        assertBadRequest(() -> weatherService.slice(response, "2026-10-18", "2026-10-18", null), "from must be before to.");
+        assertBadRequest(() -> weatherService.slice(response, "2026-10-19", "2026-10-18", null), "from must be before to.");
+        assertBadRequest(() -> weatherService.slice(response, "2026-10", null, null),
+                "from must be an ISO date, date-time or 'now'.");
+        assertBadRequest(() -> weatherService.slice(response, null, "2026-1x-18", null),
+                "to must be an ISO date, date-time or 'now'.");
+        assertBadRequest(() -> weatherService.slice(response, "tomorrow", null, null),
+                "from must be an ISO date, date-time or 'now'.");
+    }
+
+    private static void assertBadRequest(Runnable call, String message) {
+        assertThatThrownBy(call::run)
+                .isInstanceOfSatisfying(ApiException.class, ex -> assertThat(ex.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST))
+                .hasMessage(message);
+    }
+
+    // Three days of hourly and daily data starting at `start`, in provider-local time.
+    private static WeatherResponseDto response(LocalDate start, Integer utcOffsetSeconds) {
+        WeatherData.Builder hourly = WeatherData.builder();
+        double[] temperature = new double[72];
+        double[] wind = new double[72];
+        for (int i = 0; i < 72; i++) {
+            hourly.time(start.atStartOfDay().plusHours(i).toString());
+            temperature[i] = i;
+            wind[i] = i * 2;
+        }
+        hourly.column("temperature_2m", temperature).column("wind_speed_10m", wind)
+                .unit("time", "iso8601").unit("temperature_2m", "°C").unit("wind_speed_10m", "km/h");
+
+        WeatherData.Builder daily = WeatherData.builder();
+        for (int i = 0; i < 3; i++) daily.time(start.plusDays(i).toString());
+        daily.column("weather_code", new double[]{0, 1, 3}).unit("time", "iso8601").unit("weather_code", "wmo code");
+
+        return WeatherResponseDto.builder()
+                .latitude(52.52)
+                .longitude(13.41)
+                .timezone("Europe/Berlin")
+                .utcOffsetSeconds(utcOffsetSeconds)
+                .hourly(hourly.build())
+                .daily(daily.build())
+                .build();
+    }
+}